@@ -0,0 +1,108 @@
+package digicorp.employeemanagementsb.benchmark;
+
+import digicorp.employeemanagementsb.WebConfig;
+import digicorp.employeemanagementsb.dto.EmployeePageDTO;
+import digicorp.employeemanagementsb.dto.EmployeeRecordDTO;
+import digicorp.employeemanagementsb.model.Employee;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the response formats offered through content negotiation.
+ * <p>
+ * Each benchmark runs once per {@link #format}: JSON, Smile with shared string
+ * values as configured in {@link WebConfig#smileMapperBuilder()}, and CBOR.
+ * {@link #serializeEmployee()} and {@link #serializeRecordPage()} measure the
+ * server's encoding, {@link #parseEmployee()} the decoding on the consumer side.
+ * The encoded sizes of the same documents are listed in the README's binary formats section.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryFormatBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    /** The encoding under test. */
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private Employee employee;
+    private EmployeePageDTO page;
+    private byte[] encodedEmployee;
+
+    /**
+     * Builds the mapper of the format and the documents encoded by every invocation.
+     */
+    @Setup
+    public void setUp() {
+        mapper = switch (format) {
+            case "smile" -> WebConfig.smileMapperBuilder().build();
+            case "cbor" -> CBORMapper.builder().build();
+            default -> JsonMapper.builder().build();
+        };
+        employee = SerializationBenchmark.fullyLoadedEmployee(10012);
+
+        List<EmployeeRecordDTO> records = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            records.add(new EmployeeRecordDTO(10001 + i, "Georgi", "Facello", LocalDate.of(1986, 6, 26).plusDays(i)));
+        }
+        page = new EmployeePageDTO(records, "10020");
+
+        encodedEmployee = mapper.writeValueAsBytes(employee);
+    }
+
+    /**
+     * Encodes an employee with all histories loaded.
+     *
+     * @return the encoded bytes
+     */
+    @Benchmark
+    public byte[] serializeEmployee() {
+        return mapper.writeValueAsBytes(employee);
+    }
+
+    /**
+     * Encodes one page of employee records.
+     *
+     * @return the encoded bytes
+     */
+    @Benchmark
+    public byte[] serializeRecordPage() {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    /**
+     * Decodes an employee document into a tree, as a generic consumer would.
+     *
+     * @return the document tree
+     */
+    @Benchmark
+    public JsonNode parseEmployee() {
+        return mapper.readTree(encodedEmployee);
+    }
+}
@@ -0,0 +1,162 @@
+package digicorp.employeemanagementsb.benchmark;
+
+import digicorp.employeemanagementsb.dto.PromotionRequestDTO;
+import digicorp.employeemanagementsb.model.Department;
+import digicorp.employeemanagementsb.services.CurrentStateIndex;
+import digicorp.employeemanagementsb.services.DepartmentCache;
+import digicorp.employeemanagementsb.services.EmployeeService;
+import digicorp.employeemanagementsb.services.PromotionLocks;
+import digicorp.employeemanagementsb.services.PromotionProcessor;
+import digicorp.employeemanagementsb.services.PromotionState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link EmployeeService#promoteEmployee} without a database.
+ * <p>
+ * The service runs with in-memory stand-ins: the current state comes from a fixed
+ * {@link CurrentStateIndex} lookup, the department from a fixed
+ * {@link DepartmentCache}, the JDBC batches are discarded and transactions are
+ * empty. The {@link PromotionLocks} are real. What is measured is
+ * the request validation, the business rules and the building of the write batch,
+ * which is the application's own share of a promotion.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromotionBenchmark {
+
+    private static final int EMP_NO = 10012;
+
+    private EmployeeService employeeService;
+    private PromotionRequestDTO moveRequest;
+    private PromotionRequestDTO stayRequest;
+
+    /**
+     * Wires the service with the in-memory stand-ins.
+     */
+    @Setup
+    public void setUp() {
+        // never connected to; the templates only require a data source to be set
+        SimpleDriverDataSource dataSource = new SimpleDriverDataSource();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource) {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                int[] counts = new int[batchArgs.size()];
+                Arrays.fill(counts, 1);
+                return counts;
+            }
+        };
+
+        PromotionState state = new PromotionState(
+                EMP_NO, 60117, LocalDate.of(2001, 6, 22), "Senior Engineer", LocalDate.of(1995, 6, 26),
+                "d005", LocalDate.of(1995, 6, 26), "d005", LocalDate.of(1999, 1, 1),
+                Set.of("d004", "d005"), Set.of("d005"));
+        CurrentStateIndex index = new CurrentStateIndex(jdbcTemplate, false, null) {
+            @Override
+            public Map<Integer, PromotionState> lookup(Collection<Integer> empNos) {
+                Map<Integer, PromotionState> states = new HashMap<>();
+                for (int empNo : empNos) {
+                    states.put(empNo, state);
+                }
+                return states;
+            }
+        };
+
+        Map<String, Department> departments = Map.of(
+                "d005", new Department("d005", "Development"),
+                "d008", new Department("d008", "Research"));
+        DepartmentCache departmentCache = new DepartmentCache(null, null, null, null) {
+            @Override
+            public Department find(String deptNo) {
+                return departments.get(deptNo);
+            }
+        };
+
+        PromotionProcessor promotionProcessor = new PromotionProcessor(
+                jdbcTemplate, event -> { }, index, null, null, null);
+        // transactions that begin and end without a resource
+        PlatformTransactionManager transactionManager = new AbstractPlatformTransactionManager() {
+            @Override
+            protected Object doGetTransaction() {
+                return new Object();
+            }
+
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+            }
+
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+            }
+
+            @Override
+            protected void doRollback(DefaultTransactionStatus status) {
+            }
+        };
+        employeeService = new EmployeeService(null, departmentCache, promotionProcessor, new PromotionLocks(1024),
+                transactionManager, index, null, null);
+
+        moveRequest = request("d008", true);
+        stayRequest = request("d005", false);
+    }
+
+    private static PromotionRequestDTO request(String deptNo, boolean manager) {
+        PromotionRequestDTO dto = new PromotionRequestDTO();
+        dto.setEmpNo(EMP_NO);
+        dto.setNewTitle("Technique Leader");
+        dto.setFromDate(LocalDate.of(2015, 11, 18));
+        dto.setNewSalary(80000);
+        dto.setDeptNo(deptNo);
+        dto.setManager(manager);
+        return dto;
+    }
+
+    /**
+     * Promotes into another department as its manager, closing every open record.
+     *
+     * @return the state after the promotion
+     */
+    @Benchmark
+    public PromotionState promoteToOtherDepartment() {
+        return employeeService.promoteEmployee(moveRequest);
+    }
+
+    /**
+     * Promotes within the current department, keeping the department record open.
+     *
+     * @return the state after the promotion
+     */
+    @Benchmark
+    public PromotionState promoteWithinDepartment() {
+        return employeeService.promoteEmployee(stayRequest);
+    }
+}
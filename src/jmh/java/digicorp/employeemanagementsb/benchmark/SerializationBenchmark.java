@@ -0,0 +1,169 @@
+package digicorp.employeemanagementsb.benchmark;
+
+import digicorp.employeemanagementsb.dto.EmployeePageDTO;
+import digicorp.employeemanagementsb.dto.EmployeeRecordDTO;
+import digicorp.employeemanagementsb.dto.PromotionRequestDTO;
+import digicorp.employeemanagementsb.model.Department;
+import digicorp.employeemanagementsb.model.DeptEmployee;
+import digicorp.employeemanagementsb.model.DeptEmployeeId;
+import digicorp.employeemanagementsb.model.DeptManager;
+import digicorp.employeemanagementsb.model.DeptManagerId;
+import digicorp.employeemanagementsb.model.Employee;
+import digicorp.employeemanagementsb.model.SalaryHistory;
+import digicorp.employeemanagementsb.model.SalaryHistoryId;
+import digicorp.employeemanagementsb.model.TitleHistory;
+import digicorp.employeemanagementsb.model.TitleHistoryId;
+import digicorp.employeemanagementsb.services.PromotionProcessor;
+import digicorp.employeemanagementsb.services.PromotionState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the JSON work done per request by the employee endpoints.
+ * <ul>
+ *     <li>{@link #serializeEmployee()}: an {@link Employee} with all four histories
+ *     loaded, as returned by {@code GET /employees/{empNo}?include=...}</li>
+ *     <li>{@link #serializeRecordPage()}: one page of {@link EmployeeRecordDTO}s, as
+ *     returned by the department listing</li>
+ *     <li>{@link #deserializeAndValidatePromotion()}: reading a promotion request
+ *     body and validating it</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final byte[] PROMOTION_JSON = """
+            {
+                "empNo": 10012,
+                "newTitle": "Senior Engineer",
+                "fromDate": "2015-11-18",
+                "newSalary": 70000,
+                "deptNo": "d005",
+                "manager": false
+            }
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private ObjectMapper objectMapper;
+    private PromotionProcessor promotionProcessor;
+    private Employee employee;
+    private EmployeePageDTO page;
+
+    /**
+     * Builds the mapper and the objects serialized by every invocation.
+     */
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().build();
+        // validateRequest needs none of the collaborators
+        promotionProcessor = new PromotionProcessor(null, null, null, null, null, null);
+        employee = fullyLoadedEmployee(10012);
+
+        List<EmployeeRecordDTO> records = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            records.add(new EmployeeRecordDTO(10001 + i, "Georgi", "Facello", LocalDate.of(1986, 6, 26).plusDays(i)));
+        }
+        page = new EmployeePageDTO(records, "10020");
+    }
+
+    /**
+     * Serializes an employee with all histories loaded.
+     *
+     * @return the JSON bytes
+     */
+    @Benchmark
+    public byte[] serializeEmployee() {
+        return objectMapper.writeValueAsBytes(employee);
+    }
+
+    /**
+     * Serializes one page of employee records.
+     *
+     * @return the JSON bytes
+     */
+    @Benchmark
+    public byte[] serializeRecordPage() {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    /**
+     * Reads a promotion request body and validates it.
+     *
+     * @return the request
+     */
+    @Benchmark
+    public PromotionRequestDTO deserializeAndValidatePromotion() {
+        PromotionRequestDTO dto = objectMapper.readValue(PROMOTION_JSON, PromotionRequestDTO.class);
+        promotionProcessor.validateRequest(dto);
+        return dto;
+    }
+
+    /**
+     * Builds an employee with a history of typical length in every table.
+     */
+    static Employee fullyLoadedEmployee(int empNo) {
+        Employee employee = new Employee(empNo);
+        employee.setFirstName("Georgi");
+        employee.setLastName("Facello");
+        employee.setGender("M");
+        employee.setBirthDate(LocalDate.of(1953, 9, 2));
+        employee.setHireDate(LocalDate.of(1986, 6, 26));
+
+        List<SalaryHistory> salaries = new ArrayList<>();
+        LocalDate from = employee.getHireDate();
+        for (int year = 0; year < 17; year++) {
+            LocalDate to = year == 16 ? PromotionState.OPEN : from.plusYears(1);
+            salaries.add(new SalaryHistory(new SalaryHistoryId(empNo, from), employee, 60117 + year * 1200, to));
+            from = from.plusYears(1);
+        }
+        employee.setSalaryHistory(salaries);
+
+        List<TitleHistory> titles = new ArrayList<>();
+        titles.add(new TitleHistory(new TitleHistoryId(empNo, "Engineer", LocalDate.of(1986, 6, 26)),
+                employee, LocalDate.of(1995, 6, 25)));
+        titles.add(new TitleHistory(new TitleHistoryId(empNo, "Senior Engineer", LocalDate.of(1995, 6, 26)),
+                employee, PromotionState.OPEN));
+        employee.setTitleHistory(titles);
+
+        Department development = new Department("d005", "Development");
+        Department research = new Department("d008", "Research");
+        List<DeptEmployee> departments = new ArrayList<>();
+        departments.add(new DeptEmployee(new DeptEmployeeId(empNo, "d005"), employee, development,
+                LocalDate.of(1986, 6, 26), LocalDate.of(1995, 6, 25)));
+        departments.add(new DeptEmployee(new DeptEmployeeId(empNo, "d008"), employee, research,
+                LocalDate.of(1995, 6, 26), PromotionState.OPEN));
+        employee.setDepartments(departments);
+
+        List<DeptManager> managers = new ArrayList<>();
+        DeptManager manager = new DeptManager(new DeptManagerId(empNo, "d008"),
+                LocalDate.of(1999, 1, 1), PromotionState.OPEN);
+        manager.setEmployee(employee);
+        manager.setDepartment(research);
+        managers.add(manager);
+        employee.setManagerHistory(managers);
+        return employee;
+    }
+}
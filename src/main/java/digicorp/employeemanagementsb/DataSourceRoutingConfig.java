@@ -0,0 +1,146 @@
+package digicorp.employeemanagementsb;
+
+import digicorp.employeemanagementsb.services.PrimaryReads;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.transaction.autoconfigure.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Read/write routing between the primary database and a read replica.
+ * <p>
+ * Active only when {@code employees.datasource.replica.url} is set; otherwise
+ * Spring Boot's single data source is used unchanged. Two connection pools are
+ * created, one on {@code spring.datasource.*} and one on the replica, and the
+ * application's {@link DataSource} is a {@link LazyConnectionDataSourceProxy}
+ * over both. The proxy fetches a physical connection only when the first
+ * statement is executed, by which time the transaction manager has marked the
+ * connection read-only for {@code @Transactional(readOnly = true)}. Read-only
+ * transactions therefore run on the replica, everything else on the primary.
+ * </p>
+ *
+ * <p>
+ * A replica may lag behind the primary, so a read right after a promotion can
+ * still return the previous state. Such a state must not outlive the lag in a
+ * cache: sessions of read-only transactions only read from the second-level
+ * cache and never put into it, and reads whose results are cached run through
+ * {@link PrimaryReads}, which sends them to the primary. Promotions themselves
+ * read and write the primary in one read-write transaction.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "employees.datasource.replica.url")
+public class DataSourceRoutingConfig {
+
+    /**
+     * Creates the connection pool of the primary database from {@code spring.datasource.*}.
+     *
+     * @param properties the standard data source properties
+     * @return the primary pool
+     */
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Creates the connection pool of the read replica.
+     * <p>
+     * The driver, user name and password default to those of the primary; pool
+     * settings are bound from {@code employees.datasource.replica.hikari.*}.
+     * </p>
+     *
+     * @param properties the standard data source properties, used for the driver
+     * @param url the JDBC URL of the replica
+     * @param username the replica user name
+     * @param password the replica password
+     * @return the replica pool, handing out read-only connections
+     */
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("employees.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${employees.datasource.replica.url}") String url,
+                                              @Value("${employees.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${employees.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * Creates the routing data source used by JPA, JDBC and the schema initializer.
+     *
+     * @param primaryDataSource the pool for read-write work
+     * @param replicaDataSource the pool for read-only transactions outside {@link PrimaryReads}
+     * @return the routing data source
+     */
+    @Bean
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(new DelegatingDataSource(replicaDataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return PrimaryReads.isActive() ? primaryDataSource.getConnection() : super.getConnection();
+            }
+        });
+        return dataSource;
+    }
+
+    /**
+     * Creates the JPA transaction manager, keeping replica reads out of the second-level cache.
+     * <p>
+     * Replaces Spring Boot's transaction manager. Every transaction sets the cache
+     * mode of its session: {@link CacheMode#GET} for read-only transactions that
+     * may run on the replica, {@link CacheMode#NORMAL} for all others.
+     * </p>
+     *
+     * @param customizers the transaction manager customizers applied by Spring Boot
+     * @return the transaction manager
+     */
+    @Bean
+    public JpaTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager() {
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+                super.doBegin(transaction, definition);
+                EntityManagerHolder holder = (EntityManagerHolder)
+                        TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+                holder.getEntityManager().unwrap(Session.class).setCacheMode(
+                        definition.isReadOnly() && !PrimaryReads.isActive() ? CacheMode.GET : CacheMode.NORMAL);
+            }
+        };
+        customizers.ifAvailable(c -> c.customize(transactionManager));
+        return transactionManager;
+    }
+}
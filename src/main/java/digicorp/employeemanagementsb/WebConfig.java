@@ -1,15 +1,29 @@
 package digicorp.employeemanagementsb;
 
+import digicorp.employeemanagementsb.controller.Controller;
+import digicorp.employeemanagementsb.monitoring.SqlStatisticsFilter;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.JacksonModule;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileFactory;
+import tools.jackson.dataformat.smile.SmileMapper;
+import tools.jackson.dataformat.smile.SmileWriteFeature;
 
 /**
  * Web configuration class for the application.
  * <p>
  * This class customizes Spring MVC behavior by defining global web-related
- * configurations, such as Cross-Origin Resource Sharing (CORS) rules.
+ * configurations, such as Cross-Origin Resource Sharing (CORS) rules and the
+ * binary message formats.
  * </p>
  */
 @Configuration
@@ -29,6 +43,9 @@ public class WebConfig {
      *   <li>All endpoints ({@code /**}) are accessible</li>
      *   <li>Requests are allowed only from {@code http://localhost:3000}</li>
      *   <li>Supported HTTP methods include GET, POST, PUT, DELETE, and OPTIONS</li>
+     *   <li>{@code ETag} and {@code Last-Modified} are readable by the frontend for revalidation</li>
+     *   <li>The {@code X-SQL-*} statistics headers are readable by the frontend</li>
+     *   <li>The roster count headers of department listings are readable by the frontend</li>
      * </ul>
      *
      * @return a {@link WebMvcConfigurer} that applies the defined CORS rules
@@ -46,8 +63,68 @@ public class WebConfig {
             public void addCorsMappings(CorsRegistry registry) {
                 registry.addMapping("/**")
                         .allowedOrigins("http://localhost:5173")
-                        .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS");
+                        .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+                        .exposedHeaders(HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED,
+                                SqlStatisticsFilter.STATEMENTS_HEADER, SqlStatisticsFilter.ROWS_HEADER,
+                                SqlStatisticsFilter.TIME_HEADER,
+                                Controller.TOTAL_COUNT_HEADER, Controller.HEADCOUNT_HEADER);
+            }
+        };
+    }
+
+    /**
+     * Configures the Smile and CBOR message converters used by internal callers.
+     * <p>
+     * Both converters use the mapper beans, which the controller also uses for the
+     * bodies it encodes itself, so every Smile or CBOR body is written the same way.
+     * Smile is written with shared string values, so the titles, dates and
+     * department names repeated in every history row are sent once and referenced
+     * afterwards; any Smile reader resolves those references. CBOR uses Spring
+     * Boot's mapper without the string reference extension, which is not supported
+     * by every CBOR decoder.
+     * </p>
+     *
+     * @param smileMapper the mapper of Smile bodies
+     * @param cborMapper the mapper of CBOR bodies, configured by Spring Boot
+     * @return a {@link WebMvcConfigurer} that configures the binary converters
+     */
+    @Bean
+    public WebMvcConfigurer binaryFormatConfigurer(SmileMapper smileMapper, CBORMapper cborMapper) {
+        return new WebMvcConfigurer() {
+
+            /**
+             * Replaces the default Smile and CBOR converters.
+             *
+             * @param builder the builder of the server's message converters
+             */
+            @Override
+            public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+                builder.withSmileConverter(new JacksonSmileHttpMessageConverter(smileMapper))
+                        .withCborConverter(new JacksonCborHttpMessageConverter(cborMapper));
             }
         };
     }
+
+    /**
+     * Creates the mapper of Smile bodies, with the Jackson modules of the application.
+     *
+     * @param modules the Jackson modules registered as beans
+     * @return the {@link SmileMapper}
+     */
+    @Bean
+    public SmileMapper smileMapper(ObjectProvider<JacksonModule> modules) {
+        return smileMapperBuilder().addModules(modules.orderedStream().toList()).build();
+    }
+
+    /**
+     * Creates a builder of Smile mappers that share repeated string values.
+     *
+     * @return a new {@link SmileMapper.Builder}
+     */
+    public static SmileMapper.Builder smileMapperBuilder() {
+        SmileFactory smileFactory = SmileFactory.builder()
+                .enable(SmileWriteFeature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return SmileMapper.builder(smileFactory);
+    }
 }
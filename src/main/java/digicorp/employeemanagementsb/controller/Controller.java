@@ -1,23 +1,60 @@
 package digicorp.employeemanagementsb.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Set;
 
+import digicorp.employeemanagementsb.dto.DepartmentHeadcountDTO;
+import digicorp.employeemanagementsb.dto.DepartmentPayrollDTO;
+import digicorp.employeemanagementsb.dto.EmployeeCurrentDTO;
+import digicorp.employeemanagementsb.dto.EmployeePageDTO;
 import digicorp.employeemanagementsb.dto.EmployeeRecordDTO;
+import digicorp.employeemanagementsb.dto.HistoryPageDTO;
+import digicorp.employeemanagementsb.dto.PromotionJobDTO;
 import digicorp.employeemanagementsb.dto.PromotionRequestDTO;
+import digicorp.employeemanagementsb.dto.PromotionResultDTO;
 import digicorp.employeemanagementsb.model.Department;
+import digicorp.employeemanagementsb.model.DeptEmployee;
+import digicorp.employeemanagementsb.model.DeptManager;
 import digicorp.employeemanagementsb.model.Employee;
-import digicorp.employeemanagementsb.repository.DepartmentRepo;
-import digicorp.employeemanagementsb.repository.EmployeeRepo;
+import digicorp.employeemanagementsb.model.SalaryHistory;
+import digicorp.employeemanagementsb.model.TitleHistory;
+import digicorp.employeemanagementsb.monitoring.SqlBudget;
+import digicorp.employeemanagementsb.services.DepartmentCache;
+import digicorp.employeemanagementsb.services.DepartmentHeadcountSeries;
+import digicorp.employeemanagementsb.services.DepartmentPayrollAggregates;
+import digicorp.employeemanagementsb.services.DepartmentRosterCounts;
+import digicorp.employeemanagementsb.services.EmployeeBatchGetService;
+import digicorp.employeemanagementsb.services.EmployeeFetchPlan;
+import digicorp.employeemanagementsb.services.EmployeeHistoryService;
+import digicorp.employeemanagementsb.services.EmployeeNameIndex;
 import digicorp.employeemanagementsb.services.EmployeeService;
+import digicorp.employeemanagementsb.services.PromotionBatchService;
+import digicorp.employeemanagementsb.services.PromotionJobQueue;
+import digicorp.employeemanagementsb.services.RosterExportService;
+import digicorp.employeemanagementsb.services.RosterStatus;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.data.domain.Sort;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
 
 /**
  * REST controller that exposes HTTP endpoints for managing employees
@@ -32,53 +69,222 @@ import org.springframework.data.domain.Sort;
  * All responses are returned as JSON and appropriate HTTP status codes
  * are used for error handling.
  * </p>
+ *
+ * <p>
+ * Internal callers may ask for a binary encoding of the same documents instead:
+ * {@code Accept: application/x-jackson-smile} or {@code application/cbor}. Request
+ * bodies may be sent in either format as well. JSON stays the default, and the
+ * roster export keeps its streaming NDJSON and CSV formats.
+ * </p>
  */
 @RestController
 public class Controller {
 
-    private final DepartmentRepo departmentRepo;
-    private final EmployeeRepo employeeRepo;
+    private final DepartmentCache departmentCache;
+    private final DepartmentPayrollAggregates departmentPayrollAggregates;
+    private final DepartmentHeadcountSeries departmentHeadcountSeries;
+    private final DepartmentRosterCounts departmentRosterCounts;
+    private final EmployeeNameIndex employeeNameIndex;
     private final EmployeeService employeeService;
+    private final PromotionBatchService promotionBatchService;
+    private final PromotionJobQueue promotionJobQueue;
+    private final RosterExportService rosterExportService;
+    private final EmployeeBatchGetService employeeBatchGetService;
+    private final EmployeeHistoryService employeeHistoryService;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+    private final ObjectMapper cborMapper;
+
+    /** Media type of newline-delimited JSON request and response bodies. */
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+    /** Media type of CSV response bodies. */
+    public static final String TEXT_CSV = "text/csv";
+    /** Media type of Smile (binary JSON) request and response bodies. */
+    public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+    /** Response header carrying the number of employees a department listing pages through. */
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    /** Response header carrying the current headcount of the listed department. */
+    public static final String HEADCOUNT_HEADER = "X-Headcount";
+
+    /** The body formats of negotiated responses, JSON first so that it wins ties. */
+    private static final List<MediaType> RESPONSE_FORMATS = List.of(
+            MediaType.APPLICATION_JSON, MediaType.parseMediaType(APPLICATION_SMILE), MediaType.APPLICATION_CBOR);
 
     /**
      * Constructs the controller with required dependencies.
      *
-     * @param departmentRepo repository for department data access
-     * @param employeeRepo   repository for employee data access
+     * @param departmentCache cached, pre-serialized department list
+     * @param departmentPayrollAggregates incrementally maintained payroll figures per department
+     * @param departmentHeadcountSeries monthly headcount series per department
+     * @param departmentRosterCounts in-memory roster sizes and headcounts per department
+     * @param employeeNameIndex in-memory prefix index over employee names
      * @param employeeService service containing employee business logic
+     * @param promotionBatchService service applying promotions in chunked batches
+     * @param promotionJobQueue queue applying promotions asynchronously
+     * @param rosterExportService service streaming complete department rosters
+     * @param employeeBatchGetService service streaming many employees by number
+     * @param employeeHistoryService service returning employee histories in slices
+     * @param jsonMapper the JSON mapper, used for responses the controller streams itself
+     * @param smileMapper the mapper of the registered Smile converter
+     * @param cborMapper the mapper of the registered CBOR converter
      */
-    public Controller(DepartmentRepo departmentRepo,
-                             EmployeeRepo employeeRepo,
-                             EmployeeService employeeService) {
-        this.departmentRepo = departmentRepo;
-        this.employeeRepo = employeeRepo;
+    public Controller(DepartmentCache departmentCache,
+                             DepartmentPayrollAggregates departmentPayrollAggregates,
+                             DepartmentHeadcountSeries departmentHeadcountSeries,
+                             DepartmentRosterCounts departmentRosterCounts,
+                             EmployeeNameIndex employeeNameIndex,
+                             EmployeeService employeeService,
+                             PromotionBatchService promotionBatchService,
+                             PromotionJobQueue promotionJobQueue,
+                             RosterExportService rosterExportService,
+                             EmployeeBatchGetService employeeBatchGetService,
+                             EmployeeHistoryService employeeHistoryService,
+                             ObjectMapper jsonMapper,
+                             SmileMapper smileMapper,
+                             CBORMapper cborMapper) {
+        this.departmentCache = departmentCache;
+        this.departmentPayrollAggregates = departmentPayrollAggregates;
+        this.departmentHeadcountSeries = departmentHeadcountSeries;
+        this.departmentRosterCounts = departmentRosterCounts;
+        this.employeeNameIndex = employeeNameIndex;
         this.employeeService = employeeService;
+        this.promotionBatchService = promotionBatchService;
+        this.promotionJobQueue = promotionJobQueue;
+        this.rosterExportService = rosterExportService;
+        this.employeeBatchGetService = employeeBatchGetService;
+        this.employeeHistoryService = employeeHistoryService;
+        this.jsonMapper = jsonMapper;
+        this.smileMapper = smileMapper;
+        this.cborMapper = cborMapper;
     }
 
     /**
      * Retrieves all departments in ascending order of department number.
+     * <p>
+     * The list is served from {@link DepartmentCache} as pre-serialized JSON with a
+     * strong {@code ETag} and a {@code Last-Modified} header. A request carrying a
+     * matching {@code If-None-Match} or {@code If-Modified-Since} header is answered
+     * with {@code 304 Not Modified} and no body.
+     * </p>
+     *
+     * <p>
+     * Smile and CBOR are encoded per request from the cached list, with an ETag of
+     * their own.
+     * </p>
      *
-     * @return a list of all {@link Department} entities
+     * @param accept the {@code Accept} request header
+     * @return the array of all {@link Department}s
      */
     @GetMapping("/department")
-    public List<Department> listDepartment() {
-        return departmentRepo.findAll(Sort.by(Sort.Direction.ASC, "deptNo"));
+    @SqlBudget(statements = 1)
+    public ResponseEntity<?> listDepartment(
+            @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.ALL_VALUE) String accept) {
+        DepartmentCache.Snapshot departments = departmentCache.get();
+        MediaType format = responseFormat(accept);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format)
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(CacheControl.noCache())
+                .eTag(formatEtag(departments.getEtag(), format))
+                .lastModified(departments.getLastModified());
+        if (MediaType.APPLICATION_JSON.equals(format)) {
+            return response.body(departments.getJson());
+        }
+        return response.body(departments.getDepartments());
+    }
+
+    /**
+     * Retrieves the payroll figures of every department: headcount and total,
+     * average, minimum and maximum of the current salaries.
+     * <p>
+     * Served from {@link DepartmentPayrollAggregates}, which is kept up to date by
+     * promotions, so no salary rows are read.
+     * </p>
+     *
+     * @return one {@link DepartmentPayrollDTO} per department, ordered by department number
+     * @throws ResponseStatusException if the aggregates are not available
+     */
+    @GetMapping("/department/payroll")
+    @SqlBudget(statements = 2)
+    public List<DepartmentPayrollDTO> getDepartmentPayroll() {
+        return departmentPayrollAggregates.getSummary();
+    }
+
+    /**
+     * Retrieves the monthly headcount of every department, or of one department,
+     * from {@value DepartmentHeadcountSeries#START_YEAR} until the current month.
+     *
+     * @param deptNo optional department number (e.g. d001); all departments if absent
+     * @return one {@link DepartmentHeadcountDTO} per department, ordered by department number
+     * @throws ResponseStatusException if the department number is malformed or unknown,
+     *         or the series is not available
+     */
+    @GetMapping("/department/headcount")
+    @SqlBudget(statements = 2)
+    public List<DepartmentHeadcountDTO> getDepartmentHeadcount(@RequestParam(required = false) String deptNo) {
+        return departmentHeadcountSeries.getSeries(deptNo == null ? null : validateDeptNo(deptNo));
+    }
+
+    /**
+     * Searches employees by first and last name.
+     * <p>
+     * Each word of {@code q} must start the employee's first or last name; whole-name
+     * matches rank higher. Results come from an in-memory index, best matches first,
+     * {@value EmployeeService#PAGE_SIZE} per slice. Pass the returned
+     * {@code nextCursor} as {@code after} to fetch the following slice.
+     * </p>
+     *
+     * @param q     one or more name prefixes separated by spaces (e.g. {@code geo fac})
+     * @param after optional cursor returned by the previous slice
+     * @return an {@link EmployeePageDTO} with the matches and the cursor for the next slice
+     * @throws ResponseStatusException if the query or cursor is invalid
+     */
+    @GetMapping("/employees/search")
+    @SqlBudget(statements = 2)
+    public EmployeePageDTO searchEmployees(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String after) {
+
+        if (q == null || q.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "{\"error\":\"Query parameter 'q' is required\"}");
+        }
+        if (q.length() > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "{\"error\":\"Query parameter 'q' must be at most 100 characters\"}");
+        }
+        return employeeNameIndex.search(q, after, EmployeeService.PAGE_SIZE);
     }
 
     /**
      * Retrieves a single employee by employee number.
      * <p>
      * Validates that the employee number is a positive integer before querying
-     * the database.
+     * the database. By default only the employee's own fields are returned;
+     * history collections are added through the {@code include} parameter,
+     * e.g. {@code include=titles,salaries} or {@code include=all}.
+     * </p>
+     *
+     * <p>
+     * The response carries an {@code ETag} that changes whenever the employee is
+     * promoted. If it matches the request's {@code If-None-Match} header,
+     * {@code 304 Not Modified} is returned without loading the employee.
      * </p>
      *
      * @param empNoStr the employee number provided as a path variable
-     * @return the {@link Employee} if found
+     * @param include  comma-separated history collections to load
+     * @param accept   the {@code Accept} request header, which selects the body format
+     * @param request  the current request, used for the conditional check
+     * @return the {@link Employee} if found, or {@code null} once a 304 has been set
      * @throws ResponseStatusException if the input is invalid or employee is not found
      */
     @GetMapping("/employees/{empNo}")
-    public Employee getEmployee(
-        @PathVariable("empNo") String empNoStr){
+    @SqlBudget(statements = 6)
+    public ResponseEntity<Employee> getEmployee(
+        @PathVariable("empNo") String empNoStr,
+        @RequestParam(defaultValue = "") String include,
+        @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.ALL_VALUE) String accept,
+        WebRequest request){
 
         // Edge Case: validate empNo format
         if (empNoStr == null || !empNoStr.matches("\\d+")) {
@@ -87,29 +293,497 @@ public class Controller {
         }
 
         int empNo = Integer.parseInt(empNoStr);
+        Set<EmployeeFetchPlan> plans = EmployeeFetchPlan.parse(include);
 
-        return employeeRepo.findByEmpNo(empNo).orElseThrow(() -> new ResponseStatusException(
-                HttpStatus.NOT_FOUND, "Employee not found"
-        ));
+        MediaType format = responseFormat(accept);
+        String etag = formatEtag(employeeService.getEmployeeEtag(empNo, plans), format);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(format)
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(etag)
+                .body(employeeService.getEmployee(empNo, plans));
+    }
+
+    /**
+     * Retrieves the current title, salary, department and manager of an employee.
+     * <p>
+     * A lighter alternative to {@code GET /employees/{empNo}} when the history is
+     * not needed: one database round trip and a flat, small payload. With
+     * {@code asOf=yyyy-MM-dd} the records valid on that date are returned instead.
+     * </p>
+     *
+     * @param empNoStr the employee number provided as a path variable
+     * @param asOf     optional date to look at instead of today
+     * @return the employee's {@link EmployeeCurrentDTO}
+     * @throws ResponseStatusException if the input is invalid or employee is not found
+     */
+    @GetMapping("/employees/{empNo}/current")
+    @SqlBudget(statements = 3)
+    public EmployeeCurrentDTO getEmployeeCurrent(
+            @PathVariable("empNo") String empNoStr,
+            @RequestParam(required = false) String asOf) {
+
+        // Edge Case: validate empNo format
+        if (empNoStr == null || !empNoStr.matches("\\d+")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "{\"error\":\"Employee number must be a positive integer.\"}");
+        }
+
+        int empNo = Integer.parseInt(empNoStr);
+        if (asOf != null) {
+            return employeeService.getStateAsOf(empNo, parseAsOf(asOf));
+        }
+        return employeeService.getCurrentState(empNo);
+    }
+
+    /**
+     * Retrieves the title, salary, department and manager an employee had on a given date.
+     * <p>
+     * Selected instead of the full employee view whenever the {@code asOf}
+     * parameter is present; equivalent to {@code GET /employees/{empNo}/current?asOf=...}.
+     * </p>
+     *
+     * @param empNoStr the employee number provided as a path variable
+     * @param asOf     the date to look at (yyyy-MM-dd)
+     * @return the employee's {@link EmployeeCurrentDTO} as of that date
+     * @throws ResponseStatusException if the input is invalid or employee is not found
+     */
+    @GetMapping(value = "/employees/{empNo}", params = "asOf")
+    @SqlBudget(statements = 3)
+    public EmployeeCurrentDTO getEmployeeAsOf(
+            @PathVariable("empNo") String empNoStr,
+            @RequestParam String asOf) {
+        return getEmployeeCurrent(empNoStr, asOf);
+    }
+
+    /**
+     * Retrieves an employee's salaries, oldest first, one slice at a time.
+     * <p>
+     * The optional {@code from} and {@code to} dates (yyyy-MM-dd) restrict the
+     * result to salaries in effect at some point in that period. Up to
+     * {@code employees.history.page-size} salaries are returned per slice; pass the
+     * returned {@code nextCursor} as {@code after}, with the same dates, to fetch the
+     * following slice.
+     * </p>
+     *
+     * @param empNoStr the employee number provided as a path variable
+     * @param from     optional first day of the period
+     * @param to       optional last day of the period
+     * @param after    optional cursor returned by the previous slice
+     * @return a {@link HistoryPageDTO} of {@link SalaryHistory} records
+     * @throws ResponseStatusException if the input is invalid or employee is not found
+     */
+    @GetMapping("/employees/{empNo}/salaries")
+    @SqlBudget(statements = 2)
+    public HistoryPageDTO<SalaryHistory> getSalaryHistory(
+            @PathVariable("empNo") String empNoStr,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String after) {
+        return employeeHistoryService.getSalaries(parseEmpNo(empNoStr),
+                parseDate("from", from), parseDate("to", to), after);
+    }
+
+    /**
+     * Retrieves an employee's titles, oldest first, one slice at a time.
+     * <p>
+     * Filtered and paginated like {@code GET /employees/{empNo}/salaries}.
+     * </p>
+     *
+     * @param empNoStr the employee number provided as a path variable
+     * @param from     optional first day of the period
+     * @param to       optional last day of the period
+     * @param after    optional cursor returned by the previous slice
+     * @return a {@link HistoryPageDTO} of {@link TitleHistory} records
+     * @throws ResponseStatusException if the input is invalid or employee is not found
+     */
+    @GetMapping("/employees/{empNo}/titles")
+    @SqlBudget(statements = 2)
+    public HistoryPageDTO<TitleHistory> getTitleHistory(
+            @PathVariable("empNo") String empNoStr,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String after) {
+        return employeeHistoryService.getTitles(parseEmpNo(empNoStr),
+                parseDate("from", from), parseDate("to", to), after);
+    }
+
+    /**
+     * Retrieves an employee's department assignments, oldest first, one slice at a time.
+     * <p>
+     * Filtered and paginated like {@code GET /employees/{empNo}/salaries}.
+     * </p>
+     *
+     * @param empNoStr the employee number provided as a path variable
+     * @param from     optional first day of the period
+     * @param to       optional last day of the period
+     * @param after    optional cursor returned by the previous slice
+     * @return a {@link HistoryPageDTO} of {@link DeptEmployee} records
+     * @throws ResponseStatusException if the input is invalid or employee is not found
+     */
+    @GetMapping("/employees/{empNo}/departments")
+    @SqlBudget(statements = 2)
+    public HistoryPageDTO<DeptEmployee> getDepartmentHistory(
+            @PathVariable("empNo") String empNoStr,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String after) {
+        return employeeHistoryService.getDepartments(parseEmpNo(empNoStr),
+                parseDate("from", from), parseDate("to", to), after);
+    }
+
+    /**
+     * Retrieves the departments an employee has managed, oldest first, one slice at a time.
+     * <p>
+     * Filtered and paginated like {@code GET /employees/{empNo}/salaries}.
+     * </p>
+     *
+     * @param empNoStr the employee number provided as a path variable
+     * @param from     optional first day of the period
+     * @param to       optional last day of the period
+     * @param after    optional cursor returned by the previous slice
+     * @return a {@link HistoryPageDTO} of {@link DeptManager} records
+     * @throws ResponseStatusException if the input is invalid or employee is not found
+     */
+    @GetMapping("/employees/{empNo}/managers")
+    @SqlBudget(statements = 2)
+    public HistoryPageDTO<DeptManager> getManagerHistory(
+            @PathVariable("empNo") String empNoStr,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String after) {
+        return employeeHistoryService.getManagers(parseEmpNo(empNoStr),
+                parseDate("from", from), parseDate("to", to), after);
     }
 
     /**
      * Retrieves a paginated list of employees belonging to a specific department.
      * <p>
      * The department number must follow the format {@code d###} (e.g. d001).
-     * Pagination starts from page 1.
+     * Pagination starts from page 1. {@code status=current} lists only the employees
+     * currently assigned to the department, {@code status=former} only those who
+     * have left it; the default {@code all} lists both.
+     * </p>
+     *
+     * <p>
+     * The {@value #TOTAL_COUNT_HEADER} and {@value #HEADCOUNT_HEADER} headers carry
+     * the number of employees listed over all pages and the department's current
+     * headcount; both come from {@link DepartmentRosterCounts}, so no count query
+     * is run.
      * </p>
      *
      * @param deptNo the department number
      * @param page   the page number (1-based)
+     * @param status {@code current}, {@code former} or {@code all}
      * @return a list of {@link EmployeeRecordDTO} for the given department
      * @throws ResponseStatusException if validation fails
      */
     @GetMapping("/employees/by-department")
-    public List<EmployeeRecordDTO> getEmployeesByDept(
+    @SqlBudget(statements = 1)
+    public ResponseEntity<List<EmployeeRecordDTO>> getEmployeesByDept(
+            @RequestParam String deptNo,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(required = false) String status) {
+
+        deptNo = validateDeptNo(deptNo);
+
+        //Validate page no
+        if (page <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "{\"error\":\"invalid page number\"}");
+        }
+
+        RosterStatus roster = RosterStatus.parse(status);
+        return withRosterCounts(deptNo, roster, employeeService.findByDepartment(deptNo, page, roster));
+    }
+
+    /**
+     * Retrieves a cursor-paginated slice of employees belonging to a specific department.
+     * <p>
+     * This variant is selected whenever the {@code after} query parameter is present.
+     * An empty {@code after} starts from the beginning of the department; each response
+     * carries a {@code nextCursor} to pass as {@code after} for the following slice.
+     * Unlike page numbers, deep slices cost the same as the first one. The same
+     * {@code status} filter and count headers apply as for page numbers.
+     * </p>
+     *
+     * @param deptNo the department number
+     * @param after  the opaque cursor returned by the previous slice, or empty for the first slice
+     * @param status {@code current}, {@code former} or {@code all}
+     * @return an {@link EmployeePageDTO} containing the slice and the next cursor
+     * @throws ResponseStatusException if validation fails or the cursor is malformed
+     */
+    @GetMapping(value = "/employees/by-department", params = "after")
+    @SqlBudget(statements = 1)
+    public ResponseEntity<EmployeePageDTO> getEmployeesByDeptAfter(
             @RequestParam String deptNo,
-            @RequestParam(defaultValue = "1") int page) {
+            @RequestParam String after,
+            @RequestParam(required = false) String status) {
 
+        deptNo = validateDeptNo(deptNo);
+        RosterStatus roster = RosterStatus.parse(status);
+        return withRosterCounts(deptNo, roster, employeeService.findByDepartmentAfter(deptNo, after, roster));
+    }
+
+    /**
+     * Retrieves many employees in one call.
+     * <p>
+     * The body is an array of employee numbers, e.g. {@code [10001, 10002]}, and
+     * {@code include} selects the history collections as for
+     * {@code GET /employees/{empNo}}. The employees are loaded in chunks with one
+     * query per collection and chunk (see {@link EmployeeBatchGetService}) and
+     * streamed back as an array in request order, with {@code null} for numbers
+     * that do not exist. The body format follows the {@code Accept} header like
+     * every other endpoint.
+     * </p>
+     *
+     * @param empNos   the employee numbers to return
+     * @param include  comma-separated history collections to load
+     * @param accept   the {@code Accept} request header, which selects the body format
+     * @param response the response the employees are written to
+     * @throws IOException if the response cannot be written
+     * @throws ResponseStatusException if the body or {@code include} is invalid
+     */
+    @PostMapping(value = "/employees/batch-get",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE, MediaType.APPLICATION_CBOR_VALUE})
+    public void batchGetEmployees(
+            @RequestBody(required = false) List<Integer> empNos,
+            @RequestParam(defaultValue = "") String include,
+            @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.ALL_VALUE) String accept,
+            HttpServletResponse response) throws IOException {
+
+        Set<EmployeeFetchPlan> plans = EmployeeFetchPlan.parse(include);
+        employeeBatchGetService.validate(empNos);
+
+        MediaType format = responseFormat(accept);
+        response.setContentType(format.toString());
+        employeeBatchGetService.write(empNos, plans, mapperFor(format), response.getOutputStream());
+    }
+
+    /**
+     * Streams the complete roster of a department in a single response.
+     * <p>
+     * The format is chosen through the {@code Accept} header: {@code text/csv}
+     * produces CSV with a header row when it is preferred over newline-delimited
+     * JSON, which is produced otherwise with one {@link EmployeeRecordDTO} per
+     * line. Rows are written to the
+     * response as they are read from the database, so heap use stays constant
+     * whatever the department size.
+     * </p>
+     *
+     * @param deptNo   the department number
+     * @param accept   the {@code Accept} request header
+     * @param response the response the roster is written to
+     * @throws IOException if the response cannot be written
+     * @throws ResponseStatusException if validation fails or neither format is acceptable
+     */
+    @GetMapping(value = "/employees/by-department/export", produces = {APPLICATION_NDJSON, TEXT_CSV})
+    @SqlBudget(statements = 1)
+    public void exportEmployeesByDept(
+            @RequestParam String deptNo,
+            @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = APPLICATION_NDJSON) String accept,
+            HttpServletResponse response) throws IOException {
+
+        deptNo = validateDeptNo(deptNo).toLowerCase();
+        boolean csv = exportFormat(accept).equals(MediaType.parseMediaType(TEXT_CSV));
+
+        response.setCharacterEncoding("UTF-8");
+        response.setContentType(csv ? TEXT_CSV : APPLICATION_NDJSON);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + deptNo + "-employees." + (csv ? "csv" : "ndjson") + "\"");
+
+        if (csv) {
+            rosterExportService.writeCsv(deptNo, response.getOutputStream());
+        } else {
+            rosterExportService.writeNdjson(deptNo, response.getOutputStream());
+        }
+    }
+
+    /**
+     * Wraps a department listing in a response carrying the department's roster counts.
+     * <p>
+     * The total follows the listing's status filter. The count headers are left
+     * out if the counts are not available.
+     * </p>
+     *
+     * @param deptNo the validated department number
+     * @param status the members of the department being listed
+     * @param body   the page or slice of the listing
+     * @return the response
+     */
+    private <T> ResponseEntity<T> withRosterCounts(String deptNo, RosterStatus status, T body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        DepartmentRosterCounts.Counts counts = departmentRosterCounts.get(deptNo);
+        if (counts != null) {
+            int total = switch (status) {
+                case CURRENT -> counts.getCurrent();
+                case FORMER -> counts.getTotal() - counts.getCurrent();
+                case ALL -> counts.getTotal();
+            };
+            response.header(TOTAL_COUNT_HEADER, Integer.toString(total))
+                    .header(HEADCOUNT_HEADER, Integer.toString(counts.getCurrent()));
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Parses an {@code asOf} date parameter.
+     *
+     * @param asOf the raw parameter value
+     * @return the parsed date
+     * @throws ResponseStatusException if the value is not a yyyy-MM-dd date
+     */
+    private LocalDate parseAsOf(String asOf) {
+        return parseDate("asOf", asOf);
+    }
+
+    /**
+     * Parses an optional date parameter.
+     *
+     * @param name  the parameter name, used in the error message
+     * @param value the raw parameter value, or {@code null}
+     * @return the parsed date, or {@code null} if the parameter is absent
+     * @throws ResponseStatusException if the value is not a yyyy-MM-dd date
+     */
+    private LocalDate parseDate(String name, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "{\"error\":\"" + name + " must be a date (yyyy-MM-dd)\"}");
+        }
+    }
+
+    /**
+     * Validates and parses an employee number path variable.
+     *
+     * @param empNoStr the raw employee number
+     * @return the employee number
+     * @throws ResponseStatusException if the value is not a positive integer
+     */
+    private int parseEmpNo(String empNoStr) {
+        if (empNoStr == null || !empNoStr.matches("\\d{1,9}")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "{\"error\":\"Employee number must be a positive integer.\"}");
+        }
+        return Integer.parseInt(empNoStr);
+    }
+
+    /**
+     * Chooses the body format of a response from the {@code Accept} header.
+     * <p>
+     * Smile or CBOR is only chosen when the header names it explicitly with a
+     * higher quality than JSON; wildcards and everything else get JSON.
+     * </p>
+     *
+     * @param accept the {@code Accept} request header
+     * @return {@code application/json}, {@code application/x-jackson-smile} or {@code application/cbor}
+     */
+    private static MediaType responseFormat(String accept) {
+        MediaType best = MediaType.APPLICATION_JSON;
+        double bestQuality = 0;
+        for (MediaType format : RESPONSE_FORMATS) {
+            for (MediaType accepted : MediaType.parseMediaTypes(accept)) {
+                boolean matches = format.equals(MediaType.APPLICATION_JSON)
+                        ? accepted.includes(format)
+                        : accepted.equalsTypeAndSubtype(format);
+                if (matches && accepted.getQualityValue() > bestQuality) {
+                    best = format;
+                    bestQuality = accepted.getQualityValue();
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Chooses the format of a roster export from the {@code Accept} header.
+     * <p>
+     * Each format gets the quality of the most specific media range that
+     * includes it. CSV is only chosen when the header names it explicitly with a
+     * higher quality than NDJSON; wildcards and ties get NDJSON.
+     * </p>
+     *
+     * @param accept the {@code Accept} request header
+     * @return {@code application/x-ndjson} or {@code text/csv}
+     * @throws ResponseStatusException if the header rules out both formats
+     */
+    private static MediaType exportFormat(String accept) {
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        MediaType csv = MediaType.parseMediaType(TEXT_CSV);
+        double ndjsonQuality = quality(accepted, MediaType.parseMediaType(APPLICATION_NDJSON));
+        double csvQuality = accepted.stream().anyMatch(type -> type.equalsTypeAndSubtype(csv))
+                ? quality(accepted, csv) : 0;
+        if (ndjsonQuality == 0 && csvQuality == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE,
+                    "{\"error\":\"The roster is only exported as application/x-ndjson or text/csv.\"}");
+        }
+        return csvQuality > ndjsonQuality ? csv : MediaType.parseMediaType(APPLICATION_NDJSON);
+    }
+
+    /**
+     * Returns the quality of the most specific accepted media range that includes a format.
+     *
+     * @param accepted the media ranges of the {@code Accept} header
+     * @param format   the format
+     * @return the quality, or {@code 0} if no range includes the format
+     */
+    private static double quality(List<MediaType> accepted, MediaType format) {
+        double quality = 0;
+        int specificity = -1;
+        for (MediaType type : accepted) {
+            int typeSpecificity = type.isWildcardType() ? 0 : type.isWildcardSubtype() ? 1 : 2;
+            if (type.includes(format) && typeSpecificity > specificity) {
+                quality = type.getQualityValue();
+                specificity = typeSpecificity;
+            }
+        }
+        return quality;
+    }
+
+    /**
+     * Returns the mapper that writes a response format chosen by {@link #responseFormat}.
+     *
+     * @param format the response format
+     * @return the JSON, Smile or CBOR mapper
+     */
+    private ObjectMapper mapperFor(MediaType format) {
+        if (format.equals(MediaType.APPLICATION_CBOR)) {
+            return cborMapper;
+        }
+        return format.equals(MediaType.APPLICATION_JSON) ? jsonMapper : smileMapper;
+    }
+
+    /**
+     * Derives the entity tag of a binary representation from that of the JSON one,
+     * so that every format is validated separately.
+     *
+     * @param etag the quoted JSON entity tag, or {@code null}
+     * @param format the response format
+     * @return the entity tag of the format, or {@code null}
+     */
+    private static String formatEtag(String etag, MediaType format) {
+        if (etag == null || MediaType.APPLICATION_JSON.equals(format)) {
+            return etag;
+        }
+        String suffix = format.equals(MediaType.APPLICATION_CBOR) ? "cbor" : "smile";
+        return etag.substring(0, etag.length() - 1) + "-" + suffix + "\"";
+    }
+
+    /**
+     * Validates and normalizes a department number query parameter.
+     *
+     * @param deptNo the raw department number
+     * @return the trimmed department number
+     * @throws ResponseStatusException if the department number is missing or malformed
+     */
+    private String validateDeptNo(String deptNo) {
         // Validate deptNo exists
         if (deptNo == null || deptNo.trim().isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
@@ -123,14 +797,7 @@ public class Controller {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     "{\"error\":\"Invalid deptNo format. Expected format 'd001', 'd002', ...\"}");
         }
-
-        //Validate page no
-        if (page <= 0) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                    "{\"error\":\"invalid page number\"}");
-        }
-
-        return employeeService.findByDepartment(deptNo, page);
+        return deptNo;
     }
 
     /**
@@ -154,6 +821,7 @@ public class Controller {
      * @return the updated {@link Employee} after promotion
      */
     @PostMapping("/employees/promote")
+    @SqlBudget(statements = 12)
     public String promote(@RequestBody PromotionRequestDTO requestDTO) {
         // Delegate promotion logic to the service
         if (employeeService.promoteEmployee(requestDTO) != null){
@@ -163,4 +831,73 @@ public class Controller {
     }
 
 }
-}
\ No newline at end of file
+
+    /**
+     * Queues a promotion and returns immediately.
+     * <p>
+     * Selected by {@code async=true}. The request is validated without touching the
+     * database and answered with {@code 202 Accepted}, the job and its status URL in
+     * the {@code Location} header; worker threads apply queued promotions in groups.
+     * See {@link PromotionJobQueue}.
+     * </p>
+     *
+     * @param requestDTO the promotion request payload, as for {@code POST /employees/promote}
+     * @return the queued {@link PromotionJobDTO}
+     * @throws ResponseStatusException with {@code 400} if the request is invalid, or
+     *         {@code 429} if the queue is full
+     */
+    @PostMapping(value = "/employees/promote", params = "async=true")
+    @SqlBudget(statements = 0)
+    public ResponseEntity<PromotionJobDTO> promoteAsync(@RequestBody PromotionRequestDTO requestDTO) {
+        PromotionJobDTO job = promotionJobQueue.submit(requestDTO);
+        return ResponseEntity.accepted()
+                .location(URI.create("/employees/promote/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    /**
+     * Reports the status of a promotion queued with {@code POST /employees/promote?async=true}.
+     *
+     * @param id the job id
+     * @return the {@link PromotionJobDTO}
+     * @throws ResponseStatusException if the job does not exist or has expired
+     */
+    @GetMapping("/employees/promote/jobs/{id}")
+    @SqlBudget(statements = 0)
+    public PromotionJobDTO getPromotionJob(@PathVariable("id") String id) {
+        return promotionJobQueue.getJob(id);
+    }
+
+    /**
+     * Promotes many employees in one call from an array of promotion requests, sent
+     * as JSON, Smile or CBOR.
+     * <p>
+     * Promotions are applied in order and committed in chunks; see
+     * {@link PromotionBatchService}. Each element uses the same format as
+     * {@code POST /employees/promote}.
+     * </p>
+     *
+     * @param requests the promotion requests
+     * @return one {@link PromotionResultDTO} per request, in request order
+     */
+    @PostMapping(value = "/employees/promote/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE, MediaType.APPLICATION_CBOR_VALUE})
+    public List<PromotionResultDTO> promoteBatch(@RequestBody List<PromotionRequestDTO> requests) {
+        return promotionBatchService.promoteAll(requests.iterator());
+    }
+
+    /**
+     * Promotes many employees in one call from a newline-delimited JSON stream.
+     * <p>
+     * Each line holds one promotion request. The body is read as it arrives, so very
+     * large batches do not have to be buffered before processing starts.
+     * </p>
+     *
+     * @param body the NDJSON request body
+     * @return one {@link PromotionResultDTO} per non-blank line, in request order
+     */
+    @PostMapping(value = "/employees/promote/batch", consumes = APPLICATION_NDJSON)
+    public List<PromotionResultDTO> promoteBatchNdjson(InputStream body) {
+        return promotionBatchService.promoteNdjson(body);
+    }
+}
@@ -0,0 +1,60 @@
+package digicorp.employeemanagementsb.dto;
+
+/**
+ * Data Transfer Object (DTO) representing the monthly headcount series of one department.
+ * <p>
+ * {@code headcounts[i]} is the number of employees assigned to the department on the
+ * first day of the {@code i}-th month counted from {@code startMonth}. The series
+ * runs up to and including the current month.
+ * </p>
+ */
+public class DepartmentHeadcountDTO {
+    /** The department number. */
+    private String deptNo;
+    /** The department name. */
+    private String deptName;
+    /** The first month of the series, formatted as {@code yyyy-MM}. */
+    private String startMonth;
+    /** The headcount on the first day of each month. */
+    private int[] headcounts;
+
+    /**
+     * Constructs a new {@code DepartmentHeadcountDTO}.
+     *
+     * @param deptNo     the department number
+     * @param deptName   the department name
+     * @param startMonth the first month of the series ({@code yyyy-MM})
+     * @param headcounts the headcount on the first day of each month
+     */
+    public DepartmentHeadcountDTO(String deptNo, String deptName, String startMonth, int[] headcounts) {
+        this.deptNo = deptNo;
+        this.deptName = deptName;
+        this.startMonth = startMonth;
+        this.headcounts = headcounts;
+    }
+
+    /**
+     * Returns the department number.
+     *
+     * @return the department number
+     */
+    public String getDeptNo() { return deptNo; }
+    /**
+     * Returns the department name.
+     *
+     * @return the department name
+     */
+    public String getDeptName() { return deptName; }
+    /**
+     * Returns the first month of the series.
+     *
+     * @return the month, formatted as {@code yyyy-MM}
+     */
+    public String getStartMonth() { return startMonth; }
+    /**
+     * Returns the headcount on the first day of each month.
+     *
+     * @return one value per month, starting at {@link #getStartMonth()}
+     */
+    public int[] getHeadcounts() { return headcounts; }
+}
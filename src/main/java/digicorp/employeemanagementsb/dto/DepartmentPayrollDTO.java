@@ -0,0 +1,91 @@
+package digicorp.employeemanagementsb.dto;
+
+/**
+ * Data Transfer Object (DTO) representing the payroll figures of one department.
+ * <p>
+ * Covers the employees currently assigned to the department, using each
+ * employee's current salary. The salary figures are {@code null} for a
+ * department without current employees.
+ * </p>
+ */
+public class DepartmentPayrollDTO {
+    /** The department number. */
+    private String deptNo;
+    /** The department name. */
+    private String deptName;
+    /** The number of employees currently assigned to the department. */
+    private int headcount;
+    /** The sum of their current salaries. */
+    private long totalSalary;
+    /** The average of their current salaries. */
+    private Double averageSalary;
+    /** The lowest current salary in the department. */
+    private Integer minSalary;
+    /** The highest current salary in the department. */
+    private Integer maxSalary;
+
+    /**
+     * Constructs a new {@code DepartmentPayrollDTO} with the provided figures.
+     *
+     * @param deptNo        the department number
+     * @param deptName      the department name
+     * @param headcount     the number of current employees
+     * @param totalSalary   the sum of their current salaries
+     * @param averageSalary the average current salary, or {@code null} if there are no employees
+     * @param minSalary     the lowest current salary, or {@code null} if there are no employees
+     * @param maxSalary     the highest current salary, or {@code null} if there are no employees
+     */
+    public DepartmentPayrollDTO(String deptNo, String deptName, int headcount, long totalSalary,
+                                Double averageSalary, Integer minSalary, Integer maxSalary) {
+        this.deptNo = deptNo;
+        this.deptName = deptName;
+        this.headcount = headcount;
+        this.totalSalary = totalSalary;
+        this.averageSalary = averageSalary;
+        this.minSalary = minSalary;
+        this.maxSalary = maxSalary;
+    }
+
+    /**
+     * Returns the department number.
+     *
+     * @return the department number
+     */
+    public String getDeptNo() { return deptNo; }
+    /**
+     * Returns the department name.
+     *
+     * @return the department name
+     */
+    public String getDeptName() { return deptName; }
+    /**
+     * Returns the number of employees currently assigned to the department.
+     *
+     * @return the headcount
+     */
+    public int getHeadcount() { return headcount; }
+    /**
+     * Returns the sum of the current salaries.
+     *
+     * @return the total salary
+     */
+    public long getTotalSalary() { return totalSalary; }
+    /**
+     * Returns the average current salary.
+     *
+     * @return the average, or {@code null} if there are no employees
+     */
+    public Double getAverageSalary() { return averageSalary; }
+    /**
+     * Returns the lowest current salary.
+     *
+     * @return the minimum, or {@code null} if there are no employees
+     */
+    public Integer getMinSalary() { return minSalary; }
+    /**
+     * Returns the highest current salary.
+     *
+     * @return the maximum, or {@code null} if there are no employees
+     */
+    public Integer getMaxSalary() { return maxSalary; }
+}
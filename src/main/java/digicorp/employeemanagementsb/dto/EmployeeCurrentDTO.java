@@ -0,0 +1,154 @@
+package digicorp.employeemanagementsb.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object (DTO) representing the current state of an employee.
+ * <p>
+ * Holds only the open ({@code toDate = 9999-01-01}) title, salary, department and
+ * manager records, flattened into one object. Fields of records the employee does
+ * not have, for example the managed department of a non-manager, are {@code null}
+ * and left out of the JSON output.
+ * </p>
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EmployeeCurrentDTO {
+    /** The employee's unique identification number. */
+    private int empNo;
+    /** The employee's given name. */
+    private String firstName;
+    /** The employee's family name or surname. */
+    private String lastName;
+    /** The current title. */
+    private String title;
+    /** The date the current title started. */
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate titleFromDate;
+    /** The current salary. */
+    private Integer salary;
+    /** The date the current salary started. */
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate salaryFromDate;
+    /** The number of the current department. */
+    private String deptNo;
+    /** The name of the current department. */
+    private String deptName;
+    /** The date the current department assignment started. */
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate deptFromDate;
+    /** The number of the department the employee currently manages. */
+    private String managerDeptNo;
+    /** The date the current manager assignment started. */
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate managerFromDate;
+
+    /**
+     * Constructs a new {@code EmployeeCurrentDTO} with the provided details.
+     *
+     * @param empNo           the employee number
+     * @param firstName       the employee's first name
+     * @param lastName        the employee's last name
+     * @param title           the current title, or {@code null}
+     * @param titleFromDate   start of the current title, or {@code null}
+     * @param salary          the current salary, or {@code null}
+     * @param salaryFromDate  start of the current salary, or {@code null}
+     * @param deptNo          the current department number, or {@code null}
+     * @param deptName        the current department name, or {@code null}
+     * @param deptFromDate    start of the current department assignment, or {@code null}
+     * @param managerDeptNo   the department currently managed, or {@code null}
+     * @param managerFromDate start of the current manager assignment, or {@code null}
+     */
+    public EmployeeCurrentDTO(int empNo, String firstName, String lastName,
+                              String title, LocalDate titleFromDate,
+                              Integer salary, LocalDate salaryFromDate,
+                              String deptNo, String deptName, LocalDate deptFromDate,
+                              String managerDeptNo, LocalDate managerFromDate) {
+        this.empNo = empNo;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.title = title;
+        this.titleFromDate = titleFromDate;
+        this.salary = salary;
+        this.salaryFromDate = salaryFromDate;
+        this.deptNo = deptNo;
+        this.deptName = deptName;
+        this.deptFromDate = deptFromDate;
+        this.managerDeptNo = managerDeptNo;
+        this.managerFromDate = managerFromDate;
+    }
+
+    /**
+     * Returns the employee's unique ID.
+     *
+     * @return the employee number
+     */
+    public int getEmpNo() { return empNo; }
+    /**
+     * Returns the employee's first name.
+     *
+     * @return the first name
+     */
+    public String getFirstName() { return firstName; }
+    /**
+     * Returns the employee's last name.
+     *
+     * @return the last name
+     */
+    public String getLastName() { return lastName; }
+    /**
+     * Returns the current title.
+     *
+     * @return the title, or {@code null} if none
+     */
+    public String getTitle() { return title; }
+    /**
+     * Returns the date the current title started.
+     *
+     * @return the start date, or {@code null} if none
+     */
+    public LocalDate getTitleFromDate() { return titleFromDate; }
+    /**
+     * Returns the current salary.
+     *
+     * @return the salary, or {@code null} if none
+     */
+    public Integer getSalary() { return salary; }
+    /**
+     * Returns the date the current salary started.
+     *
+     * @return the start date, or {@code null} if none
+     */
+    public LocalDate getSalaryFromDate() { return salaryFromDate; }
+    /**
+     * Returns the number of the current department.
+     *
+     * @return the department number, or {@code null} if none
+     */
+    public String getDeptNo() { return deptNo; }
+    /**
+     * Returns the name of the current department.
+     *
+     * @return the department name, or {@code null} if none
+     */
+    public String getDeptName() { return deptName; }
+    /**
+     * Returns the date the current department assignment started.
+     *
+     * @return the start date, or {@code null} if none
+     */
+    public LocalDate getDeptFromDate() { return deptFromDate; }
+    /**
+     * Returns the number of the department the employee currently manages.
+     *
+     * @return the department number, or {@code null} if the employee is no manager
+     */
+    public String getManagerDeptNo() { return managerDeptNo; }
+    /**
+     * Returns the date the current manager assignment started.
+     *
+     * @return the start date, or {@code null} if the employee is no manager
+     */
+    public LocalDate getManagerFromDate() { return managerFromDate; }
+}
@@ -0,0 +1,42 @@
+package digicorp.employeemanagementsb.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing one cursor-paginated slice of
+ * employees, such as a department roster or name search results.
+ * <p>
+ * The {@code nextCursor} token is opaque to clients: it is passed back
+ * unchanged as the {@code after} query parameter to fetch the following
+ * slice, and is {@code null} once the last slice has been returned.
+ */
+public class EmployeePageDTO {
+    /** The employees contained in this slice, in the order of the underlying query. */
+    private final List<EmployeeRecordDTO> employees;
+    /** Token to request the next slice, or {@code null} if there are no more rows. */
+    private final String nextCursor;
+
+    /**
+     * Constructs a new {@code EmployeePageDTO}.
+     *
+     * @param employees  the employees in this slice
+     * @param nextCursor the cursor for the next slice, or {@code null} if this is the last one
+     */
+    public EmployeePageDTO(List<EmployeeRecordDTO> employees, String nextCursor) {
+        this.employees = employees;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Returns the employees in this slice.
+     *
+     * @return the list of employee records
+     */
+    public List<EmployeeRecordDTO> getEmployees() { return employees; }
+    /**
+     * Returns the cursor for the next slice.
+     *
+     * @return the next cursor, or {@code null} if there are no more rows
+     */
+    public String getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,44 @@
+package digicorp.employeemanagementsb.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing one cursor-paginated slice of an
+ * employee history, such as salaries or titles.
+ * <p>
+ * As with {@link EmployeePageDTO}, the {@code nextCursor} token is opaque: it is
+ * passed back unchanged as the {@code after} query parameter, together with the
+ * same date filters, and is {@code null} once the last slice has been returned.
+ *
+ * @param <T> the type of the history records
+ */
+public class HistoryPageDTO<T> {
+    /** The records contained in this slice, oldest first. */
+    private final List<T> records;
+    /** Token to request the next slice, or {@code null} if there are no more records. */
+    private final String nextCursor;
+
+    /**
+     * Constructs a new {@code HistoryPageDTO}.
+     *
+     * @param records    the records in this slice
+     * @param nextCursor the cursor for the next slice, or {@code null} if this is the last one
+     */
+    public HistoryPageDTO(List<T> records, String nextCursor) {
+        this.records = records;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Returns the records in this slice.
+     *
+     * @return the list of history records
+     */
+    public List<T> getRecords() { return records; }
+    /**
+     * Returns the cursor for the next slice.
+     *
+     * @return the next cursor, or {@code null} if there are no more records
+     */
+    public String getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,76 @@
+package digicorp.employeemanagementsb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Data Transfer Object (DTO) reporting the state of an asynchronous promotion.
+ * <p>
+ * Returned with {@code 202 Accepted} when a promotion is queued and by
+ * {@code GET /employees/promote/jobs/{id}} afterwards. {@code message} is only
+ * present once the job has finished.
+ *
+ * Example Json output:
+ * {
+ *     "id": "4f1c2a8e-6b0d-4c4e-9a57-2d7c1f3b9e10",
+ *     "empNo": 10012,
+ *     "status": "promoted",
+ *     "message": "promotion successful"
+ * }
+ * </p>
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PromotionJobDTO {
+    /** Status of a job waiting in the queue. */
+    public static final String QUEUED = "queued";
+    /** Status of a job whose group is being applied. */
+    public static final String RUNNING = "running";
+
+    /** The job id. */
+    private final String id;
+    /** The employee number of the promotion. */
+    private final int empNo;
+    /** {@link #QUEUED}, {@link #RUNNING}, {@link PromotionResultDTO#PROMOTED} or {@link PromotionResultDTO#FAILED}. */
+    private final String status;
+    /** Detail about the outcome, or {@code null} while the job has not finished. */
+    private final String message;
+
+    /**
+     * Constructs a new {@code PromotionJobDTO}.
+     *
+     * @param id      the job id
+     * @param empNo   the employee number
+     * @param status  the job status
+     * @param message detail about the outcome, or {@code null}
+     */
+    public PromotionJobDTO(String id, int empNo, String status, String message) {
+        this.id = id;
+        this.empNo = empNo;
+        this.status = status;
+        this.message = message;
+    }
+
+    /**
+     * Returns the job id.
+     *
+     * @return the id
+     */
+    public String getId() { return id; }
+    /**
+     * Returns the employee number.
+     *
+     * @return the employee number
+     */
+    public int getEmpNo() { return empNo; }
+    /**
+     * Returns the job status.
+     *
+     * @return {@code queued}, {@code running}, {@code promoted} or {@code failed}
+     */
+    public String getStatus() { return status; }
+    /**
+     * Returns detail about the outcome.
+     *
+     * @return the message, or {@code null} while the job has not finished
+     */
+    public String getMessage() { return message; }
+}
@@ -0,0 +1,95 @@
+package digicorp.employeemanagementsb.dto;
+
+/**
+ * Data Transfer Object (DTO) reporting the outcome of one promotion in a batch.
+ * <p>
+ * Results are returned in the same order as the submitted promotions, and
+ * {@code index} refers to the 0-based position of the promotion in the request.
+ *
+ * Example Json output:
+ * {
+ *     "index": 3,
+ *     "empNo": 10012,
+ *     "status": "failed",
+ *     "message": "fromDate must be AFTER latest existing date: 2002-06-22"
+ * }
+ *
+ */
+public class PromotionResultDTO {
+    /** Status of a promotion that was committed. */
+    public static final String PROMOTED = "promoted";
+    /** Status of a promotion that was rejected or could not be written. */
+    public static final String FAILED = "failed";
+
+    /** Position of the promotion in the submitted batch, starting at 0. */
+    private final int index;
+    /** The employee number of the promotion, or 0 if it could not be read. */
+    private final int empNo;
+    /** Either {@link #PROMOTED} or {@link #FAILED}. */
+    private final String status;
+    /** Human-readable detail about the outcome. */
+    private final String message;
+
+    /**
+     * Constructs a new {@code PromotionResultDTO}.
+     *
+     * @param index   the position of the promotion in the batch
+     * @param empNo   the employee number
+     * @param status  the outcome status
+     * @param message detail about the outcome
+     */
+    public PromotionResultDTO(int index, int empNo, String status, String message) {
+        this.index = index;
+        this.empNo = empNo;
+        this.status = status;
+        this.message = message;
+    }
+
+    /**
+     * Creates a result for a committed promotion.
+     *
+     * @param index the position of the promotion in the batch
+     * @param empNo the employee number
+     * @return a successful result
+     */
+    public static PromotionResultDTO promoted(int index, int empNo) {
+        return new PromotionResultDTO(index, empNo, PROMOTED, "promotion successful");
+    }
+
+    /**
+     * Creates a result for a rejected or failed promotion.
+     *
+     * @param index   the position of the promotion in the batch
+     * @param empNo   the employee number
+     * @param message the reason the promotion failed
+     * @return a failed result
+     */
+    public static PromotionResultDTO failed(int index, int empNo, String message) {
+        return new PromotionResultDTO(index, empNo, FAILED, message);
+    }
+
+    /**
+     * Returns the position of the promotion in the batch.
+     *
+     * @return the 0-based index
+     */
+    public int getIndex() { return index; }
+    /**
+     * Returns the employee number.
+     *
+     * @return the employee number
+     */
+    public int getEmpNo() { return empNo; }
+    /**
+     * Returns the outcome status.
+     *
+     * @return {@code promoted} or {@code failed}
+     */
+    public String getStatus() { return status; }
+    /**
+     * Returns detail about the outcome.
+     *
+     * @return the message
+     */
+    public String getMessage() { return message; }
+}
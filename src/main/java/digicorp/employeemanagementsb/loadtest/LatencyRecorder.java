@@ -0,0 +1,72 @@
+package digicorp.employeemanagementsb.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Records the latencies of one kind of request on one thread.
+ * <p>
+ * Every sample is kept, so percentiles are exact rather than estimated from
+ * buckets. Recorders of several threads are combined with {@link #merge}. Not
+ * thread-safe.
+ * </p>
+ */
+class LatencyRecorder {
+
+    private long[] nanos = new long[1024];
+    private int count;
+    private int errors;
+
+    /**
+     * Records one completed request.
+     *
+     * @param latencyNanos the time from sending the request to reading the full response
+     * @param ok whether the response had a 2xx or 304 status
+     */
+    void record(long latencyNanos, boolean ok) {
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        nanos[count++] = latencyNanos;
+        if (!ok) {
+            errors++;
+        }
+    }
+
+    /**
+     * Adds the samples of another recorder to this one.
+     *
+     * @param other the recorder to merge
+     */
+    void merge(LatencyRecorder other) {
+        if (count + other.count > nanos.length) {
+            nanos = Arrays.copyOf(nanos, count + other.count);
+        }
+        System.arraycopy(other.nanos, 0, nanos, count, other.count);
+        count += other.count;
+        errors += other.errors;
+    }
+
+    /**
+     * Formats the count, error count, throughput and percentiles of the samples.
+     *
+     * @param name the request kind
+     * @param seconds the length of the measurement
+     * @return one line of the report
+     */
+    String summary(String name, double seconds) {
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        return String.format("%-16s %9d requests %6d errors %10.1f req/s   p50 %8.2f ms   p99 %8.2f ms   p99.9 %8.2f ms",
+                name, count, errors, count / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999));
+    }
+
+    /** Nearest-rank percentile, in milliseconds. */
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,122 @@
+package digicorp.employeemanagementsb.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the load-test database with a {@link SyntheticDataset}.
+ * <p>
+ * Runs as an {@link ApplicationRunner}, i.e. after the context has started but
+ * before the application is reported ready, so the in-memory indexes that load on
+ * {@code ApplicationReadyEvent} see the seeded data. Rows are inserted as JDBC
+ * batches of {@value #BATCH_EMPLOYEES} employees.
+ * </p>
+ */
+@Component
+@Profile("loadtest")
+public class SyntheticDataSeeder implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataSeeder.class);
+
+    private static final int BATCH_EMPLOYEES = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SyntheticDataset dataset;
+    private final int employees;
+
+    /**
+     * Constructs the seeder.
+     *
+     * @param jdbcTemplate the template bound to the load-test database
+     * @param seed the seed of the dataset; equal seeds produce equal data
+     * @param employees the number of employees to generate
+     */
+    public SyntheticDataSeeder(JdbcTemplate jdbcTemplate,
+                               @Value("${loadtest.seed:42}") long seed,
+                               @Value("${loadtest.employees:20000}") int employees) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataset = new SyntheticDataset(seed);
+        this.employees = employees;
+    }
+
+    /**
+     * Returns the generator the database was seeded with.
+     *
+     * @return the dataset
+     */
+    public SyntheticDataset getDataset() { return dataset; }
+
+    /**
+     * Returns the number of seeded employees.
+     *
+     * @return the number of employees, numbered from {@link SyntheticDataset#FIRST_EMP_NO}
+     */
+    public int getEmployees() { return employees; }
+
+    /**
+     * Seeds the database.
+     *
+     * @param args the application arguments (unused)
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        List<Object[]> departments = new ArrayList<>();
+        for (String[] dept : SyntheticDataset.DEPARTMENTS) {
+            departments.add(new Object[]{dept[0], dept[1]});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO departments (dept_no, dept_name) VALUES (?, ?)", departments);
+
+        int last = SyntheticDataset.FIRST_EMP_NO + employees;
+        for (int from = SyntheticDataset.FIRST_EMP_NO; from < last; from += BATCH_EMPLOYEES) {
+            insert(from, Math.min(from + BATCH_EMPLOYEES, last));
+        }
+        log.info("Seeded {} synthetic employees in {} ms", employees, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void insert(int fromEmpNo, int toEmpNo) {
+        List<Object[]> employeeRows = new ArrayList<>();
+        List<Object[]> salaryRows = new ArrayList<>();
+        List<Object[]> titleRows = new ArrayList<>();
+        List<Object[]> deptRows = new ArrayList<>();
+        List<Object[]> managerRows = new ArrayList<>();
+        for (int empNo = fromEmpNo; empNo < toEmpNo; empNo++) {
+            SyntheticDataset.SyntheticEmployee e = dataset.generate(empNo);
+            employeeRows.add(new Object[]{empNo, e.getBirthDate(), e.getFirstName(), e.getLastName(),
+                    e.getGender(), e.getHireDate()});
+            for (SyntheticDataset.Record r : e.getSalaries()) {
+                salaryRows.add(new Object[]{empNo, r.getAmount(), r.getFromDate(), r.getToDate()});
+            }
+            for (SyntheticDataset.Record r : e.getTitles()) {
+                titleRows.add(new Object[]{empNo, r.getLabel(), r.getFromDate(), r.getToDate()});
+            }
+            for (SyntheticDataset.Record r : e.getDepartments()) {
+                deptRows.add(new Object[]{empNo, r.getLabel(), r.getFromDate(), r.getToDate()});
+            }
+            for (SyntheticDataset.Record r : e.getManagers()) {
+                managerRows.add(new Object[]{empNo, r.getLabel(), r.getFromDate(), r.getToDate()});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO employees (emp_no, birth_date, first_name, last_name, gender, hire_date)"
+                + " VALUES (?, ?, ?, ?, ?, ?)", employeeRows);
+        jdbcTemplate.batchUpdate("INSERT INTO salaries (emp_no, salary, from_date, to_date) VALUES (?, ?, ?, ?)",
+                salaryRows);
+        jdbcTemplate.batchUpdate("INSERT INTO titles (emp_no, title, from_date, to_date) VALUES (?, ?, ?, ?)",
+                titleRows);
+        jdbcTemplate.batchUpdate("INSERT INTO dept_emp (emp_no, dept_no, from_date, to_date) VALUES (?, ?, ?, ?)",
+                deptRows);
+        if (!managerRows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO dept_manager (emp_no, dept_no, from_date, to_date) VALUES (?, ?, ?, ?)",
+                    managerRows);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package digicorp.employeemanagementsb.loadtest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of employees and their history records.
+ * <p>
+ * Every employee is generated from its own random stream, derived from the seed
+ * and the employee number, so the same seed always yields the same dataset and
+ * any single employee can be regenerated without the others. The shape follows
+ * the MariaDB employees sample database: nine departments, yearly salary rows,
+ * one or two titles, occasional department moves, a share of employees who have
+ * left the company and two managers per department. No record starts after
+ * {@link #LAST_DATE}.
+ * </p>
+ */
+public class SyntheticDataset {
+
+    /** The {@code to_date} of open records. */
+    public static final LocalDate OPEN = LocalDate.of(9999, 1, 1);
+    /** No generated record starts or ends after this date. */
+    public static final LocalDate LAST_DATE = LocalDate.of(2002, 8, 1);
+    /** Number of the first employee. */
+    public static final int FIRST_EMP_NO = 10001;
+
+    /** Department numbers and names, as in the sample database. */
+    public static final String[][] DEPARTMENTS = {
+            {"d001", "Marketing"}, {"d002", "Finance"}, {"d003", "Human Resources"},
+            {"d004", "Production"}, {"d005", "Development"}, {"d006", "Quality Management"},
+            {"d007", "Sales"}, {"d008", "Research"}, {"d009", "Customer Service"}};
+
+    private static final String[] FIRST_NAMES = {
+            "Georgi", "Bezalel", "Parto", "Chirstian", "Kyoichi", "Anneke", "Tzvetan", "Saniya",
+            "Sumant", "Duangkaew", "Mary", "Patricio", "Eberhardt", "Berni", "Guoxiang", "Kazuhito",
+            "Cristinel", "Kazuhide", "Lillian", "Mayuko", "Ramzi", "Shahaf", "Bojan", "Suzette",
+            "Prasadram", "Yongqiao", "Divier", "Domenick", "Otmar", "Elvis", "Karsten", "Jeong",
+            "Arif", "Bader", "Alain", "Adamantios", "Pradeep", "Huan", "Alejandro", "Weiyi"};
+    private static final String[] LAST_NAMES = {
+            "Facello", "Simmel", "Bamford", "Koblick", "Maliniak", "Preusig", "Zielinski", "Kalloufi",
+            "Peac", "Piveteau", "Sluis", "Bridgland", "Terkki", "Genin", "Nooteboom", "Cappelletti",
+            "Bouloucos", "Peha", "Haddadi", "Warwick", "Erde", "Famili", "Montemayor", "Pettey",
+            "Heyers", "Berztiss", "Reistad", "Tempesti", "Herbst", "Demeyer", "Joslin", "Chinin",
+            "Merlo", "Swan", "Chappelet", "Portugali", "Baek", "Lortz", "Brender", "Meriste"};
+
+    /** Employees per department that have been its manager. */
+    private static final int MANAGERS_PER_DEPARTMENT = 2;
+    /** Share of employees, in percent, who have left the company. */
+    private static final int LEFT_PERCENT = 10;
+    /** Share of employees, in percent, who moved to another department. */
+    private static final int MOVED_PERCENT = 10;
+
+    private final long seed;
+
+    /**
+     * Constructs a generator.
+     *
+     * @param seed the seed all employees are derived from
+     */
+    public SyntheticDataset(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Generates one employee with all history records.
+     *
+     * @param empNo the employee number, at least {@link #FIRST_EMP_NO}
+     * @return the generated employee
+     */
+    public SyntheticEmployee generate(int empNo) {
+        SplittableRandom random = new SplittableRandom(seed * 1_000_003L + empNo);
+        int index = empNo - FIRST_EMP_NO;
+        // the first employees of the dataset are the department managers and never leave
+        boolean manager = index < DEPARTMENTS.length * MANAGERS_PER_DEPARTMENT;
+
+        LocalDate birthDate = LocalDate.of(1952, 2, 1).plusDays(random.nextInt(13 * 365));
+        LocalDate hireDate = LocalDate.of(1985, 1, 1).plusDays(random.nextInt(14 * 365));
+        String gender = random.nextBoolean() ? "M" : "F";
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+
+        boolean left = !manager && random.nextInt(100) < LEFT_PERCENT;
+        LocalDate end = left
+                ? hireDate.plusDays(365 + random.nextInt((int) (LAST_DATE.toEpochDay() - hireDate.toEpochDay()) - 364))
+                : OPEN;
+        LocalDate lastFrom = left ? end : LAST_DATE;
+
+        List<Record> salaries = new ArrayList<>();
+        int salary = 40_000 + random.nextInt(30_000);
+        for (LocalDate from = hireDate; from.isBefore(lastFrom); from = from.plusYears(1)) {
+            LocalDate next = from.plusYears(1);
+            LocalDate to = next.isBefore(lastFrom) ? next : end;
+            salaries.add(new Record(null, salary, from, to));
+            salary += salary * random.nextInt(6) / 100;
+        }
+
+        // a promotion to the senior title part way through the employment
+        LocalDate seniorFrom = midpoint(hireDate, lastFrom, random);
+        List<Record> titles = new ArrayList<>();
+        boolean engineer = random.nextBoolean();
+        if (random.nextBoolean()) {
+            titles.add(new Record(engineer ? "Engineer" : "Staff", 0, hireDate, seniorFrom));
+            titles.add(new Record(engineer ? "Senior Engineer" : "Senior Staff", 0, seniorFrom, end));
+        } else {
+            titles.add(new Record(engineer ? "Engineer" : "Staff", 0, hireDate, end));
+        }
+
+        List<Record> departments = new ArrayList<>();
+        List<Record> managers = new ArrayList<>();
+        int dept = manager ? index / MANAGERS_PER_DEPARTMENT : random.nextInt(DEPARTMENTS.length);
+        if (!manager && random.nextInt(100) < MOVED_PERCENT) {
+            LocalDate movedOn = midpoint(hireDate, lastFrom, random);
+            int other = (dept + 1 + random.nextInt(DEPARTMENTS.length - 1)) % DEPARTMENTS.length;
+            departments.add(new Record(DEPARTMENTS[dept][0], 0, hireDate, movedOn));
+            departments.add(new Record(DEPARTMENTS[other][0], 0, movedOn, end));
+        } else {
+            departments.add(new Record(DEPARTMENTS[dept][0], 0, hireDate, end));
+        }
+        if (manager) {
+            // the first manager of a department handed over to the second at a fixed date
+            LocalDate handover = LocalDate.of(1996, 1, 1);
+            boolean current = index % MANAGERS_PER_DEPARTMENT == 1;
+            LocalDate from = current ? (hireDate.isAfter(handover) ? hireDate : handover) : hireDate;
+            managers.add(new Record(DEPARTMENTS[dept][0], 0, from,
+                    current ? OPEN : (hireDate.isBefore(handover) ? handover : hireDate.plusYears(1))));
+        }
+
+        return new SyntheticEmployee(empNo, birthDate, firstName, lastName, gender, hireDate, !left,
+                salaries, titles, departments, managers);
+    }
+
+    private static LocalDate midpoint(LocalDate from, LocalDate to, SplittableRandom random) {
+        long days = to.toEpochDay() - from.toEpochDay();
+        return from.plusDays(days / 4 + random.nextLong(Math.max(1, days / 2)));
+    }
+
+    /**
+     * One generated history record.
+     * <p>
+     * {@code label} is the title or department number; {@code amount} is the salary.
+     * </p>
+     */
+    public static final class Record {
+        private final String label;
+        private final int amount;
+        private final LocalDate fromDate;
+        private final LocalDate toDate;
+
+        Record(String label, int amount, LocalDate fromDate, LocalDate toDate) {
+            this.label = label;
+            this.amount = amount;
+            this.fromDate = fromDate;
+            this.toDate = toDate;
+        }
+
+        /** @return the title or department number, or {@code null} for salaries */
+        public String getLabel() { return label; }
+        /** @return the salary, or 0 for other records */
+        public int getAmount() { return amount; }
+        /** @return the first day of the record */
+        public LocalDate getFromDate() { return fromDate; }
+        /** @return the last day of the record, or {@link SyntheticDataset#OPEN} */
+        public LocalDate getToDate() { return toDate; }
+    }
+
+    /**
+     * One generated employee with all history records.
+     */
+    public static final class SyntheticEmployee {
+        private final int empNo;
+        private final LocalDate birthDate;
+        private final String firstName;
+        private final String lastName;
+        private final String gender;
+        private final LocalDate hireDate;
+        private final boolean active;
+        private final List<Record> salaries;
+        private final List<Record> titles;
+        private final List<Record> departments;
+        private final List<Record> managers;
+
+        SyntheticEmployee(int empNo, LocalDate birthDate, String firstName, String lastName, String gender,
+                          LocalDate hireDate, boolean active, List<Record> salaries, List<Record> titles,
+                          List<Record> departments, List<Record> managers) {
+            this.empNo = empNo;
+            this.birthDate = birthDate;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.gender = gender;
+            this.hireDate = hireDate;
+            this.active = active;
+            this.salaries = salaries;
+            this.titles = titles;
+            this.departments = departments;
+            this.managers = managers;
+        }
+
+        /** @return the employee number */
+        public int getEmpNo() { return empNo; }
+        /** @return the birth date */
+        public LocalDate getBirthDate() { return birthDate; }
+        /** @return the first name */
+        public String getFirstName() { return firstName; }
+        /** @return the last name */
+        public String getLastName() { return lastName; }
+        /** @return {@code "M"} or {@code "F"} */
+        public String getGender() { return gender; }
+        /** @return the hire date */
+        public LocalDate getHireDate() { return hireDate; }
+        /** @return whether the employee still works for the company and can be promoted */
+        public boolean isActive() { return active; }
+        /** @return the salary records, oldest first */
+        public List<Record> getSalaries() { return salaries; }
+        /** @return the title records, oldest first */
+        public List<Record> getTitles() { return titles; }
+        /** @return the department assignments, oldest first */
+        public List<Record> getDepartments() { return departments; }
+        /** @return the manager periods, possibly empty */
+        public List<Record> getManagers() { return managers; }
+    }
+}
@@ -0,0 +1,261 @@
+package digicorp.employeemanagementsb.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends a mix of requests to the running application and reports latency and throughput.
+ * <p>
+ * Once the application is ready, {@code loadtest.threads} closed-loop clients each
+ * send one request at a time for {@code loadtest.warmup-seconds} (not recorded) and
+ * then for {@code loadtest.duration-seconds}. Each request is chosen by the weights
+ * {@code loadtest.mix.employee} ({@code GET /employees/{empNo}}),
+ * {@code loadtest.mix.by-department} ({@code GET /employees/by-department}) and
+ * {@code loadtest.mix.promote} ({@code POST /employees/promote}). The choices are
+ * drawn from {@code loadtest.seed}, so two runs send the same requests.
+ * </p>
+ *
+ * <p>
+ * At the end the p50, p99 and p99.9 latency and the throughput of every request
+ * kind are logged. With {@code loadtest.exit-when-done} the application then shuts
+ * down, which makes the profile usable as a one-shot benchmark.
+ * </p>
+ */
+@Component
+@Profile("loadtest")
+public class WorkloadDriver {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkloadDriver.class);
+
+    private static final String[] KINDS = {"employee", "by-department", "promote"};
+    private static final int EMPLOYEE = 0;
+    private static final int BY_DEPARTMENT = 1;
+    private static final int PROMOTE = 2;
+
+    /** Promotions start after every seeded record, one day later per round over the employees. */
+    private static final LocalDate FIRST_PROMOTION = SyntheticDataset.LAST_DATE.plusMonths(6);
+
+    private final SyntheticDataSeeder seeder;
+    private final ConfigurableApplicationContext context;
+    private final boolean enabled;
+    private final int threads;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    private final int[] weights;
+    private final long seed;
+    private final boolean exitWhenDone;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    /** Counts promotions, so that every promotion of an employee is dated after the previous one. */
+    private final AtomicInteger promotions = new AtomicInteger();
+
+    /**
+     * Constructs the driver.
+     *
+     * @param seeder the seeder, which knows the generated employees
+     * @param context the application context, closed when {@code exitWhenDone} is set
+     * @param enabled whether to run the workload once the application is ready
+     * @param threads the number of concurrent clients
+     * @param warmupSeconds the length of the unrecorded warm-up
+     * @param durationSeconds the length of the measurement
+     * @param employeeWeight the relative share of {@code GET /employees/{empNo}}
+     * @param byDepartmentWeight the relative share of {@code GET /employees/by-department}
+     * @param promoteWeight the relative share of {@code POST /employees/promote}
+     * @param seed the seed of the request choices
+     * @param exitWhenDone whether to shut the application down after the report
+     */
+    public WorkloadDriver(SyntheticDataSeeder seeder, ConfigurableApplicationContext context,
+                          @Value("${loadtest.driver.enabled:true}") boolean enabled,
+                          @Value("${loadtest.threads:8}") int threads,
+                          @Value("${loadtest.warmup-seconds:10}") int warmupSeconds,
+                          @Value("${loadtest.duration-seconds:60}") int durationSeconds,
+                          @Value("${loadtest.mix.employee:70}") int employeeWeight,
+                          @Value("${loadtest.mix.by-department:25}") int byDepartmentWeight,
+                          @Value("${loadtest.mix.promote:5}") int promoteWeight,
+                          @Value("${loadtest.seed:42}") long seed,
+                          @Value("${loadtest.exit-when-done:true}") boolean exitWhenDone) {
+        this.seeder = seeder;
+        this.context = context;
+        this.enabled = enabled;
+        this.threads = threads;
+        this.warmupSeconds = warmupSeconds;
+        this.durationSeconds = durationSeconds;
+        this.weights = new int[]{employeeWeight, byDepartmentWeight, promoteWeight};
+        this.seed = seed;
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    /**
+     * Starts the workload in the background once the application is ready.
+     *
+     * @param event the ready event, which carries the application context
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        String port = event.getApplicationContext().getEnvironment().getProperty("local.server.port");
+        if (port == null) {
+            log.warn("Load test not started: the application has no embedded web server");
+            return;
+        }
+        Thread driver = new Thread(() -> run("http://localhost:" + port), "loadtest-driver");
+        driver.start();
+    }
+
+    private void run(String baseUrl) {
+        log.info("Load test: {} threads, {} s warm-up, {} s measurement, mix employee/by-department/promote = {}/{}/{}",
+                threads, warmupSeconds, durationSeconds, weights[EMPLOYEE], weights[BY_DEPARTMENT], weights[PROMOTE]);
+        long start = System.nanoTime();
+        long measureFrom = start + warmupSeconds * 1_000_000_000L;
+        long measureUntil = measureFrom + durationSeconds * 1_000_000_000L;
+
+        List<Client> clients = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Client c = new Client(baseUrl, new SplittableRandom(seed * 31 + i), measureFrom, measureUntil);
+            Thread worker = new Thread(c, "loadtest-client-" + i);
+            clients.add(c);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        StringBuilder report = new StringBuilder("Load test results over ").append(durationSeconds).append(" s:");
+        LatencyRecorder total = new LatencyRecorder();
+        for (int kind = 0; kind < KINDS.length; kind++) {
+            LatencyRecorder merged = new LatencyRecorder();
+            for (Client c : clients) {
+                merged.merge(c.recorders[kind]);
+            }
+            total.merge(merged);
+            report.append(System.lineSeparator()).append(merged.summary(KINDS[kind], durationSeconds));
+        }
+        report.append(System.lineSeparator()).append(total.summary("total", durationSeconds));
+        log.info(report.toString());
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    /**
+     * One closed-loop client.
+     */
+    private final class Client implements Runnable {
+
+        private final String baseUrl;
+        private final SplittableRandom random;
+        private final long measureFrom;
+        private final long measureUntil;
+        private final LatencyRecorder[] recorders = {new LatencyRecorder(), new LatencyRecorder(), new LatencyRecorder()};
+
+        Client(String baseUrl, SplittableRandom random, long measureFrom, long measureUntil) {
+            this.baseUrl = baseUrl;
+            this.random = random;
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+        }
+
+        @Override
+        public void run() {
+            int totalWeight = weights[EMPLOYEE] + weights[BY_DEPARTMENT] + weights[PROMOTE];
+            if (totalWeight <= 0) {
+                return;
+            }
+            while (System.nanoTime() < measureUntil) {
+                int pick = random.nextInt(totalWeight);
+                int kind = pick < weights[EMPLOYEE] ? EMPLOYEE
+                        : pick < weights[EMPLOYEE] + weights[BY_DEPARTMENT] ? BY_DEPARTMENT : PROMOTE;
+                HttpRequest request = request(kind);
+                long start = System.nanoTime();
+                boolean ok;
+                try {
+                    int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    ok = status / 100 == 2 || status == 304;
+                } catch (IOException e) {
+                    ok = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long end = System.nanoTime();
+                if (start >= measureFrom) {
+                    recorders[kind].record(end - start, ok);
+                }
+            }
+        }
+
+        private HttpRequest request(int kind) {
+            int employees = seeder.getEmployees();
+            switch (kind) {
+                case EMPLOYEE -> {
+                    int empNo = SyntheticDataset.FIRST_EMP_NO + random.nextInt(employees);
+                    return HttpRequest.newBuilder(URI.create(baseUrl + "/employees/" + empNo)).GET().build();
+                }
+                case BY_DEPARTMENT -> {
+                    String deptNo = SyntheticDataset.DEPARTMENTS[random.nextInt(SyntheticDataset.DEPARTMENTS.length)][0];
+                    // 20 employees per page; stay within the first half of every department's pages
+                    int pages = Math.max(1, employees / SyntheticDataset.DEPARTMENTS.length / 40);
+                    int page = 1 + random.nextInt(pages);
+                    return HttpRequest.newBuilder(URI.create(
+                            baseUrl + "/employees/by-department?deptNo=" + deptNo + "&page=" + page)).GET().build();
+                }
+                default -> {
+                    return promotion();
+                }
+            }
+        }
+
+        private HttpRequest promotion() {
+            // walk over the employees in order, skipping those who left the company
+            int employees = seeder.getEmployees();
+            int n;
+            int empNo;
+            do {
+                n = promotions.getAndIncrement();
+                empNo = SyntheticDataset.FIRST_EMP_NO + n % employees;
+            } while (!seeder.getDataset().generate(empNo).isActive());
+            LocalDate fromDate = FIRST_PROMOTION.plusDays(n / employees);
+            String deptNo = SyntheticDataset.DEPARTMENTS[random.nextInt(SyntheticDataset.DEPARTMENTS.length)][0];
+            String body = String.format(
+                    "{\"empNo\":%d,\"newTitle\":\"Senior Engineer\",\"fromDate\":\"%s\",\"newSalary\":%d,"
+                            + "\"deptNo\":\"%s\",\"manager\":false}",
+                    empNo, fromDate, 60_000 + random.nextInt(40_000), deptNo);
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/employees/promote"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+    }
+}
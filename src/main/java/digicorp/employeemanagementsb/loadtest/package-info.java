@@ -0,0 +1,11 @@
+/**
+ * Load-test support, active only with the {@code loadtest} Spring profile.
+ * <p>
+ * With that profile the application runs against an in-memory H2 database in
+ * MariaDB mode, seeded at startup with a deterministic synthetic dataset, and an
+ * optional workload driver sends a mix of requests to the running application and
+ * reports latency percentiles and throughput. Nothing in this package is used by
+ * the regular profiles.
+ * </p>
+ */
+package digicorp.employeemanagementsb.loadtest;
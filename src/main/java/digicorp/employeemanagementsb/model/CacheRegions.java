@@ -0,0 +1,25 @@
+/**
+ * This package contains entities for the employee management
+ */
+package digicorp.employeemanagementsb.model;
+
+/**
+ * Names of the Hibernate second-level cache regions used by the entities.
+ * <p>
+ * Each region has its own size bound and expiry, configured in
+ * {@code hibernate-cache.conf}.
+ * </p>
+ */
+public final class CacheRegions {
+
+    /** {@link Department} entities. */
+    public static final String DEPARTMENTS = "departments";
+    /** {@link Employee} entities. */
+    public static final String EMPLOYEES = "employees";
+    /** {@link TitleHistory}, {@link SalaryHistory}, {@link DeptEmployee} and {@link DeptManager} entities. */
+    public static final String EMPLOYEE_HISTORY = "employee-history";
+    /** The history collections of {@link Employee}. */
+    public static final String EMPLOYEE_HISTORY_COLLECTIONS = "employee-history-collections";
+
+    private CacheRegions() {}
+}
@@ -10,6 +10,10 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.persistence.OneToMany;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 import java.util.List;
 
 /**
@@ -17,6 +21,9 @@ import java.util.List;
  */
 @Entity
 @Table(name = "departments", schema = "employees")
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = CacheRegions.DEPARTMENTS)
+@BatchSize(size = 16)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Department {
 
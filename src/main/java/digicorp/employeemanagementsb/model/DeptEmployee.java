@@ -15,6 +15,8 @@ import jakarta.persistence.MapsId;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Column;
 import jakarta.persistence.FetchType;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 
@@ -23,6 +25,7 @@ import java.time.LocalDate;
  */
 @Entity
 @Table(name = "dept_emp")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.EMPLOYEE_HISTORY)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class DeptEmployee {
 
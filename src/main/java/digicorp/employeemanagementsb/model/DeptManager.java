@@ -13,6 +13,8 @@ import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Column;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 
@@ -21,6 +23,7 @@ import java.time.LocalDate;
  */
 @Entity
 @Table(name = "dept_manager")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.EMPLOYEE_HISTORY)
 public class DeptManager {
 
     /**
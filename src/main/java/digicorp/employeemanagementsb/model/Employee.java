@@ -4,6 +4,7 @@
 package digicorp.employeemanagementsb.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Column;
@@ -11,15 +12,30 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.Table;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Id;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 
 import java.time.LocalDate;
 import java.util.List;
 
 /**
  * employee entity that represents the employees table and it's relationship to others
+ * <p>
+ * All history collections are lazy. Callers initialize the ones they need, and
+ * collections that were not loaded are left out of the JSON.
+ * </p>
+ *
+ * <p>
+ * The employee row and its history collections are kept in the second-level
+ * cache. The core fields never change, so the entity is immutable; promotions write the history tables with
+ * plain JDBC and soft-lock the affected entries until they commit.
+ * </p>
  */
 @Entity
 @Table(name = "employees")
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = CacheRegions.EMPLOYEES)
 public class Employee {
 
     /**
@@ -65,32 +81,40 @@ public class Employee {
      * list of titles that this employee has/had
      * on to many relationship mapped by the "employee" field in TitleHistory entity
      */
-    @OneToMany(mappedBy = "employee", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "employee", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.EMPLOYEE_HISTORY_COLLECTIONS)
     @JsonManagedReference("emp-titles")
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UninitializedCollectionFilter.class)
     private List<TitleHistory> titleHistory;
 
     /**
      * list of titles that this employee has/had
      * on to many relationship mapped by the "employee" field in SalaryHistory entity
      */
-    @OneToMany(mappedBy = "employee", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "employee", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.EMPLOYEE_HISTORY_COLLECTIONS)
     @JsonManagedReference("emp-salaries")
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UninitializedCollectionFilter.class)
     private List<SalaryHistory> salaryHistory;
 
     /**
      * list of department that this employee has been/is in
      * on to many relationship mapped by the "employee" field in Department entity
      */
-    @OneToMany(mappedBy = "employee", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "employee", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.EMPLOYEE_HISTORY_COLLECTIONS)
     @JsonManagedReference("emp-departments")
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UninitializedCollectionFilter.class)
     private List<DeptEmployee> departments;
 
     /**
      * list of department that this employee has been/is a manager in
      * on to many relationship mapped by the "employee" field in DeptManager entity
      */
-    @OneToMany(mappedBy = "employee", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "employee", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.EMPLOYEE_HISTORY_COLLECTIONS)
     @JsonManagedReference("emp-managers")
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UninitializedCollectionFilter.class)
     private List<DeptManager> managedDepartments;
 
     /**
@@ -14,6 +14,8 @@ import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.MapsId;
 import jakarta.persistence.ManyToOne;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 
@@ -22,6 +24,7 @@ import java.time.LocalDate;
  */
 @Entity
 @Table(name = "salaries")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.EMPLOYEE_HISTORY)
 public class SalaryHistory {
 
     /**
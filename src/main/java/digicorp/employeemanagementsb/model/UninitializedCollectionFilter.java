@@ -0,0 +1,38 @@
+/**
+ * This package contains entities for the employee management
+ */
+package digicorp.employeemanagementsb.model;
+
+import org.hibernate.Hibernate;
+
+/**
+ * Jackson value filter that suppresses lazy collections which were not loaded.
+ * <p>
+ * Used with {@code @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = ...)}:
+ * Jackson calls {@link #equals(Object)} with the property value and leaves the
+ * property out of the JSON when it returns {@code true}. Checking
+ * {@link Hibernate#isInitialized(Object)} does not trigger a load, so serializing
+ * an entity never issues extra queries for collections outside its fetch plan.
+ * </p>
+ */
+public class UninitializedCollectionFilter {
+
+    /**
+     * Decides whether a property value should be excluded from serialization.
+     * @param value the property value
+     * @return true if the value is null or an uninitialized lazy collection
+     */
+    @Override
+    public boolean equals(Object value) {
+        return value == null || !Hibernate.isInitialized(value);
+    }
+
+    /**
+     * Returns a constant hash code; instances are only used as filters.
+     * @return a constant hash code
+     */
+    @Override
+    public int hashCode() {
+        return 0;
+    }
+}
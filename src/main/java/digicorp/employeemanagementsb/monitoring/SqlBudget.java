@@ -0,0 +1,29 @@
+package digicorp.employeemanagementsb.monitoring;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the maximum number of SQL statements a request to the annotated
+ * handler method may execute.
+ * <p>
+ * Checked by {@link SqlStatisticsFilter} once the request has completed. Depending
+ * on {@code employees.sql-statistics.budget-mode} an exceeded budget is logged as a
+ * warning or fails the request, which is how tests catch query-count regressions.
+ * </p>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    /**
+     * The maximum number of statements; a JDBC batch counts as one.
+     *
+     * @return the statement budget
+     */
+    int statements();
+}
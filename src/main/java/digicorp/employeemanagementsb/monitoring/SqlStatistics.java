@@ -0,0 +1,108 @@
+package digicorp.employeemanagementsb.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL statistics of the request being handled on the current thread.
+ * <p>
+ * {@link SqlStatisticsFilter} starts a collection with {@link #begin()} and ends
+ * it with {@link #end()}; in between, {@link SqlStatisticsDataSource} records
+ * every statement executed on the thread. Work done on other threads, such as
+ * startup loaders or streamed responses, is not counted. Instances are confined
+ * to one thread.
+ * </p>
+ */
+public final class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long nanos;
+    /** Executions per SQL string, for finding statements repeated in a loop. */
+    private final Map<String, Integer> executions = new HashMap<>();
+
+    private SqlStatistics() {
+    }
+
+    /**
+     * Starts collecting statistics on the current thread.
+     *
+     * @return the new, empty statistics
+     */
+    public static SqlStatistics begin() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Returns the statistics being collected on the current thread.
+     *
+     * @return the statistics, or {@code null} if none are being collected
+     */
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stops collecting statistics on the current thread.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void executed(String sql, long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+        if (sql != null) {
+            executions.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void fetched(long elapsedNanos) {
+        rows++;
+        nanos += elapsedNanos;
+    }
+
+    void elapsed(long elapsedNanos) {
+        nanos += elapsedNanos;
+    }
+
+    /**
+     * Returns the number of statements executed; a JDBC batch counts as one.
+     *
+     * @return the statement count
+     */
+    public int getStatements() { return statements; }
+
+    /**
+     * Returns the number of rows read from result sets.
+     *
+     * @return the row count
+     */
+    public long getRows() { return rows; }
+
+    /**
+     * Returns the time spent executing statements and reading rows.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getNanos() { return nanos; }
+
+    /**
+     * Returns the statement executed most often, a hint for N+1 query patterns.
+     *
+     * @return the SQL and its execution count, or {@code null} if nothing was executed
+     */
+    public Map.Entry<String, Integer> getMostRepeated() {
+        Map.Entry<String, Integer> most = null;
+        for (Map.Entry<String, Integer> entry : executions.entrySet()) {
+            if (most == null || entry.getValue() > most.getValue()) {
+                most = entry;
+            }
+        }
+        return most;
+    }
+}
@@ -0,0 +1,65 @@
+package digicorp.employeemanagementsb.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Locale;
+
+/**
+ * Wires the per-request SQL statistics.
+ * <p>
+ * Enabled by {@code employees.sql-statistics.enabled}. Every {@link DataSource}
+ * bean that provides its own connections is wrapped in a
+ * {@link SqlStatisticsDataSource}; delegating data sources, such as the
+ * read/write router, are left alone because their targets are already wrapped.
+ * The {@link SqlStatisticsFilter} runs first in the filter chain so that it sees
+ * all statements of a request.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "employees.sql-statistics.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatisticsConfiguration {
+
+    /**
+     * Wraps the data sources so their statements are counted.
+     *
+     * @return the post-processor
+     */
+    @Bean
+    public static BeanPostProcessor sqlStatisticsDataSourceWrapper() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)) {
+                    return new SqlStatisticsDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Registers the statistics filter ahead of all other filters.
+     *
+     * @param budgetMode {@code log} or {@code fail}
+     * @param repeatThreshold the executions of one SQL string above which a request is reported
+     * @return the filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<SqlStatisticsFilter> sqlStatisticsFilter(
+            @Value("${employees.sql-statistics.budget-mode:log}") String budgetMode,
+            @Value("${employees.sql-statistics.repeat-threshold:10}") int repeatThreshold) {
+        FilterRegistrationBean<SqlStatisticsFilter> registration = new FilterRegistrationBean<>(
+                new SqlStatisticsFilter(SqlStatisticsFilter.BudgetMode.valueOf(budgetMode.toUpperCase(Locale.ROOT)),
+                        repeatThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
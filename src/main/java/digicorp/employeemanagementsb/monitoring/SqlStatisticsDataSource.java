@@ -0,0 +1,136 @@
+package digicorp.employeemanagementsb.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * {@link DataSource} that records the statements executed on a thread into its
+ * current {@link SqlStatistics}.
+ * <p>
+ * Connections obtained while statistics are being collected are wrapped in JDK
+ * proxies that time every {@code execute*} call and every {@link ResultSet#next()}.
+ * Connections obtained outside of a request are returned unwrapped, so background
+ * work pays nothing. {@link #unwrap(Class)} still reaches the pool, which keeps
+ * the connection pool metrics working.
+ * </p>
+ */
+public class SqlStatisticsDataSource extends DelegatingDataSource {
+
+    /**
+     * Wraps a data source.
+     *
+     * @param target the data source that provides the connections
+     */
+    public SqlStatisticsDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private static Connection wrap(Connection connection) {
+        if (SqlStatistics.current() == null) {
+            return connection;
+        }
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement statement && method.getReturnType().isInterface()) {
+                // prepareStatement and prepareCall carry the SQL; createStatement passes it to execute
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return proxy(method.getReturnType(), statement, new StatementHandler(statement, sql));
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SqlStatisticsDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() != Object.class) {
+                        return handler.invoke(proxy, method, args);
+                    }
+                    // a proxy is only equal to itself, like the pooled connections it wraps
+                    return switch (method.getName()) {
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        default -> invoke(target, method, args);
+                    };
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * Times and counts executions of one statement.
+     */
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                long start = System.nanoTime();
+                Object result = SqlStatisticsDataSource.invoke(target, method, args);
+                long elapsed = System.nanoTime() - start;
+                SqlStatistics statistics = SqlStatistics.current();
+                if (statistics != null) {
+                    statistics.executed(args != null && args.length > 0 && args[0] instanceof String s ? s : sql, elapsed);
+                }
+                return result instanceof ResultSet rs ? wrap(rs) : result;
+            }
+            Object result = SqlStatisticsDataSource.invoke(target, method, args);
+            return name.equals("getResultSet") && result instanceof ResultSet rs ? wrap(rs) : result;
+        }
+
+        private static ResultSet wrap(ResultSet resultSet) {
+            return proxy(ResultSet.class, resultSet, (proxy, method, args) -> {
+                if (!method.getName().equals("next")) {
+                    return SqlStatisticsDataSource.invoke(resultSet, method, args);
+                }
+                long start = System.nanoTime();
+                boolean next = resultSet.next();
+                long elapsed = System.nanoTime() - start;
+                SqlStatistics statistics = SqlStatistics.current();
+                if (statistics != null) {
+                    if (next) {
+                        statistics.fetched(elapsed);
+                    } else {
+                        statistics.elapsed(elapsed);
+                    }
+                }
+                return next;
+            });
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package digicorp.employeemanagementsb.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Collects the {@link SqlStatistics} of each request, reports them as response
+ * headers and checks them against the handler's {@link SqlBudget}.
+ * <p>
+ * The headers {@value #STATEMENTS_HEADER}, {@value #ROWS_HEADER} and
+ * {@value #TIME_HEADER} are added just before the response is committed, so they
+ * cover everything executed until the first byte of the body is written; for
+ * ordinary JSON responses that is the whole request.
+ * </p>
+ *
+ * <p>
+ * After the request, two checks run:
+ * </p>
+ * <ul>
+ *   <li>the statement count against the {@link SqlBudget} of the handler method, if any</li>
+ *   <li>the executions of any single SQL string against the repeat threshold, which
+ *       flags N+1 patterns such as loading a collection per parent row</li>
+ * </ul>
+ * <p>
+ * A violation is logged as a warning or, in {@link BudgetMode#FAIL} mode, raised as an
+ * {@link IllegalStateException}, which fails the request in MockMvc tests.
+ * </p>
+ */
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatisticsFilter.class);
+
+    /** Number of statements executed. */
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    /** Number of rows read. */
+    public static final String ROWS_HEADER = "X-SQL-Rows";
+    /** Time spent in the driver, in milliseconds. */
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    /**
+     * What to do when a request violates its budget.
+     */
+    public enum BudgetMode {
+        /** Log a warning. */
+        LOG,
+        /** Throw an {@link IllegalStateException} after the request. */
+        FAIL
+    }
+
+    private final BudgetMode budgetMode;
+    private final int repeatThreshold;
+
+    /**
+     * Constructs the filter.
+     *
+     * @param budgetMode what to do when a budget is exceeded
+     * @param repeatThreshold the executions of one SQL string above which a request
+     *                        is reported as a possible N+1; 0 disables the check
+     */
+    public SqlStatisticsFilter(BudgetMode budgetMode, int repeatThreshold) {
+        this.budgetMode = budgetMode;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.begin();
+        HeaderWritingResponse wrapped = new HeaderWritingResponse(response, statistics);
+        try {
+            chain.doFilter(request, wrapped);
+        } finally {
+            SqlStatistics.end();
+        }
+        wrapped.writeHeaders();
+        check(request, statistics);
+    }
+
+    private void check(HttpServletRequest request, SqlStatistics statistics) {
+        String endpoint = request.getMethod() + " " + request.getRequestURI();
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        SqlBudget budget = handler instanceof HandlerMethod method ? method.getMethodAnnotation(SqlBudget.class) : null;
+        if (budget != null && statistics.getStatements() > budget.statements()) {
+            violation(String.format("%s executed %d SQL statements, budget is %d",
+                    endpoint, statistics.getStatements(), budget.statements()));
+        }
+        Map.Entry<String, Integer> repeated = statistics.getMostRepeated();
+        if (repeatThreshold > 0 && repeated != null && repeated.getValue() > repeatThreshold) {
+            violation(String.format("%s executed the same SQL statement %d times (possible N+1): %s",
+                    endpoint, repeated.getValue(), repeated.getKey()));
+        }
+    }
+
+    private void violation(String message) {
+        if (budgetMode == BudgetMode.FAIL) {
+            throw new IllegalStateException(message);
+        }
+        log.warn(message);
+    }
+
+    /**
+     * Adds the statistics headers before the response is committed.
+     */
+    private static final class HeaderWritingResponse extends HttpServletResponseWrapper {
+
+        private final SqlStatistics statistics;
+        private boolean headersWritten;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        HeaderWritingResponse(HttpServletResponse response, SqlStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        void writeHeaders() {
+            if (headersWritten || isCommitted()) {
+                return;
+            }
+            headersWritten = true;
+            setHeader(STATEMENTS_HEADER, Integer.toString(statistics.getStatements()));
+            setHeader(ROWS_HEADER, Long.toString(statistics.getRows()));
+            setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.3f", statistics.getNanos() / 1_000_000.0));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream target = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        writeHeaders();
+                        target.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        writeHeaders();
+                        target.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        writeHeaders();
+                        target.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        writeHeaders();
+                        target.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return target.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        target.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                PrintWriter target = super.getWriter();
+                writer = new PrintWriter(new Writer() {
+                    @Override
+                    public void write(char[] buf, int off, int len) {
+                        writeHeaders();
+                        target.write(buf, off, len);
+                    }
+
+                    @Override
+                    public void flush() {
+                        writeHeaders();
+                        target.flush();
+                    }
+
+                    @Override
+                    public void close() {
+                        writeHeaders();
+                        target.close();
+                    }
+                });
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
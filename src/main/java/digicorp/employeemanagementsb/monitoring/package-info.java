@@ -0,0 +1,12 @@
+/**
+ * Per-request SQL statistics and statement budgets.
+ * <p>
+ * The application's {@link javax.sql.DataSource} is wrapped so that every
+ * statement executed on a request thread is counted, together with the rows read
+ * and the time spent in the driver. The totals are returned as {@code X-SQL-*}
+ * response headers and checked against the {@link
+ * digicorp.employeemanagementsb.monitoring.SqlBudget} of the handler method, so
+ * query-count regressions show up in tests rather than in production.
+ * </p>
+ */
+package digicorp.employeemanagementsb.monitoring;
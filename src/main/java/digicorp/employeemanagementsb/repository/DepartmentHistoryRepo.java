@@ -2,11 +2,13 @@ package digicorp.employeemanagementsb.repository;
 
 import digicorp.employeemanagementsb.model.DeptEmployee;
 import digicorp.employeemanagementsb.model.DeptEmployeeId;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -49,4 +51,60 @@ public interface DepartmentHistoryRepo extends JpaRepository<DeptEmployee, DeptE
             @Param("empNo") int empNo,
             @Param("maxDate") LocalDate maxDate
     );;
-}
\ No newline at end of file
+
+    /**
+     * Retrieves every department assignment, open or closed, for a group of employees.
+     * <p>
+     * Because {@code dept_emp} is keyed by {@code (emp_no, dept_no)}, promotions need
+     * the closed rows as well: moving an employee back into a former department
+     * reopens that row instead of inserting a new one.
+     * </p>
+     *
+     * @param empNos the employee numbers to look up
+     * @return all {@link DeptEmployee} records of those employees
+     */
+    @Query("""
+        SELECT t
+        FROM DeptEmployee t
+        WHERE t.id.empNo IN :empNos
+    """)
+    List<DeptEmployee> findHistory(@Param("empNos") Collection<Integer> empNos);
+
+    /**
+     * Retrieves one slice of an employee's department history, oldest first.
+     * <p>
+     * Only assignments in effect at some point between {@code from} and {@code to}
+     * are returned, with their department. They are ordered by start date, then by
+     * department number, and the slice starts after the given position. The
+     * employee number bounds the scan to that employee's range of the
+     * {@code (emp_no, dept_no)} primary key.
+     * </p>
+     *
+     * @param empNo         the employee number
+     * @param from          the first day of the period of interest
+     * @param to            the last day of the period of interest
+     * @param afterFromDate the start date of the last assignment already returned
+     * @param afterDeptNo   the department number of the last assignment already returned, or empty
+     * @param limit         the maximum number of rows to return
+     * @return the assignments, ordered by start date and department number
+     */
+    @Query("""
+        SELECT t
+        FROM DeptEmployee t
+        JOIN FETCH t.department
+        WHERE t.id.empNo = :empNo
+            AND (t.fromDate > :afterFromDate
+                OR (t.fromDate = :afterFromDate AND t.id.deptNo > :afterDeptNo))
+            AND t.fromDate <= :to
+            AND t.toDate >= :from
+        ORDER BY t.fromDate ASC, t.id.deptNo ASC
+    """)
+    List<DeptEmployee> findSlice(
+            @Param("empNo") int empNo,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("afterFromDate") LocalDate afterFromDate,
+            @Param("afterDeptNo") String afterDeptNo,
+            Limit limit
+    );
+}
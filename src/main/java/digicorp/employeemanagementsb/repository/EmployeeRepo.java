@@ -1,13 +1,24 @@
 package digicorp.employeemanagementsb.repository;
 
+import digicorp.employeemanagementsb.dto.EmployeeCurrentDTO;
 import digicorp.employeemanagementsb.dto.EmployeeRecordDTO;
 import digicorp.employeemanagementsb.model.Employee;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing {@link Employee} entities.
@@ -18,6 +29,10 @@ import java.util.Optional;
  * </p>
  */
 public interface EmployeeRepo extends PagingAndSortingRepository<Employee, Integer> {
+
+    /** Number of rows fetched per round trip when streaming a roster. */
+    String EXPORT_FETCH_SIZE = "1000";
+
     /**
      * Retrieves a paginated list of employees belonging to a specific department.
      * <p>
@@ -50,14 +65,319 @@ public interface EmployeeRepo extends PagingAndSortingRepository<Employee, Integ
             Pageable pageable
     );
 
+    /**
+     * Retrieves a slice of employees belonging to a specific department using
+     * keyset (seek) pagination.
+     * <p>
+     * Instead of skipping rows with an {@code OFFSET}, this query resumes directly
+     * after the last employee number the caller has seen. The
+     * {@code (dept_no, emp_no)} ordering lets the database seek straight to the
+     * start of the slice, so deep slices cost the same as the first one.
+     * </p>
+     *
+     * @param deptNo     the department number used to filter employees
+     * @param afterEmpNo the last employee number already returned; {@code 0} for the first slice
+     * @param limit      the maximum number of rows to return
+     * @return a list of {@link EmployeeRecordDTO} objects with employee numbers
+     *         greater than {@code afterEmpNo}, in ascending order
+     */
+    @Query("""
+        SELECT new digicorp.employeemanagementsb.dto.EmployeeRecordDTO(
+            e.empNo, e.firstName, e.lastName, e.hireDate
+        )
+        FROM DeptEmployee de
+        JOIN de.employee e
+        WHERE de.id.deptNo = :deptNo
+            AND de.id.empNo > :afterEmpNo
+        ORDER BY de.id.empNo ASC
+    """)
+    List<EmployeeRecordDTO> findByDepartmentAfter(
+            @Param("deptNo") String deptNo,
+            @Param("afterEmpNo") int afterEmpNo,
+            Limit limit
+    );
+
+    /**
+     * Retrieves a paginated list of the employees currently assigned to a department.
+     * <p>
+     * Like {@link #findByDepartment(String, Pageable)}, restricted to open
+     * {@code dept_emp} rows. With the {@code (dept_no, to_date, emp_no)} index both
+     * predicates are equalities, so the rows are read from one index range that is
+     * already in employee number order.
+     * </p>
+     *
+     * @param deptNo   the department number used to filter employees
+     * @param openDate the {@code toDate} value of open rows
+     * @param pageable pagination information
+     * @return the current employees of the department, ordered by employee number
+     */
+    @Query("""
+        SELECT new digicorp.employeemanagementsb.dto.EmployeeRecordDTO(
+            e.empNo, e.firstName, e.lastName, e.hireDate
+        )
+        FROM DeptEmployee de
+        JOIN de.employee e
+        WHERE de.id.deptNo = :deptNo
+            AND de.toDate = :openDate
+        ORDER BY de.id.empNo ASC
+    """)
+    List<EmployeeRecordDTO> findCurrentByDepartment(
+            @Param("deptNo") String deptNo,
+            @Param("openDate") LocalDate openDate,
+            Pageable pageable
+    );
+
+    /**
+     * Retrieves one cursor-paginated slice of the employees currently assigned to a department.
+     * <p>
+     * Like {@link #findByDepartmentAfter(String, int, Limit)}, restricted to open
+     * {@code dept_emp} rows; the slice is a seek into the
+     * {@code (dept_no, to_date, emp_no)} index.
+     * </p>
+     *
+     * @param deptNo     the department number used to filter employees
+     * @param openDate   the {@code toDate} value of open rows
+     * @param afterEmpNo the last employee number already returned; {@code 0} for the first slice
+     * @param limit      the maximum number of rows to return
+     * @return the current employees after {@code afterEmpNo}, in ascending order
+     */
+    @Query("""
+        SELECT new digicorp.employeemanagementsb.dto.EmployeeRecordDTO(
+            e.empNo, e.firstName, e.lastName, e.hireDate
+        )
+        FROM DeptEmployee de
+        JOIN de.employee e
+        WHERE de.id.deptNo = :deptNo
+            AND de.toDate = :openDate
+            AND de.id.empNo > :afterEmpNo
+        ORDER BY de.id.empNo ASC
+    """)
+    List<EmployeeRecordDTO> findCurrentByDepartmentAfter(
+            @Param("deptNo") String deptNo,
+            @Param("openDate") LocalDate openDate,
+            @Param("afterEmpNo") int afterEmpNo,
+            Limit limit
+    );
+
+    /**
+     * Retrieves a paginated list of the employees who have left a department.
+     * <p>
+     * Like {@link #findByDepartment(String, Pageable)}, restricted to closed
+     * {@code dept_emp} rows.
+     * </p>
+     *
+     * @param deptNo   the department number used to filter employees
+     * @param openDate the {@code toDate} value of open rows
+     * @param pageable pagination information
+     * @return the former employees of the department, ordered by employee number
+     */
+    @Query("""
+        SELECT new digicorp.employeemanagementsb.dto.EmployeeRecordDTO(
+            e.empNo, e.firstName, e.lastName, e.hireDate
+        )
+        FROM DeptEmployee de
+        JOIN de.employee e
+        WHERE de.id.deptNo = :deptNo
+            AND de.toDate < :openDate
+        ORDER BY de.id.empNo ASC
+    """)
+    List<EmployeeRecordDTO> findFormerByDepartment(
+            @Param("deptNo") String deptNo,
+            @Param("openDate") LocalDate openDate,
+            Pageable pageable
+    );
+
+    /**
+     * Retrieves one cursor-paginated slice of the employees who have left a department.
+     *
+     * @param deptNo     the department number used to filter employees
+     * @param openDate   the {@code toDate} value of open rows
+     * @param afterEmpNo the last employee number already returned; {@code 0} for the first slice
+     * @param limit      the maximum number of rows to return
+     * @return the former employees after {@code afterEmpNo}, in ascending order
+     */
+    @Query("""
+        SELECT new digicorp.employeemanagementsb.dto.EmployeeRecordDTO(
+            e.empNo, e.firstName, e.lastName, e.hireDate
+        )
+        FROM DeptEmployee de
+        JOIN de.employee e
+        WHERE de.id.deptNo = :deptNo
+            AND de.toDate < :openDate
+            AND de.id.empNo > :afterEmpNo
+        ORDER BY de.id.empNo ASC
+    """)
+    List<EmployeeRecordDTO> findFormerByDepartmentAfter(
+            @Param("deptNo") String deptNo,
+            @Param("openDate") LocalDate openDate,
+            @Param("afterEmpNo") int afterEmpNo,
+            Limit limit
+    );
+
+    /**
+     * Streams every employee belonging to a specific department.
+     * <p>
+     * Rows are pulled from the database {@value #EXPORT_FETCH_SIZE} at a time
+     * through the JDBC fetch size instead of being materialized as a list, so
+     * memory use stays constant regardless of the department's size. The stream
+     * must be consumed and closed inside a transaction.
+     * </p>
+     *
+     * @param deptNo the department number used to filter employees
+     * @return a {@link Stream} of {@link EmployeeRecordDTO} ordered by employee number
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT new digicorp.employeemanagementsb.dto.EmployeeRecordDTO(
+            e.empNo, e.firstName, e.lastName, e.hireDate
+        )
+        FROM DeptEmployee de
+        JOIN de.employee e
+        WHERE de.id.deptNo = :deptNo
+        ORDER BY de.id.empNo ASC
+    """)
+    Stream<EmployeeRecordDTO> streamByDepartment(@Param("deptNo") String deptNo);
+
     /**
      * Retrieves an employee by their employee number.
+     * <p>
+     * Looked up by primary key, so the employee is served from the second-level
+     * cache when it is there.
+     * </p>
      *
      * @param empNo the unique employee number
      * @return an {@link Optional} containing the {@link Employee} if found,
      *         or {@link Optional#empty()} if no employee exists with the given number
      */
-    Optional<Employee> findByEmpNo(int empNo);
+    Optional<Employee> findById(Integer empNo);
+
+    /**
+     * Retrieves several employees by employee number in a single query.
+     * <p>
+     * Only the employee rows are loaded; history collections stay lazy.
+     * </p>
+     *
+     * @param empNos the employee numbers to look up
+     * @return the employees found; unknown numbers are simply absent
+     */
+    List<Employee> findByEmpNoIn(Collection<Integer> empNos);
+
+    /**
+     * Retrieves several employees together with their title history in a single query.
+     * <p>
+     * Used after {@link #findByEmpNoIn} in the same persistence context: the
+     * employees already loaded are returned again with the collection initialized.
+     * </p>
+     *
+     * @param empNos the employee numbers to look up
+     * @return the employees found, one per employee
+     */
+    @EntityGraph(attributePaths = "titleHistory")
+    List<Employee> findWithTitlesByEmpNoIn(Collection<Integer> empNos);
+
+    /**
+     * Retrieves several employees together with their salary history in a single query.
+     *
+     * @param empNos the employee numbers to look up
+     * @return the employees found, one per employee
+     */
+    @EntityGraph(attributePaths = "salaryHistory")
+    List<Employee> findWithSalariesByEmpNoIn(Collection<Integer> empNos);
+
+    /**
+     * Retrieves several employees together with their department history and
+     * each department in a single query.
+     *
+     * @param empNos the employee numbers to look up
+     * @return the employees found, one per employee
+     */
+    @EntityGraph(attributePaths = {"departments", "departments.department"})
+    List<Employee> findWithDepartmentsByEmpNoIn(Collection<Integer> empNos);
+
+    /**
+     * Retrieves several employees together with their manager history and each
+     * department in a single query.
+     *
+     * @param empNos the employee numbers to look up
+     * @return the employees found, one per employee
+     */
+    @EntityGraph(attributePaths = {"managedDepartments", "managedDepartments.department"})
+    List<Employee> findWithManagersByEmpNoIn(Collection<Integer> empNos);
+
+    /**
+     * Retrieves the open title, salary, department and manager records of several
+     * employees in a single query.
+     * <p>
+     * Each history table is outer-joined on its open record, so an employee without
+     * one of them still yields a row with {@code null} fields. An employee with
+     * several open records of the same kind yields one row per combination; use
+     * {@link #findCurrentByEmpNoIn} to get one merged result per employee.
+     * </p>
+     *
+     * @param empNos  the employee numbers to look up
+     * @param openDate the {@code toDate} marking an open record, usually 9999-01-01
+     * @return the matching rows; unknown employee numbers are simply absent
+     */
+    @Query("""
+        SELECT new digicorp.employeemanagementsb.dto.EmployeeCurrentDTO(
+            e.empNo, e.firstName, e.lastName,
+            t.id.title, t.id.fromDate,
+            s.salary, s.id.fromDate,
+            de.id.deptNo, d.deptName, de.fromDate,
+            dm.id.deptNo, dm.fromDate
+        )
+        FROM Employee e
+        LEFT JOIN TitleHistory t ON t.id.empNo = e.empNo AND t.toDate = :openDate
+        LEFT JOIN SalaryHistory s ON s.id.empNo = e.empNo AND s.toDate = :openDate
+        LEFT JOIN DeptEmployee de ON de.id.empNo = e.empNo AND de.toDate = :openDate
+        LEFT JOIN de.department d
+        LEFT JOIN DeptManager dm ON dm.id.empNo = e.empNo AND dm.toDate = :openDate
+        WHERE e.empNo IN :empNos
+    """)
+    List<EmployeeCurrentDTO> findCurrentRows(
+            @Param("empNos") Collection<Integer> empNos,
+            @Param("openDate") LocalDate openDate
+    );
+
+    /**
+     * Retrieves the current state of several employees with one round trip.
+     * <p>
+     * Runs {@link #findCurrentRows} and, where an employee has several open records
+     * of the same kind, keeps the most recently started one, like the
+     * {@code findLatest*} lookups of the history repositories do.
+     * </p>
+     *
+     * @param empNos  the employee numbers to look up
+     * @param openDate the {@code toDate} marking an open record, usually 9999-01-01
+     * @return the current state keyed by employee number; unknown numbers are absent
+     */
+    default Map<Integer, EmployeeCurrentDTO> findCurrentByEmpNoIn(Collection<Integer> empNos, LocalDate openDate) {
+        Map<Integer, EmployeeCurrentDTO> current = new HashMap<>();
+        for (EmployeeCurrentDTO row : findCurrentRows(empNos, openDate)) {
+            current.merge(row.getEmpNo(), row, EmployeeRepo::latest);
+        }
+        return current;
+    }
+
+    private static EmployeeCurrentDTO latest(EmployeeCurrentDTO a, EmployeeCurrentDTO b) {
+        EmployeeCurrentDTO title = isAfter(b.getTitleFromDate(), a.getTitleFromDate()) ? b : a;
+        EmployeeCurrentDTO salary = isAfter(b.getSalaryFromDate(), a.getSalaryFromDate()) ? b : a;
+        EmployeeCurrentDTO dept = isAfter(b.getDeptFromDate(), a.getDeptFromDate()) ? b : a;
+        EmployeeCurrentDTO manager = isAfter(b.getManagerFromDate(), a.getManagerFromDate()) ? b : a;
+        return new EmployeeCurrentDTO(
+                a.getEmpNo(), a.getFirstName(), a.getLastName(),
+                title.getTitle(), title.getTitleFromDate(),
+                salary.getSalary(), salary.getSalaryFromDate(),
+                dept.getDeptNo(), dept.getDeptName(), dept.getDeptFromDate(),
+                manager.getManagerDeptNo(), manager.getManagerFromDate());
+    }
+
+    private static boolean isAfter(LocalDate candidate, LocalDate current) {
+        return candidate != null && (current == null || candidate.isAfter(current));
+    }
 
     /**
      * Saves the given employee entity.
@@ -3,11 +3,14 @@ package digicorp.employeemanagementsb.repository;
 import digicorp.employeemanagementsb.model.DeptManager;
 import digicorp.employeemanagementsb.model.DeptManagerId;
 import digicorp.employeemanagementsb.model.TitleHistory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -52,4 +55,59 @@ public interface ManagerHistoryRepo extends JpaRepository<DeptManager, DeptManag
             @Param("maxDate") LocalDate maxDate
     );
 
-}
\ No newline at end of file
+    /**
+     * Retrieves every manager assignment, open or closed, for a group of employees.
+     * <p>
+     * The department is fetched in the same query because {@link DeptManager}
+     * maps it eagerly, which would otherwise cost one extra query per row.
+     * </p>
+     *
+     * @param empNos the employee numbers to look up
+     * @return all {@link DeptManager} records of those employees
+     */
+    @Query("""
+        SELECT t
+        FROM DeptManager t
+        JOIN FETCH t.department
+        WHERE t.id.empNo IN :empNos
+    """)
+    List<DeptManager> findHistory(@Param("empNos") Collection<Integer> empNos);
+
+    /**
+     * Retrieves one slice of an employee's manager history, oldest first.
+     * <p>
+     * Only management periods in effect at some point between {@code from} and {@code to}
+     * are returned, with their department. They are ordered by start date, then by
+     * department number, and the slice starts after the given position. The
+     * employee number bounds the scan to that employee's range of the
+     * {@code (emp_no, dept_no)} primary key.
+     * </p>
+     *
+     * @param empNo         the employee number
+     * @param from          the first day of the period of interest
+     * @param to            the last day of the period of interest
+     * @param afterFromDate the start date of the last management period already returned
+     * @param afterDeptNo   the department number of the last management period already returned, or empty
+     * @param limit         the maximum number of rows to return
+     * @return the management periods, ordered by start date and department number
+     */
+    @Query("""
+        SELECT t
+        FROM DeptManager t
+        JOIN FETCH t.department
+        WHERE t.id.empNo = :empNo
+            AND (t.fromDate > :afterFromDate
+                OR (t.fromDate = :afterFromDate AND t.id.deptNo > :afterDeptNo))
+            AND t.fromDate <= :to
+            AND t.toDate >= :from
+        ORDER BY t.fromDate ASC, t.id.deptNo ASC
+    """)
+    List<DeptManager> findSlice(
+            @Param("empNo") int empNo,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("afterFromDate") LocalDate afterFromDate,
+            @Param("afterDeptNo") String afterDeptNo,
+            Limit limit
+    );
+}
@@ -1,11 +1,13 @@
 package digicorp.employeemanagementsb.repository;
 
 import digicorp.employeemanagementsb.model.SalaryHistory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -44,4 +46,37 @@ public interface SalaryHistoryRepo extends JpaRepository<SalaryHistory, Integer>
             @Param("empNo") int empNo,
             @Param("maxDate") LocalDate maxDate
     );
+
+    /**
+     * Retrieves one slice of an employee's salary history, oldest first.
+     * <p>
+     * Only salaries in effect at some point between {@code from} and {@code to} are
+     * returned. The slice starts after {@code afterFromDate}; together with the
+     * employee number this is a range scan on the {@code (emp_no, from_date)}
+     * primary key.
+     * </p>
+     *
+     * @param empNo         the employee number
+     * @param from          the first day of the period of interest
+     * @param to            the last day of the period of interest
+     * @param afterFromDate the start date of the last salary already returned
+     * @param limit         the maximum number of rows to return
+     * @return the salaries, ordered by start date
+     */
+    @Query("""
+        SELECT s
+        FROM SalaryHistory s
+        WHERE s.id.empNo = :empNo
+            AND s.id.fromDate > :afterFromDate
+            AND s.id.fromDate <= :to
+            AND s.toDate >= :from
+        ORDER BY s.id.fromDate ASC
+    """)
+    List<SalaryHistory> findSlice(
+            @Param("empNo") int empNo,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("afterFromDate") LocalDate afterFromDate,
+            Limit limit
+    );
 }
\ No newline at end of file
@@ -2,11 +2,13 @@ package digicorp.employeemanagementsb.repository;
 
 import digicorp.employeemanagementsb.model.TitleHistory;
 import digicorp.employeemanagementsb.model.TitleHistoryId;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -51,4 +53,40 @@ public interface TitleHistoryRepo extends JpaRepository<TitleHistory, TitleHisto
             @Param("maxDate") LocalDate maxDate
     );
 
+    /**
+     * Retrieves one slice of an employee's title history, oldest first.
+     * <p>
+     * Only titles held at some point between {@code from} and {@code to} are
+     * returned; a title without end date is still held. Titles are ordered by start
+     * date, then by title, and the slice starts after the given position. The
+     * employee number bounds the scan to that employee's range of the
+     * {@code (emp_no, title, from_date)} primary key.
+     * </p>
+     *
+     * @param empNo         the employee number
+     * @param from          the first day of the period of interest
+     * @param to            the last day of the period of interest
+     * @param afterFromDate the start date of the last title already returned
+     * @param afterTitle    the last title already returned, or empty
+     * @param limit         the maximum number of rows to return
+     * @return the titles, ordered by start date and title
+     */
+    @Query("""
+        SELECT t
+        FROM TitleHistory t
+        WHERE t.id.empNo = :empNo
+            AND (t.id.fromDate > :afterFromDate
+                OR (t.id.fromDate = :afterFromDate AND t.id.title > :afterTitle))
+            AND t.id.fromDate <= :to
+            AND (t.toDate IS NULL OR t.toDate >= :from)
+        ORDER BY t.id.fromDate ASC, t.id.title ASC
+    """)
+    List<TitleHistory> findSlice(
+            @Param("empNo") int empNo,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("afterFromDate") LocalDate afterFromDate,
+            @Param("afterTitle") String afterTitle,
+            Limit limit
+    );
 }
@@ -0,0 +1,182 @@
+package digicorp.employeemanagementsb.services;
+
+import digicorp.employeemanagementsb.model.Department;
+import digicorp.employeemanagementsb.repository.DepartmentRepo;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Application-level cache of the department list.
+ * <p>
+ * The departments table practically never changes but is read on every page view
+ * of the front end and by every promotion. The sorted list is therefore loaded
+ * once and kept together with its serialized JSON and validators, so a request
+ * can be answered, or revalidated with {@code 304 Not Modified}, without touching
+ * the database or the JSON mapper.
+ * </p>
+ *
+ * <p>
+ * The list is loaded in its own read-only transaction through
+ * {@link PrimaryReads}, so it is read from the primary even when a replica is
+ * configured: a list read from a lagging replica would be kept until the next
+ * invalidation.
+ * </p>
+ *
+ * <p>
+ * There is no expiry. Code that changes the departments table must call
+ * {@link #invalidate()}; the next read then reloads the list.
+ * </p>
+ */
+@Service
+public class DepartmentCache {
+
+    private final DepartmentRepo departmentRepo;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final PrimaryReads primaryReads;
+
+    /** The cached snapshot, or {@code null} after invalidation. */
+    private volatile Snapshot snapshot;
+    /** Incremented by every invalidation, so a load racing with one is not cached. */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructs a {@code DepartmentCache}.
+     *
+     * @param departmentRepo the repository the department list is loaded from
+     * @param objectMapper the mapper used to serialize the list once per load
+     * @param transactionManager the transaction manager used for the read-only load
+     * @param primaryReads runs the load against the primary
+     */
+    public DepartmentCache(DepartmentRepo departmentRepo, ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager, PrimaryReads primaryReads) {
+        this.departmentRepo = departmentRepo;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // not the caller's transaction, whose connection may come from the replica
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.primaryReads = primaryReads;
+    }
+
+    /**
+     * Returns the cached department list, loading it if necessary.
+     *
+     * @return the current {@link Snapshot}
+     */
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null) {
+                long loadedGeneration = generation.get();
+                current = load();
+                if (loadedGeneration == generation.get()) {
+                    snapshot = current;
+                }
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Looks up a department by number in the cached list.
+     *
+     * @param deptNo the department number, case-insensitive
+     * @return the {@link Department}, or {@code null} if it does not exist
+     */
+    public Department find(String deptNo) {
+        return get().byDeptNo.get(deptNo.toLowerCase());
+    }
+
+    /**
+     * Discards the cached list. The next read loads it again from the database.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot load() {
+        // detached copies: the cache must not hold on to managed entities
+        List<Department> departments = primaryReads.call(() -> readOnlyTransaction.execute(status ->
+                departmentRepo.findAll(Sort.by(Sort.Direction.ASC, "deptNo")).stream()
+                        .map(d -> new Department(d.getDeptNo(), d.getDeptName()))
+                        .toList()));
+        byte[] json = objectMapper.writeValueAsBytes(departments);
+        return new Snapshot(departments, json, etag(json), Instant.now().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * One loaded version of the department list with its HTTP validators.
+     */
+    public static final class Snapshot {
+
+        private final List<Department> departments;
+        private final Map<String, Department> byDeptNo;
+        private final byte[] json;
+        private final String etag;
+        private final Instant lastModified;
+
+        private Snapshot(List<Department> departments, byte[] json, String etag, Instant lastModified) {
+            this.departments = departments;
+            this.byDeptNo = departments.stream()
+                    .collect(Collectors.toMap(d -> d.getDeptNo().toLowerCase(), Function.identity()));
+            this.json = json;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * Returns the departments in ascending order of department number.
+         * @return an unmodifiable list of detached {@link Department}s
+         */
+        public List<Department> getDepartments() { return departments; }
+
+        /**
+         * Returns the department list serialized as a JSON array.
+         * @return the JSON bytes; must not be modified
+         */
+        public byte[] getJson() { return json; }
+
+        /**
+         * Returns the strong entity tag derived from the JSON content.
+         * @return the quoted ETag value
+         */
+        public String getEtag() { return etag; }
+
+        /**
+         * Returns the time this version was loaded, at second precision.
+         * @return the Last-Modified instant
+         */
+        public Instant getLastModified() { return lastModified; }
+    }
+}
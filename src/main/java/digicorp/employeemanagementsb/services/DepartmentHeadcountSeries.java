@@ -0,0 +1,282 @@
+package digicorp.employeemanagementsb.services;
+
+import digicorp.employeemanagementsb.dto.DepartmentHeadcountDTO;
+import digicorp.employeemanagementsb.model.Department;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Monthly headcount series per department, from {@value #START_YEAR} to the current month.
+ * <p>
+ * Every {@code dept_emp} row is an interval; it adds one to the headcount of each
+ * month whose first day it covers. The series is computed in one streaming sweep:
+ * each row contributes a {@code +1} event at its first counted month and a
+ * {@code -1} event after its last one, recorded in a per-department difference
+ * array, and a prefix sum over that array yields the headcounts. The difference
+ * arrays are computed on first use and then kept.
+ * </p>
+ *
+ * <p>
+ * Committed promotions are applied as deltas to the difference arrays: closing
+ * the previous assignment, moving the start of a continued one, or opening a new
+ * row. Reopening a row of a department the employee had left overwrites an
+ * interval the event does not describe; in that case the arrays are recomputed
+ * on the next read. A promotion that commits during a sweep may or may not be
+ * seen by it, so it is not applied to the swept arrays; they are swept again
+ * instead, up to {@value #MAX_SWEEPS} times per read.
+ * </p>
+ */
+@Component
+public class DepartmentHeadcountSeries {
+
+    private static final Logger log = LoggerFactory.getLogger(DepartmentHeadcountSeries.class);
+
+    /** First year of the series; earlier intervals count from its first month. */
+    public static final int START_YEAR = 1985;
+    private static final YearMonth START = YearMonth.of(START_YEAR, 1);
+
+    private static final int LOAD_FETCH_SIZE = 10_000;
+    /** Sweeps per read before arrays overlapped by promotions are served and left stale. */
+    private static final int MAX_SWEEPS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DepartmentCache departmentCache;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Difference arrays keyed by department number, or {@code null} before the first sweep. Guarded by {@link #lock}. */
+    private Map<String, int[]> diffs;
+    /** Whether {@link #diffs} must be recomputed. Guarded by {@link #lock}. */
+    private boolean stale;
+    /** Whether a sweep is running. Guarded by {@link #lock}. */
+    private boolean loading;
+    /** Whether a promotion committed while a sweep was running. Guarded by {@link #lock}. */
+    private boolean committedDuringLoad;
+    /** Serializes sweeps. */
+    private final Object sweepLock = new Object();
+
+    /**
+     * Constructs the series.
+     *
+     * @param jdbcTemplate the template whose data source {@code dept_emp} is read from
+     * @param departmentCache the cached department list, used for names and empty departments
+     */
+    public DepartmentHeadcountSeries(JdbcTemplate jdbcTemplate, DepartmentCache departmentCache) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(LOAD_FETCH_SIZE);
+        this.departmentCache = departmentCache;
+    }
+
+    /**
+     * Returns the monthly headcount series of one or all departments.
+     *
+     * @param deptNo the department number, or {@code null} for every department
+     * @return one {@link DepartmentHeadcountDTO} per department, ordered by department number
+     * @throws ResponseStatusException if the department does not exist or the series
+     *         cannot be computed
+     */
+    public List<DepartmentHeadcountDTO> getSeries(String deptNo) {
+        List<Department> departments;
+        if (deptNo == null) {
+            departments = departmentCache.get().getDepartments();
+        } else {
+            Department dept = departmentCache.find(deptNo);
+            if (dept == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Department not found: " + deptNo);
+            }
+            departments = List.of(dept);
+        }
+
+        ensureSwept();
+        int months = index(YearMonth.now()) + 1;
+        lock.readLock().lock();
+        try {
+            List<DepartmentHeadcountDTO> series = new ArrayList<>();
+            for (Department dept : departments) {
+                int[] diff = diffs.get(dept.getDeptNo());
+                int[] headcounts = new int[months];
+                int running = 0;
+                for (int i = 0; i < months; i++) {
+                    running += diff != null && i < diff.length ? diff[i] : 0;
+                    headcounts[i] = running;
+                }
+                series.add(new DepartmentHeadcountDTO(dept.getDeptNo(), dept.getDeptName(), START.toString(), headcounts));
+            }
+            return series;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a committed promotion's department change to the series.
+     *
+     * @param event the promotion event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEmployeePromoted(EmployeePromotedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (loading) {
+                committedDuringLoad = true;
+            }
+            if (diffs != null && !stale) {
+                stale = !apply(diffs, event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isCurrent() {
+        lock.readLock().lock();
+        try {
+            return diffs != null && !stale;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureSwept() {
+        if (isCurrent()) {
+            return;
+        }
+        synchronized (sweepLock) {
+            for (int sweeps = 0; sweeps < MAX_SWEEPS && !isCurrent(); sweeps++) {
+                sweepOnce();
+            }
+        }
+    }
+
+    /**
+     * Sweeps {@code dept_emp} and installs the result, marked stale if a promotion
+     * committed during the sweep.
+     *
+     * @throws ResponseStatusException with {@code 503} if the sweep fails
+     */
+    private void sweepOnce() {
+        lock.writeLock().lock();
+        try {
+            loading = true;
+            committedDuringLoad = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<String, int[]> fresh = null;
+        try {
+            long start = System.nanoTime();
+            fresh = sweep();
+            log.info("Computed headcount series of {} departments in {} ms",
+                    fresh.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Headcount series could not be computed: {}", e.toString());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (fresh != null) {
+                    diffs = fresh;
+                    // the deltas are not idempotent: a promotion the sweep may have seen is not applied
+                    stale = committedDuringLoad;
+                }
+                loading = false;
+                committedDuringLoad = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        if (fresh == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "{\"error\":\"Headcount series is not available\"}");
+        }
+    }
+
+    private Map<String, int[]> sweep() {
+        Map<String, int[]> fresh = new HashMap<>();
+        jdbcTemplate.query("SELECT dept_no, from_date, to_date FROM dept_emp", rs -> {
+            String deptNo = rs.getString(1);
+            LocalDate from = rs.getObject(2, LocalDate.class);
+            LocalDate to = rs.getObject(3, LocalDate.class);
+            addInterval(fresh, deptNo, from, to, 1);
+        });
+        return fresh;
+    }
+
+    /**
+     * Applies a promotion to the difference arrays.
+     *
+     * @return false if the promotion replaced an interval that the event does not describe
+     */
+    private static boolean apply(Map<String, int[]> diffs, EmployeePromotedEvent event) {
+        PromotionState before = event.getBefore();
+        PromotionState after = event.getAfter();
+        LocalDate newFrom = after.getDeptFromDate();
+        String oldDept = before.getDeptNo();
+        String newDept = after.getDeptNo();
+
+        if (oldDept != null && oldDept.equalsIgnoreCase(newDept)) {
+            // the open row is kept and only its start date moves
+            addInterval(diffs, oldDept, before.getDeptFromDate(), PromotionState.OPEN, -1);
+            addInterval(diffs, newDept, newFrom, PromotionState.OPEN, 1);
+            return true;
+        }
+        if (oldDept != null) {
+            // the previous assignment now ends the day before the new one starts
+            addInterval(diffs, oldDept, before.getDeptFromDate(), PromotionState.OPEN, -1);
+            addInterval(diffs, oldDept, before.getDeptFromDate(), newFrom.minusDays(1), 1);
+        }
+        if (before.wasAssignedTo(newDept)) {
+            // an old row of the target department was reopened; its former interval is unknown
+            return false;
+        }
+        addInterval(diffs, newDept, newFrom, PromotionState.OPEN, 1);
+        return true;
+    }
+
+    private static void addInterval(Map<String, int[]> diffs, String deptNo, LocalDate from, LocalDate to, int sign) {
+        int first = firstCountedMonth(from);
+        int end = to.equals(PromotionState.OPEN) ? Integer.MAX_VALUE : firstCountedMonth(to.plusDays(1));
+        if (end <= first) {
+            return;
+        }
+        int[] diff = diffs.get(deptNo);
+        int needed = end == Integer.MAX_VALUE ? first + 1 : end + 1;
+        if (diff == null || diff.length < needed) {
+            diff = diff == null ? new int[Math.max(needed, index(YearMonth.now()) + 1)]
+                    : Arrays.copyOf(diff, Math.max(needed, diff.length * 2));
+            diffs.put(deptNo, diff);
+        }
+        diff[first] += sign;
+        if (end != Integer.MAX_VALUE) {
+            diff[end] -= sign;
+        }
+    }
+
+    /** Index of the first month whose first day is on or after the date, at least 0. */
+    private static int firstCountedMonth(LocalDate date) {
+        YearMonth month = YearMonth.from(date);
+        if (date.getDayOfMonth() != 1) {
+            month = month.plusMonths(1);
+        }
+        return Math.max(0, index(month));
+    }
+
+    private static int index(YearMonth month) {
+        return (month.getYear() - START.getYear()) * 12 + month.getMonthValue() - 1;
+    }
+}
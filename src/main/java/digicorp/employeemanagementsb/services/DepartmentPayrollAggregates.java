@@ -0,0 +1,315 @@
+package digicorp.employeemanagementsb.services;
+
+import digicorp.employeemanagementsb.dto.DepartmentPayrollDTO;
+import digicorp.employeemanagementsb.model.Department;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Materialized per-department payroll aggregates: headcount, total, average,
+ * minimum and maximum of the current salaries.
+ * <p>
+ * The aggregates are computed once at startup by streaming the open
+ * {@code dept_emp} rows joined with the open {@code salaries} rows. Afterwards each
+ * committed {@link EmployeePromotedEvent} removes the employee's previous salary from
+ * the old department and adds the new salary to the new one, so reads cost
+ * O(departments) and never touch the salaries table.
+ * </p>
+ *
+ * <p>
+ * Besides the count and sum, each department keeps a histogram of its salaries so
+ * the minimum and maximum stay exact when the current extreme is removed. A
+ * promotion that commits while the aggregates are loaded may or may not be seen by
+ * the load, so it is not replayed; the departments it touched are recomputed
+ * before the swap instead. If loading fails at startup, reads answer {@code 503}
+ * while {@link ReloadRetry} retries it in the background.
+ * </p>
+ */
+@Component
+public class DepartmentPayrollAggregates {
+
+    private static final Logger log = LoggerFactory.getLogger(DepartmentPayrollAggregates.class);
+
+    private static final int LOAD_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DepartmentCache departmentCache;
+    private final ReloadRetry reloadRetry;
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /** The buckets keyed by department number, or {@code null} while not loaded. Guarded by {@link #lock}. */
+    private Map<String, Bucket> buckets;
+    /** Whether a load is running. Guarded by {@link #lock}. */
+    private boolean loading;
+    /** Promotions committed while a load was running. Guarded by {@link #lock}. */
+    private final List<EmployeePromotedEvent> committedDuringLoad = new ArrayList<>();
+
+    /**
+     * Constructs the aggregates.
+     *
+     * @param jdbcTemplate the template whose data source the aggregates are computed from
+     * @param departmentCache the cached department list, used for names and empty departments
+     * @param reloadRetry the scheduler retrying a failed load in the background
+     * @param enabled whether the aggregates should be computed at startup
+     */
+    public DepartmentPayrollAggregates(JdbcTemplate jdbcTemplate, DepartmentCache departmentCache,
+                                       ReloadRetry reloadRetry,
+                                       @Value("${employees.payroll-aggregates.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(LOAD_FETCH_SIZE);
+        this.departmentCache = departmentCache;
+        this.reloadRetry = reloadRetry;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Computes the aggregates once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    /**
+     * Recomputes the aggregates from the database.
+     * <p>
+     * Reads keep using the previous aggregates while the new ones are computed. The
+     * departments of promotions that commit in the meantime are recomputed, until
+     * a recomputation completes without further promotions. If the
+     * aggregates have never been loaded and this load fails, it is retried in the
+     * background.
+     * </p>
+     */
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            if (loading) {
+                return;
+            }
+            loading = true;
+            committedDuringLoad.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            long start = System.nanoTime();
+            Map<String, Bucket> fresh = load(null);
+            log.info("Computed payroll aggregates of {} departments in {} ms",
+                    fresh.size(), (System.nanoTime() - start) / 1_000_000);
+            for (Set<String> touched = swapOrTakeTouched(fresh); !touched.isEmpty(); touched = swapOrTakeTouched(fresh)) {
+                fresh.putAll(load(touched));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Payroll aggregates could not be computed: {}", e.toString());
+        } finally {
+            boolean missing;
+            lock.writeLock().lock();
+            try {
+                loading = false;
+                committedDuringLoad.clear();
+                missing = buckets == null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (missing) {
+                reloadRetry.schedule("payroll aggregates", this::loadIfMissing);
+            }
+        }
+    }
+
+    /**
+     * Installs freshly computed aggregates unless promotions committed since the last query.
+     *
+     * @param fresh the computed aggregates
+     * @return the departments of those promotions, to be recomputed; empty if the
+     *         aggregates were installed
+     */
+    private Set<String> swapOrTakeTouched(Map<String, Bucket> fresh) {
+        lock.writeLock().lock();
+        try {
+            Set<String> touched = new HashSet<>();
+            for (EmployeePromotedEvent event : committedDuringLoad) {
+                if (event.getBefore().getDeptNo() != null) {
+                    touched.add(event.getBefore().getDeptNo());
+                }
+                touched.add(event.getAfter().getDeptNo());
+            }
+            committedDuringLoad.clear();
+            if (touched.isEmpty()) {
+                buckets = fresh;
+            }
+            return touched;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the payroll figures of every department, ordered by department number.
+     *
+     * @return one {@link DepartmentPayrollDTO} per department
+     * @throws ResponseStatusException with {@code 503} if the aggregates are not loaded
+     */
+    public List<DepartmentPayrollDTO> getSummary() {
+        lock.readLock().lock();
+        try {
+            if (buckets == null) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "{\"error\":\"Payroll summary is not available\"}");
+            }
+            List<DepartmentPayrollDTO> summary = new ArrayList<>();
+            for (Department dept : departmentCache.get().getDepartments()) {
+                Bucket bucket = buckets.get(dept.getDeptNo());
+                summary.add(bucket == null
+                        ? new DepartmentPayrollDTO(dept.getDeptNo(), dept.getDeptName(), 0, 0, null, null, null)
+                        : bucket.toDto(dept));
+            }
+            return summary;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves a committed promotion's salary between department buckets.
+     *
+     * @param event the promotion event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEmployeePromoted(EmployeePromotedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (loading) {
+                committedDuringLoad.add(event);
+            }
+            if (buckets != null) {
+                apply(buckets, event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean loadIfMissing() {
+        if (!isLoaded()) {
+            reload();
+        }
+        return isLoaded();
+    }
+
+    private boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return buckets != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Computes the aggregates of all departments, or of the given ones.
+     *
+     * @param deptNos the department numbers, or {@code null} for all departments
+     */
+    private Map<String, Bucket> load(Collection<String> deptNos) {
+        Map<String, Bucket> fresh = new HashMap<>();
+        List<Object> args = new ArrayList<>(List.of(PromotionState.OPEN, PromotionState.OPEN));
+        String filter = "";
+        if (deptNos != null) {
+            for (String deptNo : deptNos) {
+                // departments left without employees are empty
+                fresh.put(deptNo, new Bucket());
+                args.add(deptNo);
+            }
+            filter = "AND de.dept_no IN (" + String.join(", ", Collections.nCopies(deptNos.size(), "?")) + ")";
+        }
+        jdbcTemplate.query("""
+                SELECT de.dept_no, s.salary
+                FROM dept_emp de
+                JOIN salaries s ON s.emp_no = de.emp_no AND s.to_date = ?
+                WHERE de.to_date = ? %s
+                """.formatted(filter),
+                rs -> { fresh.computeIfAbsent(rs.getString(1), d -> new Bucket()).add(rs.getInt(2)); },
+                args.toArray());
+        return fresh;
+    }
+
+    private static void apply(Map<String, Bucket> buckets, EmployeePromotedEvent event) {
+        PromotionState before = event.getBefore();
+        PromotionState after = event.getAfter();
+        if (before.getDeptNo() != null && before.getSalaryFromDate() != null) {
+            Bucket old = buckets.get(before.getDeptNo());
+            if (old != null) {
+                old.remove(before.getSalary());
+            }
+        }
+        if (after.getDeptNo() != null && after.getSalaryFromDate() != null) {
+            buckets.computeIfAbsent(after.getDeptNo(), d -> new Bucket()).add(after.getSalary());
+        }
+    }
+
+    /**
+     * Running aggregate of one department. Not thread-safe; guarded by the enclosing lock.
+     */
+    private static final class Bucket {
+
+        private int headcount;
+        private long total;
+        /** Number of employees per salary amount. */
+        private final TreeMap<Integer, Integer> salaries = new TreeMap<>();
+
+        void add(int salary) {
+            headcount++;
+            total += salary;
+            salaries.merge(salary, 1, Integer::sum);
+        }
+
+        void remove(int salary) {
+            Integer count = salaries.get(salary);
+            if (count == null) {
+                // the database was changed behind our back; keep the bucket consistent
+                return;
+            }
+            headcount--;
+            total -= salary;
+            if (count == 1) {
+                salaries.remove(salary);
+            } else {
+                salaries.put(salary, count - 1);
+            }
+        }
+
+        DepartmentPayrollDTO toDto(Department dept) {
+            if (headcount == 0) {
+                return new DepartmentPayrollDTO(dept.getDeptNo(), dept.getDeptName(), 0, 0, null, null, null);
+            }
+            return new DepartmentPayrollDTO(dept.getDeptNo(), dept.getDeptName(), headcount, total,
+                    (double) total / headcount, salaries.firstKey(), salaries.lastKey());
+        }
+    }
+}
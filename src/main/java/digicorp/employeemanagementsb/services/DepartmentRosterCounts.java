@@ -0,0 +1,291 @@
+package digicorp.employeemanagementsb.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory row counts of every department roster: the total number of
+ * {@code dept_emp} rows, which is what {@code /employees/by-department} pages
+ * through, and the number of open ones, the current headcount.
+ * <p>
+ * The counts are computed once at startup with a single grouped query. Afterwards
+ * each committed {@link EmployeePromotedEvent} adjusts them: a department change
+ * closes the old department's open row and opens one in the new department, and
+ * that row is inserted only if the employee was never assigned there before. No
+ * {@code COUNT(*)} over {@code dept_emp} runs per request.
+ * </p>
+ *
+ * <p>
+ * A promotion that commits while the counts are loaded may or may not be seen by
+ * the load, so its adjustment cannot be replayed. As with
+ * {@link DepartmentPayrollAggregates}, the departments it touched are counted again
+ * before the swap instead. If the load fails, listings are served without the
+ * counts while {@link ReloadRetry} retries it in the background.
+ * </p>
+ */
+@Component
+public class DepartmentRosterCounts {
+
+    private static final Logger log = LoggerFactory.getLogger(DepartmentRosterCounts.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReloadRetry reloadRetry;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /** The counters keyed by lower-case department number, or {@code null} while not loaded. Guarded by {@link #lock}. */
+    private Map<String, Counter> counters;
+    /** Whether a load is running. Guarded by {@link #lock}. */
+    private boolean loading;
+    /** Promotions committed while a load was running. Guarded by {@link #lock}. */
+    private final List<EmployeePromotedEvent> committedDuringLoad = new ArrayList<>();
+
+    /**
+     * Constructs the counts.
+     *
+     * @param jdbcTemplate the template whose data source the counts are computed from
+     * @param reloadRetry the scheduler retrying a failed load in the background
+     */
+    public DepartmentRosterCounts(JdbcTemplate jdbcTemplate, ReloadRetry reloadRetry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reloadRetry = reloadRetry;
+    }
+
+    /**
+     * Computes the counts once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /**
+     * Recomputes the counts from the database.
+     * <p>
+     * Reads keep using the previous counts while the new ones are computed. The
+     * departments of promotions that commit in the meantime are counted again,
+     * until a recount completes without further promotions. If the
+     * counts have never been loaded and this load fails, it is retried in the
+     * background.
+     * </p>
+     */
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            if (loading) {
+                return;
+            }
+            loading = true;
+            committedDuringLoad.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            Map<String, Counter> fresh = load(null);
+            log.info("Counted the rosters of {} departments", fresh.size());
+            for (Set<String> touched = swapOrTakeTouched(fresh); !touched.isEmpty(); touched = swapOrTakeTouched(fresh)) {
+                fresh.putAll(load(touched));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Department roster counts could not be computed: {}", e.toString());
+        } finally {
+            boolean missing;
+            lock.writeLock().lock();
+            try {
+                loading = false;
+                committedDuringLoad.clear();
+                missing = counters == null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (missing) {
+                reloadRetry.schedule("department roster counts", this::loadIfMissing);
+            }
+        }
+    }
+
+    /**
+     * Installs freshly loaded counts unless promotions committed since the last query.
+     *
+     * @param fresh the loaded counts
+     * @return the departments of those promotions, to be counted again; empty if
+     *         the counts were installed
+     */
+    private Set<String> swapOrTakeTouched(Map<String, Counter> fresh) {
+        lock.writeLock().lock();
+        try {
+            Set<String> touched = new HashSet<>();
+            for (EmployeePromotedEvent event : committedDuringLoad) {
+                if (event.getBefore().getDeptNo() != null) {
+                    touched.add(event.getBefore().getDeptNo().toLowerCase(Locale.ROOT));
+                }
+                touched.add(event.getAfter().getDeptNo().toLowerCase(Locale.ROOT));
+            }
+            committedDuringLoad.clear();
+            if (touched.isEmpty()) {
+                counters = fresh;
+            }
+            return touched;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the counts of one department.
+     *
+     * @param deptNo the department number, in any case
+     * @return the counts, zero for a department without rows, or {@code null} if
+     *         the counts are not loaded
+     */
+    public Counts get(String deptNo) {
+        lock.readLock().lock();
+        try {
+            if (counters == null) {
+                return null;
+            }
+            Counter counter = counters.get(deptNo.toLowerCase(Locale.ROOT));
+            return counter == null ? new Counts(0, 0) : new Counts(counter.total, counter.current);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adjusts the counts for a committed promotion.
+     *
+     * @param event the promotion event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEmployeePromoted(EmployeePromotedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (loading) {
+                committedDuringLoad.add(event);
+            }
+            if (counters != null) {
+                apply(counters, event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean loadIfMissing() {
+        if (!isLoaded()) {
+            reload();
+        }
+        return isLoaded();
+    }
+
+    private boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return counters != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the rosters of all departments, or of the given ones.
+     *
+     * @param deptNos lower-case department numbers, or {@code null} for all departments
+     */
+    private Map<String, Counter> load(Collection<String> deptNos) {
+        Map<String, Counter> fresh = new HashMap<>();
+        List<Object> args = new ArrayList<>();
+        args.add(PromotionState.OPEN);
+        String where = "";
+        if (deptNos != null) {
+            for (String deptNo : deptNos) {
+                // departments left without rows count zero
+                fresh.put(deptNo, new Counter());
+                args.add(deptNo);
+            }
+            where = "WHERE dept_no IN (" + String.join(", ", Collections.nCopies(deptNos.size(), "?")) + ")";
+        }
+        jdbcTemplate.query("""
+                SELECT dept_no, COUNT(*), SUM(CASE WHEN to_date = ? THEN 1 ELSE 0 END)
+                FROM dept_emp
+                %s
+                GROUP BY dept_no
+                """.formatted(where),
+                rs -> {
+                    Counter counter = fresh.computeIfAbsent(rs.getString(1).toLowerCase(Locale.ROOT), d -> new Counter());
+                    counter.total += rs.getInt(2);
+                    counter.current += rs.getInt(3);
+                },
+                args.toArray());
+        return fresh;
+    }
+
+    private static void apply(Map<String, Counter> counters, EmployeePromotedEvent event) {
+        PromotionState before = event.getBefore();
+        String from = before.getDeptNo() == null ? null : before.getDeptNo().toLowerCase(Locale.ROOT);
+        String to = event.getAfter().getDeptNo().toLowerCase(Locale.ROOT);
+        if (to.equals(from)) {
+            // the open row is kept
+            return;
+        }
+        if (from != null) {
+            counters.computeIfAbsent(from, d -> new Counter()).current--;
+        }
+        Counter target = counters.computeIfAbsent(to, d -> new Counter());
+        target.current++;
+        if (!before.wasAssignedTo(to)) {
+            target.total++;
+        }
+    }
+
+    /**
+     * Running counts of one department. Not thread-safe; guarded by the enclosing lock.
+     */
+    private static final class Counter {
+        private int total;
+        private int current;
+    }
+
+    /**
+     * Row counts of one department roster at one point in time.
+     */
+    public static final class Counts {
+
+        private final int total;
+        private final int current;
+
+        private Counts(int total, int current) {
+            this.total = total;
+            this.current = current;
+        }
+
+        /**
+         * Returns the number of {@code dept_emp} rows of the department, current and past.
+         * @return the total roster size
+         */
+        public int getTotal() { return total; }
+
+        /**
+         * Returns the number of open {@code dept_emp} rows of the department.
+         * @return the current headcount
+         */
+        public int getCurrent() { return current; }
+    }
+}
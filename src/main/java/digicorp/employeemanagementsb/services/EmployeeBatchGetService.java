@@ -0,0 +1,141 @@
+package digicorp.employeemanagementsb.services;
+
+import digicorp.employeemanagementsb.model.Employee;
+import digicorp.employeemanagementsb.repository.EmployeeRepo;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service that loads many employees at once and streams them to an output stream.
+ * <p>
+ * The requested employee numbers are processed in chunks of
+ * {@code employees.batch-get.chunk-size}. Each chunk is loaded with one
+ * {@code IN} query per requested collection (or one for the employee rows when no
+ * collection is requested), so the number of queries grows with the number of
+ * chunks, not of employees. The chunk is written and flushed in request order
+ * before the persistence context is cleared and the next chunk is loaded, so
+ * memory use is bounded by the chunk size.
+ * </p>
+ *
+ * <p>
+ * The response is an array with one element per requested number, {@code null}
+ * where no employee exists. Numbers may repeat; every occurrence gets its element.
+ * </p>
+ */
+@Service
+@Transactional(readOnly = true)
+public class EmployeeBatchGetService {
+
+    private final EmployeeRepo employeeRepo;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+    private final int maxSize;
+
+    /**
+     * Constructs an {@code EmployeeBatchGetService}.
+     *
+     * @param employeeRepo the repository used to load the employees
+     * @param entityManager the persistence context cleared after every chunk
+     * @param chunkSize the number of employee numbers loaded per round of queries
+     * @param maxSize the largest number of employee numbers accepted per request
+     */
+    public EmployeeBatchGetService(EmployeeRepo employeeRepo, EntityManager entityManager,
+                                   @Value("${employees.batch-get.chunk-size:500}") int chunkSize,
+                                   @Value("${employees.batch-get.max-size:10000}") int maxSize) {
+        this.employeeRepo = employeeRepo;
+        this.entityManager = entityManager;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Checks a list of requested employee numbers before anything is written.
+     *
+     * @param empNos the requested employee numbers
+     * @throws ResponseStatusException if the list is missing, too long or contains an invalid number
+     */
+    public void validate(List<Integer> empNos) {
+        if (empNos == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "{\"error\":\"Request body must be an array of employee numbers\"}");
+        }
+        if (empNos.size() > maxSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "{\"error\":\"At most " + maxSize + " employee numbers can be requested at once\"}");
+        }
+        for (Integer empNo : empNos) {
+            if (empNo == null || empNo <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "{\"error\":\"Employee numbers must be positive integers\"}");
+            }
+        }
+    }
+
+    /**
+     * Writes the requested employees as an array, in request order.
+     *
+     * @param empNos the requested employee numbers
+     * @param plans the collections to load for every employee; may be empty
+     * @param mapper the mapper of the response format
+     * @param out the stream to write to; it is flushed but not closed
+     */
+    public void write(List<Integer> empNos, Set<EmployeeFetchPlan> plans, ObjectMapper mapper, OutputStream out) {
+        validate(empNos);
+        try (JsonGenerator generator = mapper.writer()
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .createGenerator(out)) {
+            generator.writeStartArray();
+            for (int from = 0; from < empNos.size(); from += chunkSize) {
+                List<Integer> chunk = empNos.subList(from, Math.min(from + chunkSize, empNos.size()));
+                Map<Integer, Employee> employees = load(new LinkedHashSet<>(chunk), plans);
+                for (Integer empNo : chunk) {
+                    generator.writePOJO(employees.get(empNo));
+                }
+                generator.flush();
+                // the chunk has been written; its entities are no longer needed
+                entityManager.clear();
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Loads one chunk of employees with the requested collections initialized.
+     * <p>
+     * Every query runs in the same persistence context, so each one initializes
+     * its collection on the employee instances the previous ones returned.
+     * </p>
+     */
+    private Map<Integer, Employee> load(Set<Integer> empNos, Set<EmployeeFetchPlan> plans) {
+        Map<Integer, Employee> employees = new HashMap<>();
+        if (plans.isEmpty()) {
+            employeeRepo.findByEmpNoIn(empNos).forEach(e -> employees.put(e.getEmpNo(), e));
+            return employees;
+        }
+        for (EmployeeFetchPlan plan : plans) {
+            List<Employee> loaded = switch (plan) {
+                case TITLES -> employeeRepo.findWithTitlesByEmpNoIn(empNos);
+                case SALARIES -> employeeRepo.findWithSalariesByEmpNoIn(empNos);
+                case DEPARTMENTS -> employeeRepo.findWithDepartmentsByEmpNoIn(empNos);
+                case MANAGERS -> employeeRepo.findWithManagersByEmpNoIn(empNos);
+            };
+            loaded.forEach(e -> employees.put(e.getEmpNo(), e));
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,80 @@
+package digicorp.employeemanagementsb.services;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Named fetch plans for loading an {@link digicorp.employeemanagementsb.model.Employee}.
+ * <p>
+ * Each constant corresponds to one history collection and is selected by name through
+ * the {@code include} query parameter (e.g. {@code include=titles,salaries}). An empty
+ * selection loads only the employee row itself.
+ * </p>
+ */
+public enum EmployeeFetchPlan {
+
+    /** Loads the title history. */
+    TITLES("titles"),
+    /** Loads the salary history. */
+    SALARIES("salaries"),
+    /** Loads the department history together with each department. */
+    DEPARTMENTS("departments"),
+    /** Loads the manager history together with each department. */
+    MANAGERS("managers");
+
+    private final String paramName;
+
+    EmployeeFetchPlan(String paramName) {
+        this.paramName = paramName;
+    }
+
+    /**
+     * Returns the name used for this plan in the {@code include} query parameter.
+     *
+     * @return the query parameter value
+     */
+    public String getParamName() { return paramName; }
+
+    /**
+     * Parses a comma-separated {@code include} query parameter.
+     * <p>
+     * The special value {@code all} selects every plan. Blank input selects none.
+     * </p>
+     *
+     * @param include the raw parameter value, may be {@code null}
+     * @return the selected plans; never {@code null}
+     * @throws ResponseStatusException if an unknown plan name is given
+     */
+    public static Set<EmployeeFetchPlan> parse(String include) {
+        Set<EmployeeFetchPlan> plans = EnumSet.noneOf(EmployeeFetchPlan.class);
+        if (include == null || include.isBlank()) {
+            return plans;
+        }
+        for (String token : include.split(",")) {
+            String name = token.trim().toLowerCase(Locale.ROOT);
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (name.equals("all")) {
+                return EnumSet.allOf(EmployeeFetchPlan.class);
+            }
+            plans.add(fromParamName(name));
+        }
+        return plans;
+    }
+
+    private static EmployeeFetchPlan fromParamName(String name) {
+        for (EmployeeFetchPlan plan : values()) {
+            if (plan.paramName.equals(name)) {
+                return plan;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "{\"error\":\"Unknown include '" + name
+                        + "'. Expected any of titles, salaries, departments, managers or all\"}");
+    }
+}
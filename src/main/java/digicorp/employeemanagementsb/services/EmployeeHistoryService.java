@@ -0,0 +1,195 @@
+package digicorp.employeemanagementsb.services;
+
+import digicorp.employeemanagementsb.dto.HistoryPageDTO;
+import digicorp.employeemanagementsb.model.DeptEmployee;
+import digicorp.employeemanagementsb.model.DeptManager;
+import digicorp.employeemanagementsb.model.SalaryHistory;
+import digicorp.employeemanagementsb.model.TitleHistory;
+import digicorp.employeemanagementsb.repository.DepartmentHistoryRepo;
+import digicorp.employeemanagementsb.repository.EmployeeRepo;
+import digicorp.employeemanagementsb.repository.ManagerHistoryRepo;
+import digicorp.employeemanagementsb.repository.SalaryHistoryRepo;
+import digicorp.employeemanagementsb.repository.TitleHistoryRepo;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Service that returns an employee's salary, title, department and manager
+ * history one slice at a time.
+ * <p>
+ * Each history can be narrowed to the records in effect during a period and is
+ * paginated with a cursor on its sort key: the start date, then the title or
+ * department number. A slice is a single range query within the employee's part
+ * of the table's primary key, so deep slices cost the same as the first one and
+ * nothing outside the requested period is read.
+ * </p>
+ *
+ * <p>
+ * An empty first slice is ambiguous, so only then is the employee looked up to
+ * answer {@code 404} for unknown employee numbers.
+ * </p>
+ */
+@Service
+@Transactional(readOnly = true)
+public class EmployeeHistoryService {
+
+    /** Period start used when no {@code from} date is given; before every record. */
+    private static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    /** Period end used when no {@code to} date is given; after every record. */
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    private final EmployeeRepo employeeRepo;
+    private final SalaryHistoryRepo salaryHistoryRepo;
+    private final TitleHistoryRepo titleHistoryRepo;
+    private final DepartmentHistoryRepo departmentHistoryRepo;
+    private final ManagerHistoryRepo managerHistoryRepo;
+    private final int pageSize;
+
+    /**
+     * Constructs an {@code EmployeeHistoryService}.
+     *
+     * @param employeeRepo the repository used to tell unknown employees from empty histories
+     * @param salaryHistoryRepo the repository of salary records
+     * @param titleHistoryRepo the repository of title records
+     * @param departmentHistoryRepo the repository of department assignments
+     * @param managerHistoryRepo the repository of management periods
+     * @param pageSize the number of records returned per slice
+     */
+    public EmployeeHistoryService(EmployeeRepo employeeRepo, SalaryHistoryRepo salaryHistoryRepo,
+                                  TitleHistoryRepo titleHistoryRepo, DepartmentHistoryRepo departmentHistoryRepo,
+                                  ManagerHistoryRepo managerHistoryRepo,
+                                  @Value("${employees.history.page-size:20}") int pageSize) {
+        this.employeeRepo = employeeRepo;
+        this.salaryHistoryRepo = salaryHistoryRepo;
+        this.titleHistoryRepo = titleHistoryRepo;
+        this.departmentHistoryRepo = departmentHistoryRepo;
+        this.managerHistoryRepo = managerHistoryRepo;
+        this.pageSize = Math.max(1, pageSize);
+    }
+
+    /**
+     * Retrieves one slice of an employee's salaries.
+     *
+     * @param empNo the employee number
+     * @param from  the first day of the period of interest, or {@code null} for no lower bound
+     * @param to    the last day of the period of interest, or {@code null} for no upper bound
+     * @param after the cursor returned by the previous slice; blank for the first slice
+     * @return the salaries in effect during the period, oldest first
+     * @throws ResponseStatusException if the period or cursor is invalid, or the employee is not found
+     */
+    public HistoryPageDTO<SalaryHistory> getSalaries(int empNo, LocalDate from, LocalDate to, String after) {
+        PageCursor.HistoryPosition position = PageCursor.decodeHistory(after);
+        List<SalaryHistory> rows = salaryHistoryRepo.findSlice(empNo, start(from, to), end(to),
+                afterFromDate(position), Limit.of(pageSize + 1));
+        return page(empNo, position, rows, s -> s.getId().getFromDate(), s -> "");
+    }
+
+    /**
+     * Retrieves one slice of an employee's titles.
+     *
+     * @param empNo the employee number
+     * @param from  the first day of the period of interest, or {@code null} for no lower bound
+     * @param to    the last day of the period of interest, or {@code null} for no upper bound
+     * @param after the cursor returned by the previous slice; blank for the first slice
+     * @return the titles held during the period, oldest first
+     * @throws ResponseStatusException if the period or cursor is invalid, or the employee is not found
+     */
+    public HistoryPageDTO<TitleHistory> getTitles(int empNo, LocalDate from, LocalDate to, String after) {
+        PageCursor.HistoryPosition position = PageCursor.decodeHistory(after);
+        List<TitleHistory> rows = titleHistoryRepo.findSlice(empNo, start(from, to), end(to),
+                afterFromDate(position), afterKey(position), Limit.of(pageSize + 1));
+        return page(empNo, position, rows, t -> t.getId().getFromDate(), t -> t.getId().getTitle());
+    }
+
+    /**
+     * Retrieves one slice of an employee's department assignments.
+     *
+     * @param empNo the employee number
+     * @param from  the first day of the period of interest, or {@code null} for no lower bound
+     * @param to    the last day of the period of interest, or {@code null} for no upper bound
+     * @param after the cursor returned by the previous slice; blank for the first slice
+     * @return the assignments in effect during the period, oldest first
+     * @throws ResponseStatusException if the period or cursor is invalid, or the employee is not found
+     */
+    public HistoryPageDTO<DeptEmployee> getDepartments(int empNo, LocalDate from, LocalDate to, String after) {
+        PageCursor.HistoryPosition position = PageCursor.decodeHistory(after);
+        List<DeptEmployee> rows = departmentHistoryRepo.findSlice(empNo, start(from, to), end(to),
+                afterFromDate(position), afterKey(position), Limit.of(pageSize + 1));
+        return page(empNo, position, rows, DeptEmployee::getFromDate, d -> d.getId().getDeptNo());
+    }
+
+    /**
+     * Retrieves one slice of the departments an employee has managed.
+     *
+     * @param empNo the employee number
+     * @param from  the first day of the period of interest, or {@code null} for no lower bound
+     * @param to    the last day of the period of interest, or {@code null} for no upper bound
+     * @param after the cursor returned by the previous slice; blank for the first slice
+     * @return the management periods in effect during the period, oldest first
+     * @throws ResponseStatusException if the period or cursor is invalid, or the employee is not found
+     */
+    public HistoryPageDTO<DeptManager> getManagers(int empNo, LocalDate from, LocalDate to, String after) {
+        PageCursor.HistoryPosition position = PageCursor.decodeHistory(after);
+        List<DeptManager> rows = managerHistoryRepo.findSlice(empNo, start(from, to), end(to),
+                afterFromDate(position), afterKey(position), Limit.of(pageSize + 1));
+        return page(empNo, position, rows, DeptManager::getFromDate, m -> m.getId().getDeptNo());
+    }
+
+    /**
+     * Returns the start of the period of interest.
+     *
+     * @throws ResponseStatusException if the period ends before it starts
+     */
+    private static LocalDate start(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "{\"error\":\"'from' must not be after 'to'\"}");
+        }
+        return from == null ? EARLIEST : from;
+    }
+
+    private static LocalDate end(LocalDate to) {
+        return to == null ? LATEST : to;
+    }
+
+    private static LocalDate afterFromDate(PageCursor.HistoryPosition position) {
+        return position == null ? EARLIEST : position.getFromDate();
+    }
+
+    private static String afterKey(PageCursor.HistoryPosition position) {
+        return position == null ? "" : position.getKey();
+    }
+
+    /**
+     * Turns the rows of a slice query, fetched with one row of lookahead, into a page.
+     *
+     * @param empNo    the employee number, looked up if the first slice is empty
+     * @param position the position the slice starts after, or {@code null} for the first slice
+     * @param rows     up to one more record than fits on a page, in sort order
+     * @param fromDate extracts the start date of a record
+     * @param key      extracts the rest of the sort key of a record
+     * @return the page, with a cursor if more records follow
+     * @throws ResponseStatusException if the first slice is empty and the employee is not found
+     */
+    private <T> HistoryPageDTO<T> page(int empNo, PageCursor.HistoryPosition position, List<T> rows,
+                                       Function<T, LocalDate> fromDate, Function<T, String> key) {
+        if (rows.isEmpty() && position == null && employeeRepo.findById(empNo).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Employee not found");
+        }
+        if (rows.size() <= pageSize) {
+            return new HistoryPageDTO<>(rows, null);
+        }
+        List<T> slice = rows.subList(0, pageSize);
+        T last = slice.get(pageSize - 1);
+        return new HistoryPageDTO<>(slice, PageCursor.encode(fromDate.apply(last), key.apply(last)));
+    }
+}
@@ -0,0 +1,357 @@
+package digicorp.employeemanagementsb.services;
+
+import digicorp.employeemanagementsb.dto.EmployeePageDTO;
+import digicorp.employeemanagementsb.dto.EmployeeRecordDTO;
+import digicorp.employeemanagementsb.util.IntIntHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory prefix index over employee first and last names.
+ * <p>
+ * Both names of every employee are stored lower-cased in one sorted array, so all
+ * names starting with a prefix form a contiguous range found by two binary
+ * searches. A query of several words takes the word with the narrowest range as
+ * the candidate set and checks the other words against each candidate's names.
+ * The database is never searched with {@code LIKE}.
+ * </p>
+ *
+ * <p>
+ * Each query word scores {@value #EXACT} if it equals a name and {@value #PREFIX}
+ * if it only starts one. Results are ordered by total score (descending), then
+ * employee number, and paginated with a keyset cursor over that order. The ordered
+ * matches of the last {@code employees.name-index.cached-queries} queries are kept,
+ * so only the first slice of a query ranks its candidates; following slices seek
+ * to the cursor with a binary search.
+ * </p>
+ *
+ * <p>
+ * The index is built at startup. Names are not changed by this application, so
+ * no incremental updates are needed; {@link #reload()} rebuilds it. If it cannot
+ * be built, searches answer {@code 503} while {@link ReloadRetry} retries in the
+ * background.
+ * </p>
+ */
+@Component
+public class EmployeeNameIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeNameIndex.class);
+
+    private static final int EXACT = 2;
+    private static final int PREFIX = 1;
+    /** Words of a query beyond this number are ignored. */
+    private static final int MAX_WORDS = 3;
+    private static final int MAX_RANK = MAX_WORDS * EXACT;
+
+    private static final int LOAD_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReloadRetry reloadRetry;
+    private final boolean enabled;
+    private final int cachedQueries;
+
+    /** The loaded index, or {@code null} while unavailable. Replaced as a whole. */
+    private volatile Table table;
+
+    /**
+     * Constructs the index.
+     *
+     * @param jdbcTemplate the template whose data source the index is loaded from
+     * @param reloadRetry the scheduler retrying a failed build in the background
+     * @param enabled whether the index should be built at startup
+     * @param cachedQueries the number of queries whose ordered matches are kept
+     */
+    public EmployeeNameIndex(JdbcTemplate jdbcTemplate, ReloadRetry reloadRetry,
+                             @Value("${employees.name-index.enabled:true}") boolean enabled,
+                             @Value("${employees.name-index.cached-queries:256}") int cachedQueries) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(LOAD_FETCH_SIZE);
+        this.reloadRetry = reloadRetry;
+        this.enabled = enabled;
+        this.cachedQueries = Math.max(0, cachedQueries);
+    }
+
+    /**
+     * Builds the index once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    /**
+     * Rebuilds the index from the {@code employees} table.
+     * <p>
+     * If the index has never been built and this build fails, it is retried in the
+     * background.
+     * </p>
+     */
+    public synchronized void reload() {
+        try {
+            long start = System.nanoTime();
+            Table fresh = load();
+            table = fresh;
+            log.info("Indexed names of {} employees in {} ms",
+                    fresh.size, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Employee name index could not be built: {}", e.toString());
+            if (table == null) {
+                reloadRetry.schedule("employee name index", this::loadIfMissing);
+            }
+        }
+    }
+
+    private boolean loadIfMissing() {
+        if (table == null) {
+            reload();
+        }
+        return table != null;
+    }
+
+    /**
+     * Searches employees by first and last name.
+     *
+     * @param query one or more name prefixes separated by spaces, e.g. {@code "geo fac"}
+     * @param after the cursor returned with the previous slice; blank for the first slice
+     * @param limit the maximum number of employees per slice
+     * @return the matching employees, best matches first, with the cursor for the next slice
+     * @throws ResponseStatusException if the cursor is malformed or the index is not available
+     */
+    public EmployeePageDTO search(String query, String after, int limit) {
+        PageCursor.RankedPosition position = PageCursor.decodeRanked(after);
+        Table current = table;
+        if (current == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "{\"error\":\"Name search is not available\"}");
+        }
+
+        String[] words = Arrays.stream(query.trim().toLowerCase(Locale.ROOT).split("\\s+"))
+                .filter(w -> !w.isEmpty())
+                .limit(MAX_WORDS)
+                .toArray(String[]::new);
+        long[] matches = current.match(words);
+
+        // the first match after the cursor
+        int start = 0;
+        if (position != null) {
+            int found = Arrays.binarySearch(matches, sortKey(position.getRank(), position.getEmpNo()));
+            start = found >= 0 ? found + 1 : -found - 1;
+        }
+        int end = Math.min(matches.length, start + limit);
+        List<EmployeeRecordDTO> employees = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            employees.add(current.record((int) matches[i]));
+        }
+        String nextCursor = null;
+        if (end < matches.length) {
+            long last = matches[end - 1];
+            nextCursor = PageCursor.encode(MAX_RANK - (int) (last >>> 32), (int) last);
+        }
+        return new EmployeePageDTO(employees, nextCursor);
+    }
+
+    /** Packs rank (descending) and employee number (ascending) into one ascending sort key. */
+    private static long sortKey(int rank, int empNo) {
+        return ((long) (MAX_RANK - rank) << 32) | empNo;
+    }
+
+    private Table load() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees", Integer.class);
+        Table fresh = new Table(count == null ? 0 : count, cachedQueries);
+        jdbcTemplate.query("SELECT emp_no, first_name, last_name, hire_date FROM employees", rs -> {
+            fresh.add(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getObject(4, LocalDate.class));
+        });
+        fresh.sort();
+        return fresh;
+    }
+
+    /**
+     * The index data. Built by one thread, then only read, except for the cache of
+     * ordered matches, which is dropped together with the table on a rebuild.
+     */
+    private static final class Table {
+
+        private final IntIntHashMap rows;
+        private int size;
+        private int[] empNos;
+        private String[] firstNames;
+        private String[] lastNames;
+        private int[] hireDays;
+        /** Shares equal name strings; the table has only a few thousand distinct names. */
+        private final Map<String, String> names = new HashMap<>();
+
+        /** Lower-cased names, sorted; {@code keyRows[i]} is the row of {@code keys[i]}. */
+        private String[] keys;
+        private int[] keyRows;
+
+        /** Ordered matches per query, least recently used first. Guarded by itself. */
+        private final LinkedHashMap<String, long[]> matchCache;
+
+        Table(int expectedSize, int cachedQueries) {
+            matchCache = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest) {
+                    return size() > cachedQueries;
+                }
+            };
+            int capacity = Math.max(16, expectedSize);
+            rows = new IntIntHashMap(capacity);
+            empNos = new int[capacity];
+            firstNames = new String[capacity];
+            lastNames = new String[capacity];
+            hireDays = new int[capacity];
+        }
+
+        void add(int empNo, String firstName, String lastName, LocalDate hireDate) {
+            if (size == empNos.length) {
+                int capacity = size + (size >> 1);
+                empNos = Arrays.copyOf(empNos, capacity);
+                firstNames = Arrays.copyOf(firstNames, capacity);
+                lastNames = Arrays.copyOf(lastNames, capacity);
+                hireDays = Arrays.copyOf(hireDays, capacity);
+            }
+            rows.put(empNo, size);
+            empNos[size] = empNo;
+            firstNames[size] = names.computeIfAbsent(firstName, n -> n);
+            lastNames[size] = names.computeIfAbsent(lastName, n -> n);
+            hireDays[size] = (int) hireDate.toEpochDay();
+            size++;
+        }
+
+        void sort() {
+            Map<String, String> lowerCased = new HashMap<>();
+            Integer[] order = new Integer[size * 2];
+            String[] unsortedKeys = new String[size * 2];
+            for (int row = 0; row < size; row++) {
+                unsortedKeys[2 * row] = lowerCased.computeIfAbsent(firstNames[row], n -> n.toLowerCase(Locale.ROOT));
+                unsortedKeys[2 * row + 1] = lowerCased.computeIfAbsent(lastNames[row], n -> n.toLowerCase(Locale.ROOT));
+                order[2 * row] = 2 * row;
+                order[2 * row + 1] = 2 * row + 1;
+            }
+            Arrays.sort(order, (a, b) -> unsortedKeys[a].compareTo(unsortedKeys[b]));
+            keys = new String[order.length];
+            keyRows = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                keys[i] = unsortedKeys[order[i]];
+                keyRows[i] = order[i] / 2;
+            }
+        }
+
+        /**
+         * Returns the employees matching every word, computing them if the query is
+         * not cached.
+         *
+         * @return the sort keys of all matches, ascending; not to be modified
+         */
+        long[] match(String[] words) {
+            if (words.length == 0) {
+                return new long[0];
+            }
+            String query = String.join(" ", words);
+            synchronized (matchCache) {
+                long[] cached = matchCache.get(query);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            long[] matches = rankAll(words);
+            synchronized (matchCache) {
+                matchCache.put(query, matches);
+            }
+            return matches;
+        }
+
+        private long[] rankAll(String[] words) {
+            // the word with the fewest matching names drives the candidate set
+            int from = 0;
+            int to = keys.length;
+            for (String word : words) {
+                int lo = lowerBound(word);
+                int hi = lowerBound(word + Character.MAX_VALUE);
+                if (hi - lo < to - from) {
+                    from = lo;
+                    to = hi;
+                }
+            }
+
+            // an employee whose first and last name both match appears twice
+            int[] candidates = Arrays.copyOfRange(keyRows, from, to);
+            Arrays.sort(candidates);
+            long[] matches = new long[candidates.length];
+            int count = 0;
+            for (int i = 0; i < candidates.length; i++) {
+                int row = candidates[i];
+                if (i > 0 && candidates[i - 1] == row) {
+                    continue;
+                }
+                int rank = rank(row, words);
+                if (rank > 0) {
+                    matches[count++] = sortKey(rank, empNos[row]);
+                }
+            }
+            matches = Arrays.copyOf(matches, count);
+            Arrays.sort(matches);
+            return matches;
+        }
+
+        private int rank(int row, String[] words) {
+            String first = firstNames[row];
+            String last = lastNames[row];
+            int rank = 0;
+            for (String word : words) {
+                int score = Math.max(score(first, word), score(last, word));
+                if (score == 0) {
+                    return 0;
+                }
+                rank += score;
+            }
+            return rank;
+        }
+
+        private static int score(String name, String word) {
+            if (name.length() < word.length() || !name.regionMatches(true, 0, word, 0, word.length())) {
+                return 0;
+            }
+            return name.length() == word.length() ? EXACT : PREFIX;
+        }
+
+        private int lowerBound(String key) {
+            int lo = 0;
+            int hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        EmployeeRecordDTO record(int empNo) {
+            int row = rows.get(empNo, -1);
+            return new EmployeeRecordDTO(empNos[row], firstNames[row], lastNames[row],
+                    LocalDate.ofEpochDay(hireDays[row]));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package digicorp.employeemanagementsb.services;
+
+/**
+ * Application event published for every promotion written by {@link PromotionProcessor}.
+ * <p>
+ * The event is published inside the promotion's transaction. Listeners that maintain
+ * in-memory read models should use
+ * {@code @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)}, so a
+ * promotion that is rolled back never reaches them.
+ * </p>
+ */
+public class EmployeePromotedEvent {
+
+    private final PromotionState before;
+    private final PromotionState after;
+
+    /**
+     * Creates the event.
+     *
+     * @param before the employee's open records before the promotion
+     * @param after  the employee's open records after the promotion
+     */
+    public EmployeePromotedEvent(PromotionState before, PromotionState after) {
+        this.before = before;
+        this.after = after;
+    }
+
+    /**
+     * Returns the employee number.
+     * @return employee number as an int
+     */
+    public int getEmpNo() { return after.getEmpNo(); }
+
+    /**
+     * Returns the employee's open records before the promotion.
+     * @return the previous snapshot
+     */
+    public PromotionState getBefore() { return before; }
+
+    /**
+     * Returns the employee's open records after the promotion.
+     * @return the new snapshot
+     */
+    public PromotionState getAfter() { return after; }
+}
@@ -1,22 +1,31 @@
 package digicorp.employeemanagementsb.services;
 
+import digicorp.employeemanagementsb.dto.EmployeeCurrentDTO;
+import digicorp.employeemanagementsb.dto.EmployeePageDTO;
 import digicorp.employeemanagementsb.dto.EmployeeRecordDTO;
 import digicorp.employeemanagementsb.model.*;
 import digicorp.employeemanagementsb.repository.*;
 import digicorp.employeemanagementsb.dto.PromotionRequestDTO;
 
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service class that encapsulates business logic related to {@link Employee}
@@ -29,48 +38,210 @@ import java.util.stream.Stream;
  *
  * Responsibilities include:
  * <ul>
- *   <li>Retrieving employees by department with pagination</li>
+ *   <li>Retrieving employees by department with offset or cursor pagination</li>
+ *   <li>Retrieving the current records of an employee, or those valid on a past date</li>
  *   <li>Validating and processing employee promotions</li>
  *   <li>Maintaining historical consistency for salary, title, department,
  *       and manager records</li>
  * </ul>
+ *
+ * <p>
+ * Every public method is timed as {@code employees.service}, tagged with the
+ * method name, with a percentile histogram.
+ * </p>
+ *
+ * <p>
+ * The read methods run in read-only transactions: Hibernate neither snapshots
+ * nor dirty-checks the loaded entities and never flushes, and with a replica
+ * configured they are served by it (see
+ * {@link digicorp.employeemanagementsb.DataSourceRoutingConfig}). Promotions open
+ * their own read-write transaction.
+ * </p>
  */
 @Service
-@Transactional
+@Transactional(readOnly = true)
+@Timed(value = "employees.service", histogram = true)
 public class EmployeeService {
 
+    /** Number of employees returned per page or cursor slice. */
+    public static final int PAGE_SIZE = 20;
+
     private final EmployeeRepo employeeRepo;
-    private final DepartmentRepo departmentRepo;
-    private final SalaryHistoryRepo salaryHistoryRepo;
-    private final TitleHistoryRepo titleHistoryRepo;
-    private final DepartmentHistoryRepo departmentHistoryRepo;
-    private final ManagerHistoryRepo managerHistoryRepo;
+    private final DepartmentCache departmentCache;
+    private final PromotionProcessor promotionProcessor;
+    private final PromotionLocks promotionLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final CurrentStateIndex currentStateIndex;
+    private final EmployeeTimelineCache employeeTimelineCache;
+    private final PrimaryReads primaryReads;
 
     /**
-     * Constructs an {@code EmployeeService} with all required repository dependencies.
+     * Constructs an {@code EmployeeService} with all required dependencies.
      * <p>
      * This constructor uses Spring's dependency injection mechanism to automatically
-     * inject the repository beans needed for managing employees and their related
-     * historical records such as departments, salaries, titles, and managers.
+     * inject the repository beans needed for managing employees, and the
+     * {@link PromotionProcessor} that maintains their historical records such as
+     * departments, salaries, titles, and managers.
      * </p>
      *
      * @param employeeRepo the repository used for performing CRUD operations on employee entities
-     * @param departmentRepo the repository used for accessing department entities
-     * @param salaryHistoryRepo the repository used for managing employee salary history records
-     * @param titleHistoryRepo the repository used for managing employee title history records
-     * @param departmentHistoryRepo the repository used for managing employee department history records
-     * @param managerHistoryRepo the repository used for managing employee manager history records
+     * @param departmentCache the cached department list used to look up promotion targets
+     * @param promotionProcessor the component applying promotion rules to history records
+     * @param promotionLocks the per-employee locks serializing promotions of the same employee
+     * @param transactionManager the transaction manager used to commit each promotion
+     * @param currentStateIndex the in-memory index of current employee state, used for version fingerprints
+     * @param employeeTimelineCache the cache of per-employee interval indexes used for as-of lookups
+     * @param primaryReads runs the reads that fill the second-level cache against the primary
      */
     @Autowired
-    public EmployeeService(EmployeeRepo employeeRepo, DepartmentRepo departmentRepo,
-                           SalaryHistoryRepo salaryHistoryRepo, TitleHistoryRepo titleHistoryRepo,
-                           DepartmentHistoryRepo departmentHistoryRepo, ManagerHistoryRepo managerHistoryRepo) {
+    public EmployeeService(EmployeeRepo employeeRepo, DepartmentCache departmentCache,
+                           PromotionProcessor promotionProcessor, PromotionLocks promotionLocks,
+                           PlatformTransactionManager transactionManager, CurrentStateIndex currentStateIndex,
+                           EmployeeTimelineCache employeeTimelineCache, PrimaryReads primaryReads) {
         this.employeeRepo = employeeRepo;
-        this.departmentRepo = departmentRepo;
-        this.departmentHistoryRepo = departmentHistoryRepo;
-        this.salaryHistoryRepo = salaryHistoryRepo;
-        this.titleHistoryRepo = titleHistoryRepo;
-        this.managerHistoryRepo = managerHistoryRepo;
+        this.departmentCache = departmentCache;
+        this.promotionProcessor = promotionProcessor;
+        this.promotionLocks = promotionLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.currentStateIndex = currentStateIndex;
+        this.employeeTimelineCache = employeeTimelineCache;
+        this.primaryReads = primaryReads;
+    }
+
+    /**
+     * Retrieves an employee using the requested fetch plans.
+     * <p>
+     * The employee is looked up by primary key and each requested collection is
+     * then initialized, so all of them come from the second-level cache when they
+     * are there. A collection that is not cached costs one query; the departments
+     * of the department and manager history are cached as well. Since what is
+     * loaded is cached, it is read through {@link PrimaryReads}, from the primary
+     * even when a replica is configured.
+     * </p>
+     *
+     * @param empNo the employee number
+     * @param plans the collections to load; may be empty
+     * @return the {@link Employee}
+     * @throws ResponseStatusException if the employee is not found
+     */
+    public Employee getEmployee(int empNo, Set<EmployeeFetchPlan> plans) {
+        return primaryReads.call(() -> loadEmployee(empNo, plans));
+    }
+
+    private Employee loadEmployee(int empNo, Set<EmployeeFetchPlan> plans) {
+        Employee employee = employeeRepo.findById(empNo).orElseThrow(() -> new ResponseStatusException(
+                HttpStatus.NOT_FOUND, "Employee not found"));
+        for (EmployeeFetchPlan plan : plans) {
+            switch (plan) {
+                case TITLES -> Hibernate.initialize(employee.getTitleHistory());
+                case SALARIES -> Hibernate.initialize(employee.getSalaryHistory());
+                case DEPARTMENTS -> employee.getDepartments().forEach(d -> Hibernate.initialize(d.getDepartment()));
+                case MANAGERS -> Hibernate.initialize(employee.getManagedDepartments());
+            }
+        }
+        return employee;
+    }
+
+    /**
+     * Computes the entity tag of an employee representation.
+     * <p>
+     * Every promotion opens a salary with a later start date, so the open records of
+     * an employee identify the version of their whole history. The fingerprint is a
+     * hash of those records and the requested fetch plans. It is read from the
+     * {@link CurrentStateIndex} without any query, or, while the index is not
+     * loaded, with the single current-state query; both give the same value.
+     * </p>
+     *
+     * @param empNo the employee number
+     * @param plans the collections included in the representation
+     * @return the quoted strong ETag, or {@code null} if the employee does not exist
+     */
+    public String getEmployeeEtag(int empNo, Set<EmployeeFetchPlan> plans) {
+        Map<Integer, PromotionState> indexed = currentStateIndex.lookup(List.of(empNo));
+        if (indexed != null) {
+            PromotionState state = indexed.get(empNo);
+            if (state == null) {
+                return null;
+            }
+            return fingerprint(empNo, plans,
+                    state.getSalaryFromDate() == null ? null : state.getSalary(), state.getSalaryFromDate(),
+                    state.getTitle(), state.getTitleFromDate(),
+                    state.getDeptNo(), state.getDeptFromDate(),
+                    state.getManagerDeptNo(), state.getManagerFromDate());
+        }
+        EmployeeCurrentDTO current = employeeRepo.findCurrentByEmpNoIn(List.of(empNo), PromotionState.OPEN).get(empNo);
+        if (current == null) {
+            return null;
+        }
+        return fingerprint(empNo, plans,
+                current.getSalary(), current.getSalaryFromDate(),
+                current.getTitle(), current.getTitleFromDate(),
+                current.getDeptNo(), current.getDeptFromDate(),
+                current.getManagerDeptNo(), current.getManagerFromDate());
+    }
+
+    private static String fingerprint(int empNo, Set<EmployeeFetchPlan> plans, Object... openRecords) {
+        String canonical = empNo + "|" + plans + "|" + Arrays.toString(openRecords);
+        // 64-bit FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < canonical.length(); i++) {
+            hash ^= canonical.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return "\"" + empNo + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Retrieves the current title, salary, department and manager records of an employee.
+     * <p>
+     * Unlike {@link #getEmployee}, no history is loaded: the open records of all four
+     * history tables are read with a single joined query.
+     * </p>
+     *
+     * @param empNo the employee number
+     * @return the employee's {@link EmployeeCurrentDTO}
+     * @throws ResponseStatusException if the employee is not found
+     */
+    public EmployeeCurrentDTO getCurrentState(int empNo) {
+        EmployeeCurrentDTO current = employeeRepo.findCurrentByEmpNoIn(List.of(empNo), PromotionState.OPEN).get(empNo);
+        if (current == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Employee not found");
+        }
+        return current;
+    }
+
+    /**
+     * Retrieves the title, salary, department and manager records of an employee
+     * that were valid on a given date.
+     * <p>
+     * The lookup runs against the employee's {@link EmployeeTimeline}, a binary search
+     * per history type instead of a scan of the full history lists.
+     * </p>
+     *
+     * @param empNo the employee number
+     * @param asOf  the date to look at
+     * @return the employee's {@link EmployeeCurrentDTO} as of that date; fields of
+     *         records that did not exist then are {@code null}
+     * @throws ResponseStatusException if the employee is not found
+     */
+    public EmployeeCurrentDTO getStateAsOf(int empNo, LocalDate asOf) {
+        EmployeeTimeline timeline = employeeTimelineCache.get(empNo);
+        if (timeline == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Employee not found");
+        }
+        EmployeeTimeline.Entry<String> title = timeline.titleAt(asOf);
+        EmployeeTimeline.Entry<Integer> salary = timeline.salaryAt(asOf);
+        EmployeeTimeline.Entry<String> dept = timeline.departmentAt(asOf);
+        EmployeeTimeline.Entry<String> manager = timeline.managerAt(asOf);
+        Department deptEntity = dept == null ? null : departmentCache.find(dept.getValue());
+        return new EmployeeCurrentDTO(
+                empNo, timeline.getFirstName(), timeline.getLastName(),
+                title == null ? null : title.getValue(), title == null ? null : title.getFromDate(),
+                salary == null ? null : salary.getValue(), salary == null ? null : salary.getFromDate(),
+                dept == null ? null : dept.getValue(),
+                deptEntity == null ? null : deptEntity.getDeptName(),
+                dept == null ? null : dept.getFromDate(),
+                manager == null ? null : manager.getValue(), manager == null ? null : manager.getFromDate());
     }
 
     /**
@@ -78,13 +249,46 @@ public class EmployeeService {
      *
      * @param deptNo the department number (e.g. {@code d001})
      * @param page   the page number (1-based index)
+     * @param status which members of the department to list
      * @return a list of {@link EmployeeRecordDTO} representing employees
      *         in the given department
      */
-    public List<EmployeeRecordDTO> findByDepartment(String deptNo, int page) {
-        int pageSize = 20;
-        PageRequest pageable = PageRequest.of(page - 1, pageSize); // page is 0-indexed
-        return employeeRepo.findByDepartment(deptNo, pageable);
+    public List<EmployeeRecordDTO> findByDepartment(String deptNo, int page, RosterStatus status) {
+        PageRequest pageable = PageRequest.of(page - 1, PAGE_SIZE); // page is 0-indexed
+        return switch (status) {
+            case CURRENT -> employeeRepo.findCurrentByDepartment(deptNo, PromotionState.OPEN, pageable);
+            case FORMER -> employeeRepo.findFormerByDepartment(deptNo, PromotionState.OPEN, pageable);
+            case ALL -> employeeRepo.findByDepartment(deptNo, pageable);
+        };
+    }
+
+    /**
+     * Retrieves one cursor-paginated slice of employees belonging to a department.
+     * <p>
+     * One extra row is requested to find out whether another slice follows,
+     * so no separate count query is needed to decide on {@code nextCursor}.
+     * </p>
+     *
+     * @param deptNo the department number (e.g. {@code d001})
+     * @param after  the opaque cursor returned by the previous slice; blank for the first slice
+     * @param status which members of the department to list
+     * @return an {@link EmployeePageDTO} holding the slice and the cursor for the next one
+     * @throws ResponseStatusException if the cursor is malformed
+     */
+    public EmployeePageDTO findByDepartmentAfter(String deptNo, String after, RosterStatus status) {
+        int afterEmpNo = PageCursor.decode(after);
+        Limit limit = Limit.of(PAGE_SIZE + 1);
+        List<EmployeeRecordDTO> rows = switch (status) {
+            case CURRENT -> employeeRepo.findCurrentByDepartmentAfter(deptNo, PromotionState.OPEN, afterEmpNo, limit);
+            case FORMER -> employeeRepo.findFormerByDepartmentAfter(deptNo, PromotionState.OPEN, afterEmpNo, limit);
+            case ALL -> employeeRepo.findByDepartmentAfter(deptNo, afterEmpNo, limit);
+        };
+
+        if (rows.size() <= PAGE_SIZE) {
+            return new EmployeePageDTO(rows, null);
+        }
+        List<EmployeeRecordDTO> slice = rows.subList(0, PAGE_SIZE);
+        return new EmployeePageDTO(slice, PageCursor.encode(slice.get(PAGE_SIZE - 1).getEmpNo()));
     }
 
     /**
@@ -99,6 +303,13 @@ public class EmployeeService {
      *   <li>Creation of new salary, title, department, and manager entries</li>
      * </ol>
      *
+     * <p>
+     * Promotions of the same employee run one at a time: the employee's
+     * {@link PromotionLocks} stripe is held around the promotion's own transaction,
+     * so a second promotion only reads the open records once the first has been
+     * committed. Promotions of other employees are not held up.
+     * </p>
+     *
      * Json example:
      * {
      *     "empNo": 10012,
@@ -110,270 +321,48 @@ public class EmployeeService {
      * }
      *
      * @param dto the promotion request data transfer object
-     * @return the promoted {@link Employee}
+     * @return the employee's {@link PromotionState} after the promotion
      * @throws ResponseStatusException if validation or business rules fail
      */
-    public Employee promoteEmployee(PromotionRequestDTO dto) {
-
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PromotionState promoteEmployee(PromotionRequestDTO dto) {
 
         // ===============================================================
         // REQUEST BODY VALIDATION
         // ===============================================================
+        promotionProcessor.validateRequest(dto);
+
+        return promotionLocks.withLock(dto.getEmpNo(), () -> {
+            try {
+                return transactionTemplate.execute(status -> applyPromotion(dto));
+            } catch (ResponseStatusException e) {
+                if (e.getStatusCode() == HttpStatus.CONFLICT) {
+                    // the index missed a write from outside the application; the retry starts from the database
+                    currentStateIndex.refresh(List.of(dto.getEmpNo()));
+                }
+                throw e;
+            }
+        });
+    }
 
-        if (dto == null) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "{\"error\":\"Request body is missing or invalid JSON\"}"
-            );
-        }
-
-        // empNo
-        if (dto.getEmpNo() <= 0) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "{\"error\":\"empNo must be a positive integer\"}"
-            );
-        }
-
-        // Title
-        if (dto.getNewTitle() == null || dto.getNewTitle().trim().isEmpty()) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "{\"error\":\"Title cannot be blank\"}"
-            );
-        }
-
-        // fromDate
-        if (dto.getFromDate() == null) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "{\"error\":\"fromDate is required (yyyy-MM-dd)\"}"
-            );
-        }
-
-        LocalDate newFromDate = dto.getFromDate();
-
-        // Salary
-        if (dto.getNewSalary() <= 0) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "{\"error\":\"salary must be greater than 0\"}"
-            );
-        }
-
-        // Department
-        if (dto.getDeptNo() == null ||
-                !dto.getDeptNo().trim().matches("^[dD][0-9]{3}$")) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "{\"error\":\"deptNo must match pattern dXXX (e.g., d001, D005)\"}"
-            );
-        }
-
+    private PromotionState applyPromotion(PromotionRequestDTO dto) {
         String deptNoNormalized = dto.getDeptNo().trim().toLowerCase();
         int empNo = dto.getEmpNo();
 
-
-
         //make sure employee can be found
-        Employee emp = employeeRepo.findByEmpNo(empNo)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Employee not found"));
-
-
-        // ===============================================================
-        // BUSINESS DATE VALIDATION
-        // Includes:
-        // 1. Do NOT promote employees who already left the company
-        // 2. fromDate must not overlap existing salary/title/department dates
-        // ===============================================================
-
-        // --- 1. Check if employee is still active (has ANY record with toDate = 9999-01-01) ---
-
-        boolean activeSalary = salaryHistoryRepo
-                .findLatestSalary(empNo, LocalDate.of(9999, 1, 1))
-                .stream()
-                .findFirst()
-                .isPresent();
-
-        boolean activeTitle = titleHistoryRepo
-                .findLatestTitle(empNo, LocalDate.of(9999, 1, 1))
-                .stream()
-                .findFirst()
-                .isPresent();
-
-        boolean activeDept = departmentHistoryRepo
-                .findLatestDepartments(empNo, LocalDate.of(9999, 1, 1))
-                .stream()
-                .findFirst()
-                .isPresent();
-
-        // Employee has left ONLY IF at least one of the 3 are inactive
-        if (!activeSalary || !activeTitle || !activeDept) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Cannot promote employee. Employee has already left the company."
-            );
+        PromotionState state = promotionProcessor.loadState(empNo);
+        if (state == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Employee not found");
         }
 
-        // Latest salary
-        LocalDate latestSalaryDate =
-                salaryHistoryRepo.findLatestSalary(empNo, LocalDate.of(9999, 1, 1))
-                        .stream()
-                        .findFirst()
-                        .map(s -> s.getId().getFromDate())
-                        .orElse(LocalDate.MIN);
-
-        // Latest title
-        LocalDate latestTitleDate =
-                titleHistoryRepo.findLatestTitle(empNo, LocalDate.of(9999, 1, 1))
-                        .stream()
-                        .findFirst()
-                        .map(t -> t.getId().getFromDate())
-                        .orElse(LocalDate.MIN);
-
-        // Latest department
-        LocalDate latestDeptDate =
-                departmentHistoryRepo.findLatestDepartments(empNo, LocalDate.of(9999, 1, 1))
-                        .stream()
-                        .findFirst()
-                        .map(d -> d.getFromDate())
-                        .orElse(LocalDate.MIN);
-
-        // Find the LATEST of all three
-        LocalDate latestAnyDate = Stream.of(latestSalaryDate, latestTitleDate, latestDeptDate)
-                .max(LocalDate::compareTo)
-                .orElse(LocalDate.MIN);
-
-        // Enforce date must be strictly after all latest dates
-        if (!newFromDate.isAfter(latestAnyDate)) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "fromDate must be AFTER latest existing date: " + latestAnyDate
-            );
-        }
-
-
-
-
-
-        //===============================================================
-        // PROMOTION LOGIC (1.SALARY, 2.TITLE, 3.DEPARTMENT, 4. MANAGER)
         // ===============================================================
+        // BUSINESS VALIDATION AND HISTORY UPDATES
+        // ===============================================================
+        Department dept = departmentCache.find(deptNoNormalized);
+        PromotionWriteBatch writes = new PromotionWriteBatch();
+        PromotionState promoted = promotionProcessor.apply(dto, state, dept, writes);
+        promotionProcessor.write(writes);
 
-        // --- 4a. SALARY ---
-        SalaryHistory newSalary = new SalaryHistory();
-        SalaryHistoryId salaryId = new SalaryHistoryId(emp.getEmpNo(), newFromDate);
-        newSalary.setId(salaryId);
-        newSalary.setEmployee(emp);
-        newSalary.setSalary(dto.getNewSalary());
-        newSalary.setToDate(LocalDate.of(9999, 1, 1));
-
-        // Close previous salary
-        salaryHistoryRepo.findLatestSalary(empNo, LocalDate.of(9999, 1, 1))
-                .stream()
-                .findFirst() // pick the first one (latest, because query is ordered DESC)
-                .ifPresent(lastSalary -> {
-                    lastSalary.setToDate(newFromDate.minusDays(1));
-                    salaryHistoryRepo.save(lastSalary);
-                });
-
-        salaryHistoryRepo.save(newSalary);
-
-
-        // --- 4b. TITLE ---
-        TitleHistoryId titleId = new TitleHistoryId(emp.getEmpNo(), dto.getNewTitle(), newFromDate);
-        TitleHistory newTitle = new TitleHistory();
-        newTitle.setId(titleId);
-        newTitle.setEmployee(emp);
-        newTitle.setToDate(LocalDate.of(9999, 1, 1));
-
-        // Close previous title
-        titleHistoryRepo.findLatestTitle(empNo, LocalDate.of(9999, 1, 1))
-                .stream()
-                .findFirst()
-                .ifPresent(lastTitle -> {
-                    lastTitle.setToDate(newFromDate.minusDays(1));
-                    titleHistoryRepo.save(lastTitle);
-                });
-
-        titleHistoryRepo.save(newTitle);
-
-        // --- 4c. DEPARTMENT ---
-        // Fetch the Department entity from DB
-        Department dept = departmentRepo.findById(deptNoNormalized)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.BAD_REQUEST,
-                        "Department not found: " + deptNoNormalized));
-
-
-        DeptEmployeeId deptId = new DeptEmployeeId(empNo, deptNoNormalized);
-        DeptEmployee newDept = new DeptEmployee();
-        newDept.setId(deptId);
-        newDept.setEmployee(emp);
-        newDept.setDepartment(dept);
-        newDept.setFromDate(newFromDate);
-        newDept.setToDate(LocalDate.of(9999, 1, 1));
-
-        // Close previous department assignment only if department has changed
-        departmentHistoryRepo.findLatestDepartments(empNo, LocalDate.of(9999, 1, 1))
-                .stream()
-                .findFirst() // pick the latest one
-                .ifPresent(lastDept -> {
-                    String oldDeptNo = lastDept.getId().getDeptNo(); // get previous department
-                    boolean departmentChanged = !deptNoNormalized.equalsIgnoreCase(oldDeptNo);
-
-                    if (departmentChanged) {
-                        lastDept.setToDate(newFromDate.minusDays(1));
-                        departmentHistoryRepo.save(lastDept);
-                    }
-                });
-
-        departmentHistoryRepo.save(newDept);
-
-        // --- 4d. MANAGER (optional) ---
-
-
-        // Fetch latest manager record if exists
-        Optional<DeptManager> latestMgrOpt =
-                managerHistoryRepo.findLatestManager(empNo, LocalDate.of(9999, 1, 1))
-                        .stream()
-                        .findFirst();
-
-        boolean departmentChanged = false;
-
-        if (latestMgrOpt.isPresent()) {
-            DeptManager lastMgr = latestMgrOpt.get();
-            String oldMgrDeptNo = lastMgr.getId().getDeptNo();
-
-            // Close only if department changed
-            departmentChanged = !deptNoNormalized.equalsIgnoreCase(oldMgrDeptNo);
-
-            if (departmentChanged) {
-                lastMgr.setToDate(newFromDate.minusDays(1));
-                managerHistoryRepo.save(lastMgr);
-            }
-        } else {
-            // No previous manager -> nothing to close
-            departmentChanged = false;
-        }
-
-        if (dto.isManager()) {
-            // Now create the new manager record if needed
-            // (Even if dept didn't change, we create a new record because it's a promotion event)
-
-            DeptManagerId managerId = new DeptManagerId(empNo, deptNoNormalized);
-
-            DeptManager newMgr = new DeptManager();
-            newMgr.setId(managerId);
-            newMgr.setEmployee(emp);
-            newMgr.setDepartment(dept);   // REQUIRED - fixes null association problem
-            newMgr.setFromDate(newFromDate);
-            newMgr.setToDate(LocalDate.of(9999, 1, 1));
-
-            managerHistoryRepo.save(newMgr);
-        }
-
-        return emp;
-
+        return promoted;
     }
-}
\ No newline at end of file
+}
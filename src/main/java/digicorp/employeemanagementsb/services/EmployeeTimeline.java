@@ -0,0 +1,176 @@
+package digicorp.employeemanagementsb.services;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable interval index over the complete history of one employee.
+ * <p>
+ * Each history type is stored as parallel arrays sorted by start date, with dates
+ * as epoch days. The record valid on a given day is found by a binary search for
+ * the last record starting on or before that day, followed by a check of its end
+ * date, so a point-in-time lookup costs O(log n) per history type.
+ * </p>
+ *
+ * <p>
+ * The search relies on the records of one type not overlapping, which the
+ * promotion rules guarantee: a new record always starts after the previous one
+ * has been closed.
+ * </p>
+ */
+public class EmployeeTimeline {
+
+    private final int empNo;
+    private final String firstName;
+    private final String lastName;
+    private final Intervals<Integer> salaries;
+    private final Intervals<String> titles;
+    private final Intervals<String> departments;
+    private final Intervals<String> managers;
+
+    /**
+     * Creates a timeline.
+     *
+     * @param empNo       the employee number
+     * @param firstName   the employee's first name
+     * @param lastName    the employee's last name
+     * @param salaries    the salary records
+     * @param titles      the title records
+     * @param departments the department assignments, valued with the department number
+     * @param managers    the manager assignments, valued with the department number
+     */
+    public EmployeeTimeline(int empNo, String firstName, String lastName,
+                            List<Entry<Integer>> salaries, List<Entry<String>> titles,
+                            List<Entry<String>> departments, List<Entry<String>> managers) {
+        this.empNo = empNo;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.salaries = new Intervals<>(salaries);
+        this.titles = new Intervals<>(titles);
+        this.departments = new Intervals<>(departments);
+        this.managers = new Intervals<>(managers);
+    }
+
+    /**
+     * Returns the employee number.
+     * @return employee number as an int
+     */
+    public int getEmpNo() { return empNo; }
+    /**
+     * Returns the employee's first name.
+     * @return the first name
+     */
+    public String getFirstName() { return firstName; }
+    /**
+     * Returns the employee's last name.
+     * @return the last name
+     */
+    public String getLastName() { return lastName; }
+
+    /**
+     * Returns the salary record valid on a day.
+     * @param date the day
+     * @return the record, or {@code null} if there is none
+     */
+    public Entry<Integer> salaryAt(LocalDate date) { return salaries.at(date); }
+
+    /**
+     * Returns the title record valid on a day.
+     * @param date the day
+     * @return the record, or {@code null} if there is none
+     */
+    public Entry<String> titleAt(LocalDate date) { return titles.at(date); }
+
+    /**
+     * Returns the department assignment valid on a day.
+     * @param date the day
+     * @return the record, or {@code null} if there is none
+     */
+    public Entry<String> departmentAt(LocalDate date) { return departments.at(date); }
+
+    /**
+     * Returns the manager assignment valid on a day.
+     * @param date the day
+     * @return the record, or {@code null} if the employee managed no department then
+     */
+    public Entry<String> managerAt(LocalDate date) { return managers.at(date); }
+
+    /**
+     * One history record: a value valid from one date to another, both inclusive.
+     *
+     * @param <V> the type of the value
+     */
+    public static final class Entry<V> {
+
+        private final V value;
+        private final LocalDate fromDate;
+        private final LocalDate toDate;
+
+        /**
+         * Creates a record.
+         *
+         * @param value    the value, e.g. the salary amount or title
+         * @param fromDate the first day the value is valid
+         * @param toDate   the last day the value is valid
+         */
+        public Entry(V value, LocalDate fromDate, LocalDate toDate) {
+            this.value = value;
+            this.fromDate = fromDate;
+            this.toDate = toDate;
+        }
+
+        /**
+         * Returns the value.
+         * @return the value
+         */
+        public V getValue() { return value; }
+        /**
+         * Returns the first day the value is valid.
+         * @return the start date
+         */
+        public LocalDate getFromDate() { return fromDate; }
+        /**
+         * Returns the last day the value is valid.
+         * @return the end date
+         */
+        public LocalDate getToDate() { return toDate; }
+    }
+
+    /**
+     * Records of one history type, sorted by start date.
+     */
+    private static final class Intervals<V> {
+
+        private final int[] from;
+        private final int[] to;
+        private final Entry<V>[] entries;
+
+        @SuppressWarnings("unchecked")
+        Intervals(List<Entry<V>> records) {
+            entries = records.toArray(new Entry[0]);
+            Arrays.sort(entries, (a, b) -> a.getFromDate().compareTo(b.getFromDate()));
+            from = new int[entries.length];
+            to = new int[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                from[i] = (int) entries[i].getFromDate().toEpochDay();
+                to[i] = (int) entries[i].getToDate().toEpochDay();
+            }
+        }
+
+        Entry<V> at(LocalDate date) {
+            int day = (int) date.toEpochDay();
+            int i = Arrays.binarySearch(from, day);
+            if (i < 0) {
+                // insertion point - 1 is the last record starting before the day
+                i = -i - 2;
+            } else {
+                // several records may start on the same day; take the last one
+                while (i + 1 < from.length && from[i + 1] == day) {
+                    i++;
+                }
+            }
+            return i >= 0 && to[i] >= day ? entries[i] : null;
+        }
+    }
+}
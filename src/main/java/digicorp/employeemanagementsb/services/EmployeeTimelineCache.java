@@ -0,0 +1,133 @@
+package digicorp.employeemanagementsb.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded cache of {@link EmployeeTimeline}s for point-in-time lookups.
+ * <p>
+ * A timeline is built from one query that returns all four history tables of the
+ * employee as a {@code UNION ALL}, plus the employee row. Recently used timelines
+ * are kept up to {@code employees.timeline-cache.size} entries, so repeated as-of
+ * lookups for the same employee need no query at all. A committed promotion evicts
+ * the employee's timeline, and a timeline whose load overlapped a promotion is
+ * returned but not cached. Timelines are read from the primary database, even
+ * when a replica is configured, so a lagging replica cannot leave one outdated.
+ * </p>
+ */
+@Component
+public class EmployeeTimelineCache {
+
+    private static final String HISTORY_SQL = """
+            SELECT 'S' AS kind, salary AS amount, NULL AS label, from_date, to_date FROM salaries WHERE emp_no = ?
+            UNION ALL
+            SELECT 'T', NULL, title, from_date, to_date FROM titles WHERE emp_no = ?
+            UNION ALL
+            SELECT 'D', NULL, dept_no, from_date, to_date FROM dept_emp WHERE emp_no = ?
+            UNION ALL
+            SELECT 'M', NULL, dept_no, from_date, to_date FROM dept_manager WHERE emp_no = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PrimaryReads primaryReads;
+    private final int maxSize;
+
+    /** Least recently used timelines first. Guarded by {@code this}. */
+    private final LinkedHashMap<Integer, EmployeeTimeline> timelines;
+    /** Incremented by every eviction, so a load racing with one is not cached. Guarded by {@code this}. */
+    private long generation;
+
+    /**
+     * Constructs the cache.
+     *
+     * @param jdbcTemplate the template used to read employee histories
+     * @param primaryReads runs the history reads against the primary
+     * @param maxSize the maximum number of cached timelines
+     */
+    public EmployeeTimelineCache(JdbcTemplate jdbcTemplate, PrimaryReads primaryReads,
+                                 @Value("${employees.timeline-cache.size:10000}") int maxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.primaryReads = primaryReads;
+        this.maxSize = Math.max(0, maxSize);
+        this.timelines = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, EmployeeTimeline> eldest) {
+                return size() > EmployeeTimelineCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the timeline of an employee, loading it if it is not cached.
+     *
+     * @param empNo the employee number
+     * @return the {@link EmployeeTimeline}, or {@code null} if the employee does not exist
+     */
+    public EmployeeTimeline get(int empNo) {
+        long loadedGeneration;
+        synchronized (this) {
+            EmployeeTimeline cached = timelines.get(empNo);
+            if (cached != null) {
+                return cached;
+            }
+            loadedGeneration = generation;
+        }
+        EmployeeTimeline loaded = primaryReads.call(() -> load(empNo));
+        if (loaded != null) {
+            synchronized (this) {
+                if (loadedGeneration == generation) {
+                    timelines.put(empNo, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Evicts the timeline of a promoted employee once the promotion has committed.
+     *
+     * @param event the promotion event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public synchronized void onEmployeePromoted(EmployeePromotedEvent event) {
+        generation++;
+        timelines.remove(event.getEmpNo());
+    }
+
+    private EmployeeTimeline load(int empNo) {
+        List<String[]> names = jdbcTemplate.query(
+                "SELECT first_name, last_name FROM employees WHERE emp_no = ?",
+                (rs, row) -> new String[]{rs.getString(1), rs.getString(2)},
+                empNo);
+        if (names.isEmpty()) {
+            return null;
+        }
+
+        List<EmployeeTimeline.Entry<Integer>> salaries = new ArrayList<>();
+        List<EmployeeTimeline.Entry<String>> titles = new ArrayList<>();
+        List<EmployeeTimeline.Entry<String>> departments = new ArrayList<>();
+        List<EmployeeTimeline.Entry<String>> managers = new ArrayList<>();
+        jdbcTemplate.query(HISTORY_SQL, rs -> {
+            LocalDate from = rs.getObject("from_date", LocalDate.class);
+            LocalDate to = rs.getObject("to_date", LocalDate.class);
+            switch (rs.getString("kind")) {
+                case "S" -> salaries.add(new EmployeeTimeline.Entry<>(rs.getInt("amount"), from, to));
+                case "T" -> titles.add(new EmployeeTimeline.Entry<>(rs.getString("label"), from, to));
+                case "D" -> departments.add(new EmployeeTimeline.Entry<>(rs.getString("label"), from, to));
+                default -> managers.add(new EmployeeTimeline.Entry<>(rs.getString("label"), from, to));
+            }
+        }, empNo, empNo, empNo, empNo);
+
+        return new EmployeeTimeline(empNo, names.get(0)[0], names.get(0)[1],
+                salaries, titles, departments, managers);
+    }
+}
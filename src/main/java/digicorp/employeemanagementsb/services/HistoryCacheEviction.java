@@ -0,0 +1,145 @@
+package digicorp.employeemanagementsb.services;
+
+import digicorp.employeemanagementsb.model.DeptEmployee;
+import digicorp.employeemanagementsb.model.DeptEmployeeId;
+import digicorp.employeemanagementsb.model.DeptManager;
+import digicorp.employeemanagementsb.model.DeptManagerId;
+import digicorp.employeemanagementsb.model.Employee;
+import digicorp.employeemanagementsb.model.SalaryHistory;
+import digicorp.employeemanagementsb.model.SalaryHistoryId;
+import digicorp.employeemanagementsb.model.TitleHistory;
+import digicorp.employeemanagementsb.model.TitleHistoryId;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.access.CachedDomainDataAccess;
+import org.hibernate.cache.spi.access.CollectionDataAccess;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.metamodel.MappingMetamodel;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps the history a promotion changes out of the Hibernate second-level cache
+ * until the promotion's transaction has completed.
+ * <p>
+ * Promotions write the history tables with plain JDBC (see
+ * {@link PromotionWriteBatch}), which Hibernate does not see. When a promotion is
+ * applied, before anything is written, the rows it closes or reopens and the
+ * employee's four history collections are soft-locked in their
+ * {@code READ_WRITE} regions; the locks are released once the transaction has
+ * committed or rolled back. A locked entry is a cache miss, and a read whose
+ * session started before the release cannot put what it loaded into the cache, so
+ * rows read before the commit never reappear after it. Inserted rows were never
+ * cached, and the employee row and the departments are not changed.
+ * </p>
+ */
+@Component
+public class HistoryCacheEviction {
+
+    private static final String[] HISTORY_COLLECTIONS = {
+            Employee.class.getName() + ".titleHistory",
+            Employee.class.getName() + ".salaryHistory",
+            Employee.class.getName() + ".departments",
+            Employee.class.getName() + ".managedDepartments"};
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final EntityManager entityManager;
+    private final List<CollectionPersister> collections = new ArrayList<>();
+    private final EntityPersister salaries;
+    private final EntityPersister titles;
+    private final EntityPersister departments;
+    private final EntityPersister managers;
+
+    /**
+     * Constructs the listener.
+     *
+     * @param entityManagerFactory the factory whose second-level cache is locked
+     * @param entityManager the shared entity manager, bound to the promotion's transaction
+     */
+    public HistoryCacheEviction(EntityManagerFactory entityManagerFactory, EntityManager entityManager) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.entityManager = entityManager;
+        MappingMetamodel metamodel = sessionFactory.getMappingMetamodel();
+        for (String role : HISTORY_COLLECTIONS) {
+            collections.add(metamodel.getCollectionDescriptor(role));
+        }
+        this.salaries = metamodel.getEntityDescriptor(SalaryHistory.class);
+        this.titles = metamodel.getEntityDescriptor(TitleHistory.class);
+        this.departments = metamodel.getEntityDescriptor(DeptEmployee.class);
+        this.managers = metamodel.getEntityDescriptor(DeptManager.class);
+    }
+
+    /**
+     * Locks the entries of a promotion that is about to be written.
+     * <p>
+     * Runs inside the promotion's transaction, when the promotion is applied and
+     * before its writes are executed. Without a transaction the entries are
+     * evicted instead.
+     * </p>
+     *
+     * @param event the promotion event
+     */
+    @EventListener
+    public void onEmployeePromoted(EmployeePromotedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            forEachEntry(event, CachedDomainDataAccess::evict);
+            return;
+        }
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        List<Runnable> unlocks = new ArrayList<>();
+        forEachEntry(event, (access, key) -> {
+            SoftLock lock = access.lockItem(session, key, null);
+            unlocks.add(() -> access.unlockItem(session, key, lock));
+        });
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                unlocks.forEach(Runnable::run);
+            }
+        });
+    }
+
+    /**
+     * Passes the cache key of every entry a promotion changes to an action.
+     */
+    private void forEachEntry(EmployeePromotedEvent event, BiConsumer<CachedDomainDataAccess, Object> action) {
+        int empNo = event.getEmpNo();
+        PromotionState before = event.getBefore();
+        PromotionState after = event.getAfter();
+
+        for (CollectionPersister collection : collections) {
+            CollectionDataAccess access = collection.getCacheAccessStrategy();
+            action.accept(access, access.generateCacheKey(empNo, collection, sessionFactory, null));
+        }
+        row(salaries, new SalaryHistoryId(empNo, before.getSalaryFromDate()), action);
+        row(titles, new TitleHistoryId(empNo, before.getTitle(), before.getTitleFromDate()), action);
+        // the previous assignment is closed and a former one may be reopened
+        for (String deptNo : new String[]{before.getDeptNo(), after.getDeptNo()}) {
+            if (deptNo != null) {
+                row(departments, new DeptEmployeeId(empNo, deptNo), action);
+            }
+        }
+        for (String deptNo : new String[]{before.getManagerDeptNo(), after.getManagerDeptNo()}) {
+            if (deptNo != null) {
+                row(managers, new DeptManagerId(empNo, deptNo), action);
+            }
+        }
+    }
+
+    private void row(EntityPersister persister, Object id, BiConsumer<CachedDomainDataAccess, Object> action) {
+        EntityDataAccess access = persister.getCacheAccessStrategy();
+        action.accept(access, access.generateCacheKey(id, persister, sessionFactory, null));
+    }
+}
@@ -0,0 +1,216 @@
+package digicorp.employeemanagementsb.services;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque cursor tokens used for keyset pagination.
+ * <p>
+ * A cursor records the sort key of the last row a client has seen, so the next
+ * slice can be fetched with a {@code WHERE key > :last} range predicate instead
+ * of an {@code OFFSET}. Tokens are versioned so that extra sort keys can be
+ * added later without breaking cursors already handed out.
+ * </p>
+ */
+public final class PageCursor {
+
+    private static final String VERSION_PREFIX = "v1:";
+    private static final String RANKED_PREFIX = "v2:";
+    private static final String HISTORY_PREFIX = "v3:";
+
+    private PageCursor() {}
+
+    /**
+     * Encodes the employee number of the last returned row into a cursor token.
+     *
+     * @param lastEmpNo the employee number of the last row in the current slice
+     * @return a URL-safe opaque cursor token
+     */
+    public static String encode(int lastEmpNo) {
+        String raw = VERSION_PREFIX + lastEmpNo;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor token back into the employee number it was created from.
+     * <p>
+     * A {@code null} or blank token denotes the start of the result set.
+     * </p>
+     *
+     * @param token the cursor token supplied by the client
+     * @return the last seen employee number, or {@code 0} for the first slice
+     * @throws ResponseStatusException if the token is malformed
+     */
+    public static int decode(String token) {
+        if (token == null || token.isBlank()) {
+            return 0;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            if (!raw.startsWith(VERSION_PREFIX)) {
+                throw new IllegalArgumentException("unsupported cursor version");
+            }
+            int empNo = Integer.parseInt(raw.substring(VERSION_PREFIX.length()));
+            if (empNo < 0) {
+                throw new IllegalArgumentException("negative cursor position");
+            }
+            return empNo;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "{\"error\":\"Invalid cursor in query parameter 'after'\"}");
+        }
+    }
+
+    /**
+     * Encodes the rank and employee number of the last returned row of a ranked
+     * result into a cursor token.
+     *
+     * @param rank      the rank of the last row in the current slice
+     * @param lastEmpNo the employee number of the last row in the current slice
+     * @return a URL-safe opaque cursor token
+     */
+    public static String encode(int rank, int lastEmpNo) {
+        String raw = RANKED_PREFIX + rank + ":" + lastEmpNo;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a ranked cursor token back into the position it was created from.
+     * <p>
+     * A {@code null} or blank token denotes the start of the result set.
+     * </p>
+     *
+     * @param token the cursor token supplied by the client
+     * @return the last seen position, or {@code null} for the first slice
+     * @throws ResponseStatusException if the token is malformed
+     */
+    public static RankedPosition decodeRanked(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            if (!raw.startsWith(RANKED_PREFIX)) {
+                throw new IllegalArgumentException("unsupported cursor version");
+            }
+            String[] parts = raw.substring(RANKED_PREFIX.length()).split(":", -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("malformed ranked cursor");
+            }
+            int rank = Integer.parseInt(parts[0]);
+            int empNo = Integer.parseInt(parts[1]);
+            if (rank < 0 || empNo < 0) {
+                throw new IllegalArgumentException("negative cursor position");
+            }
+            return new RankedPosition(rank, empNo);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "{\"error\":\"Invalid cursor in query parameter 'after'\"}");
+        }
+    }
+
+    /**
+     * Encodes the position of the last returned record of an employee history
+     * into a cursor token.
+     *
+     * @param fromDate the start date of the last record in the current slice
+     * @param key      the rest of the last record's key (title or department number), or empty
+     * @return a URL-safe opaque cursor token
+     */
+    public static String encode(LocalDate fromDate, String key) {
+        String raw = HISTORY_PREFIX + fromDate + ":" + key;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a history cursor token back into the position it was created from.
+     * <p>
+     * A {@code null} or blank token denotes the start of the history.
+     * </p>
+     *
+     * @param token the cursor token supplied by the client
+     * @return the last seen position, or {@code null} for the first slice
+     * @throws ResponseStatusException if the token is malformed
+     */
+    public static HistoryPosition decodeHistory(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            if (!raw.startsWith(HISTORY_PREFIX)) {
+                throw new IllegalArgumentException("unsupported cursor version");
+            }
+            String[] parts = raw.substring(HISTORY_PREFIX.length()).split(":", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("malformed history cursor");
+            }
+            return new HistoryPosition(LocalDate.parse(parts[0]), parts[1]);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "{\"error\":\"Invalid cursor in query parameter 'after'\"}");
+        }
+    }
+
+    /**
+     * Position of the last record seen in an employee history ordered by start
+     * date, then by the remaining key column.
+     */
+    public static final class HistoryPosition {
+
+        private final LocalDate fromDate;
+        private final String key;
+
+        private HistoryPosition(LocalDate fromDate, String key) {
+            this.fromDate = fromDate;
+            this.key = key;
+        }
+
+        /**
+         * Returns the start date of the last seen record.
+         * @return the start date
+         */
+        public LocalDate getFromDate() { return fromDate; }
+
+        /**
+         * Returns the title or department number of the last seen record.
+         * @return the key, empty for salaries
+         */
+        public String getKey() { return key; }
+    }
+
+    /**
+     * Position of the last row seen in a result ordered by rank (descending),
+     * then employee number (ascending).
+     */
+    public static final class RankedPosition {
+
+        private final int rank;
+        private final int empNo;
+
+        private RankedPosition(int rank, int empNo) {
+            this.rank = rank;
+            this.empNo = empNo;
+        }
+
+        /**
+         * Returns the rank of the last seen row.
+         * @return the rank
+         */
+        public int getRank() { return rank; }
+
+        /**
+         * Returns the employee number of the last seen row.
+         * @return the employee number
+         */
+        public int getEmpNo() { return empNo; }
+    }
+}
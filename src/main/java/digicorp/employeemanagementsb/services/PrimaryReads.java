@@ -0,0 +1,81 @@
+package digicorp.employeemanagementsb.services;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs reads whose results are cached against the primary database.
+ * <p>
+ * With a replica configured, read-only transactions are served by it and do not
+ * put what they load into the second-level cache (see
+ * {@link digicorp.employeemanagementsb.DataSourceRoutingConfig}), since a lagging
+ * replica would otherwise keep outdated rows cached after the primary has moved
+ * on. Reads that fill a cache, such as {@link EmployeeService#getEmployee} or the
+ * {@link EmployeeTimelineCache}, run through {@link #call} instead: a connection
+ * obtained during the call comes from the primary, and entities loaded by the
+ * current transaction's session go to the second-level cache as usual. A
+ * transaction that has already executed a statement keeps its connection.
+ * </p>
+ *
+ * <p>
+ * Without a replica every read uses the primary anyway, and a call only runs the read.
+ * </p>
+ */
+@Component
+public class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = ThreadLocal.withInitial(() -> false);
+
+    private final EntityManager entityManager;
+
+    /**
+     * Constructs the helper.
+     *
+     * @param entityManager the shared entity manager, bound to the caller's transaction
+     */
+    public PrimaryReads(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Tells whether the current thread is inside {@link #call}.
+     *
+     * @return {@code true} if connections obtained now should come from the primary
+     */
+    public static boolean isActive() {
+        return ACTIVE.get();
+    }
+
+    /**
+     * Runs a read against the primary database, caching what it loads.
+     *
+     * @param read the read to run
+     * @param <T> the type of the result
+     * @return the result of the read
+     */
+    public <T> T call(Supplier<T> read) {
+        if (isActive()) {
+            return read.get();
+        }
+        Session session = TransactionSynchronizationManager.isActualTransactionActive()
+                ? entityManager.unwrap(Session.class) : null;
+        CacheMode cacheMode = session == null ? null : session.getCacheMode();
+        ACTIVE.set(true);
+        try {
+            if (session != null) {
+                session.setCacheMode(CacheMode.NORMAL);
+            }
+            return read.get();
+        } finally {
+            ACTIVE.remove();
+            if (session != null) {
+                session.setCacheMode(cacheMode);
+            }
+        }
+    }
+}
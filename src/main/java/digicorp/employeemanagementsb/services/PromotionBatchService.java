@@ -0,0 +1,226 @@
+package digicorp.employeemanagementsb.services;
+
+import digicorp.employeemanagementsb.dto.PromotionRequestDTO;
+import digicorp.employeemanagementsb.dto.PromotionResultDTO;
+import digicorp.employeemanagementsb.model.Department;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service that applies large numbers of promotions in chunked transactions.
+ * <p>
+ * Promotions are validated up front, then processed in chunks of
+ * {@code employees.promotion.batch.chunk-size}. Each chunk looks up the current
+ * state of all its employees at once (from the {@link CurrentStateIndex}, or with
+ * one query per history table), applies every promotion through
+ * {@link PromotionProcessor}, and sends the collected writes as JDBC batches in a
+ * single transaction.
+ * </p>
+ *
+ * <p>
+ * Every promotion gets its own {@link PromotionResultDTO}. Rule violations only
+ * reject the offending promotion. If a chunk fails while writing, its promotions
+ * are retried one per transaction so that only the failing ones are reported.
+ * A chunk that found a record already closed by another writer first refreshes
+ * the {@link CurrentStateIndex} entries of its employees, so the retries start
+ * from the database.
+ * </p>
+ *
+ * <p>
+ * A chunk holds the {@link PromotionLocks} of all its employees around its
+ * transaction, so concurrent promotions of those employees wait for it to commit.
+ * </p>
+ */
+@Service
+public class PromotionBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(PromotionBatchService.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final DepartmentCache departmentCache;
+    private final PromotionProcessor promotionProcessor;
+    private final PromotionLocks promotionLocks;
+    private final CurrentStateIndex currentStateIndex;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    /**
+     * Constructs a {@code PromotionBatchService}.
+     *
+     * @param transactionManager the transaction manager used to commit each chunk
+     * @param departmentCache the cached department list used to look up promotion targets
+     * @param promotionProcessor the component applying promotion rules to history records
+     * @param promotionLocks the per-employee locks taken for the employees of each chunk
+     * @param currentStateIndex the index refreshed for a chunk that hit a concurrently closed record
+     * @param objectMapper the mapper used to read NDJSON input
+     * @param chunkSize the number of promotions committed per transaction
+     */
+    public PromotionBatchService(PlatformTransactionManager transactionManager, DepartmentCache departmentCache,
+                                 PromotionProcessor promotionProcessor, PromotionLocks promotionLocks,
+                                 CurrentStateIndex currentStateIndex, ObjectMapper objectMapper,
+                                 @Value("${employees.promotion.batch.chunk-size:500}") int chunkSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.departmentCache = departmentCache;
+        this.promotionProcessor = promotionProcessor;
+        this.promotionLocks = promotionLocks;
+        this.currentStateIndex = currentStateIndex;
+        this.objectMapper = objectMapper;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Applies a sequence of promotions chunk by chunk.
+     * <p>
+     * The iterator is consumed lazily, so a streamed request body never has to be
+     * held in memory as a whole. A {@code null} element is reported as invalid input.
+     * </p>
+     *
+     * @param requests the promotions to apply, in order
+     * @return one result per promotion, in the same order
+     */
+    public List<PromotionResultDTO> promoteAll(Iterator<PromotionRequestDTO> requests) {
+        List<PromotionResultDTO> results = new ArrayList<>();
+        List<PromotionRequestDTO> chunk = new ArrayList<>(chunkSize);
+        while (requests.hasNext()) {
+            chunk.add(requests.next());
+            if (chunk.size() == chunkSize) {
+                results.addAll(processChunk(results.size(), chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(processChunk(results.size(), chunk));
+        }
+        return results;
+    }
+
+    /**
+     * Applies promotions read from newline-delimited JSON, one promotion per line.
+     * <p>
+     * Blank lines are ignored. A line that is not a valid promotion is reported as
+     * a failed result instead of aborting the whole stream.
+     * </p>
+     *
+     * @param ndjson the NDJSON input
+     * @return one result per non-blank line, in the same order
+     */
+    public List<PromotionResultDTO> promoteNdjson(InputStream ndjson) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        Iterator<PromotionRequestDTO> requests = reader.lines()
+                .filter(line -> !line.isBlank())
+                .map(this::readLine)
+                .iterator();
+        return promoteAll(requests);
+    }
+
+    private PromotionRequestDTO readLine(String line) {
+        try {
+            return objectMapper.readValue(line, PromotionRequestDTO.class);
+        } catch (JacksonException e) {
+            // reported by validateRequest as invalid JSON
+            return null;
+        }
+    }
+
+    private List<PromotionResultDTO> processChunk(int firstIndex, List<PromotionRequestDTO> chunk) {
+        PromotionResultDTO[] results = new PromotionResultDTO[chunk.size()];
+
+        // Request body validation needs no database access
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            PromotionRequestDTO dto = chunk.get(i);
+            try {
+                promotionProcessor.validateRequest(dto);
+                pending.add(i);
+            } catch (ResponseStatusException e) {
+                results[i] = PromotionResultDTO.failed(firstIndex + i, dto == null ? 0 : dto.getEmpNo(), e.getReason());
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            Set<Integer> empNos = pending.stream()
+                    .map(i -> chunk.get(i).getEmpNo())
+                    .collect(Collectors.toSet());
+            try {
+                promotionLocks.withLocks(empNos, () -> {
+                    try {
+                        return transactionTemplate.execute(status -> {
+                            applyChunk(firstIndex, chunk, pending, empNos, results);
+                            return null;
+                        });
+                    } catch (ResponseStatusException e) {
+                        if (e.getStatusCode() == HttpStatus.CONFLICT) {
+                            // the one-by-one retry starts from the database
+                            currentStateIndex.refresh(empNos);
+                        }
+                        throw e;
+                    }
+                });
+            } catch (RuntimeException chunkFailure) {
+                if (pending.size() == 1) {
+                    int i = pending.get(0);
+                    results[i] = PromotionResultDTO.failed(firstIndex + i, chunk.get(i).getEmpNo(),
+                            "promotion failed: " + chunkFailure.getMessage());
+                } else {
+                    log.warn("Promotion chunk starting at index {} failed, retrying one by one", firstIndex, chunkFailure);
+                    for (int i : pending) {
+                        results[i] = processChunk(firstIndex + i, List.of(chunk.get(i))).get(0);
+                    }
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void applyChunk(int firstIndex, List<PromotionRequestDTO> chunk, List<Integer> pending,
+                            Set<Integer> empNos, PromotionResultDTO[] results) {
+        Map<Integer, PromotionState> states = new HashMap<>(promotionProcessor.loadStates(empNos));
+
+        PromotionWriteBatch writes = new PromotionWriteBatch();
+        for (int i : pending) {
+            PromotionRequestDTO dto = chunk.get(i);
+            PromotionState state = states.get(dto.getEmpNo());
+            if (state == null) {
+                results[i] = PromotionResultDTO.failed(firstIndex + i, dto.getEmpNo(), "Employee not found");
+                continue;
+            }
+            if (writes.touches(dto.getEmpNo())) {
+                // the employee's earlier promotion must reach the database first; a failure
+                // here belongs to the chunk, not to this promotion, so it is not caught below
+                promotionProcessor.write(writes);
+            }
+            try {
+                Department dept = departmentCache.find(dto.getDeptNo().trim());
+                states.put(dto.getEmpNo(), promotionProcessor.apply(dto, state, dept, writes));
+                results[i] = PromotionResultDTO.promoted(firstIndex + i, dto.getEmpNo());
+            } catch (ResponseStatusException e) {
+                results[i] = PromotionResultDTO.failed(firstIndex + i, dto.getEmpNo(), e.getReason());
+            }
+        }
+
+        // write the whole chunk as JDBC batches
+        promotionProcessor.write(writes);
+    }
+}
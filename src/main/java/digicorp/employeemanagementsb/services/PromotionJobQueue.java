@@ -0,0 +1,236 @@
+package digicorp.employeemanagementsb.services;
+
+import digicorp.employeemanagementsb.dto.PromotionJobDTO;
+import digicorp.employeemanagementsb.dto.PromotionRequestDTO;
+import digicorp.employeemanagementsb.dto.PromotionResultDTO;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies promotions asynchronously from bounded in-process queues.
+ * <p>
+ * {@link #submit} only validates the request, which needs no database access, and
+ * puts it on a queue; the caller gets a job id right away. Each of the
+ * {@code employees.promotion.async.workers} worker threads owns one queue and
+ * drains it in groups of up to {@code employees.promotion.async.group-size}, which
+ * {@link PromotionBatchService} commits in as few transactions as its chunk size
+ * allows. A job goes to the queue chosen by its employee number, so promotions of
+ * one employee are applied in submission order and never by two workers at once.
+ * </p>
+ *
+ * <p>
+ * A full queue rejects the job with {@code 429 Too Many Requests}. Finished jobs are
+ * kept for status queries until {@code employees.promotion.async.retained-jobs}
+ * newer ones have finished. Queued jobs exist only in memory and are lost when the
+ * application stops.
+ * </p>
+ */
+@Service
+public class PromotionJobQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(PromotionJobQueue.class);
+
+    private final PromotionProcessor promotionProcessor;
+    private final PromotionBatchService promotionBatchService;
+    private final int groupSize;
+    private final int retainedJobs;
+
+    private final List<BlockingQueue<Job>> queues = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    /** Ids of finished jobs, oldest first, for expiring them. */
+    private final ConcurrentLinkedQueue<String> finished = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger finishedCount = new AtomicInteger();
+    private volatile boolean running;
+
+    /**
+     * Constructs the queue.
+     *
+     * @param promotionProcessor the processor used to validate requests on submission
+     * @param promotionBatchService the service applying each drained group
+     * @param meterRegistry the registry the queue size gauge is published to
+     * @param workers the number of worker threads, each with its own queue
+     * @param capacity the total number of jobs that may wait, split across the queues
+     * @param groupSize the maximum number of jobs a worker applies at once
+     * @param retainedJobs the number of finished jobs kept for status queries
+     */
+    public PromotionJobQueue(PromotionProcessor promotionProcessor, PromotionBatchService promotionBatchService,
+                             MeterRegistry meterRegistry,
+                             @Value("${employees.promotion.async.workers:2}") int workers,
+                             @Value("${employees.promotion.async.queue-capacity:10000}") int capacity,
+                             @Value("${employees.promotion.async.group-size:100}") int groupSize,
+                             @Value("${employees.promotion.async.retained-jobs:100000}") int retainedJobs) {
+        this.promotionProcessor = promotionProcessor;
+        this.promotionBatchService = promotionBatchService;
+        this.groupSize = Math.max(1, groupSize);
+        this.retainedJobs = Math.max(0, retainedJobs);
+        int count = Math.max(1, workers);
+        for (int i = 0; i < count; i++) {
+            queues.add(new ArrayBlockingQueue<>(Math.max(1, capacity / count)));
+        }
+        Gauge.builder("employees.promotion.queue.size", queues, q -> q.stream().mapToInt(BlockingQueue::size).sum())
+                .description("Promotions waiting to be applied")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the workers once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < queues.size(); i++) {
+            BlockingQueue<Job> queue = queues.get(i);
+            Thread worker = new Thread(() -> drain(queue), "promotion-worker-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Stops the workers. Jobs still queued are not applied.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+    }
+
+    /**
+     * Validates a promotion and queues it.
+     *
+     * @param dto the promotion request
+     * @return the queued job
+     * @throws ResponseStatusException with {@code 400} if the request is invalid, or
+     *         {@code 429} if the queue is full
+     */
+    public PromotionJobDTO submit(PromotionRequestDTO dto) {
+        promotionProcessor.validateRequest(dto);
+        Job job = new Job(UUID.randomUUID().toString(), dto);
+        jobs.put(job.id, job);
+        if (!queues.get(Math.floorMod(dto.getEmpNo(), queues.size())).offer(job)) {
+            jobs.remove(job.id);
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "{\"error\":\"Promotion queue is full, retry later\"}");
+        }
+        return job.toDto();
+    }
+
+    /**
+     * Returns the state of a job.
+     *
+     * @param id the job id
+     * @return the job
+     * @throws ResponseStatusException if the job does not exist or has expired
+     */
+    public PromotionJobDTO getJob(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "{\"error\":\"Promotion job not found\"}");
+        }
+        return job.toDto();
+    }
+
+    private void drain(BlockingQueue<Job> queue) {
+        List<Job> group = new ArrayList<>(groupSize);
+        while (running) {
+            try {
+                Job first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, groupSize - 1);
+                apply(group);
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void apply(List<Job> group) {
+        for (Job job : group) {
+            job.status = PromotionJobDTO.RUNNING;
+        }
+        List<PromotionResultDTO> results = null;
+        String failure = null;
+        try {
+            results = promotionBatchService.promoteAll(group.stream().map(job -> job.request).iterator());
+        } catch (RuntimeException e) {
+            log.warn("Promotion group of {} jobs failed", group.size(), e);
+            failure = "promotion failed: " + e.getMessage();
+        }
+        for (int i = 0; i < group.size(); i++) {
+            Job job = group.get(i);
+            if (results == null) {
+                job.finish(PromotionResultDTO.FAILED, failure);
+            } else {
+                job.finish(results.get(i).getStatus(), results.get(i).getMessage());
+            }
+            finished.add(job.id);
+            finishedCount.incrementAndGet();
+        }
+        while (finishedCount.get() > retainedJobs) {
+            String expired = finished.poll();
+            if (expired == null) {
+                break;
+            }
+            finishedCount.decrementAndGet();
+            jobs.remove(expired);
+        }
+    }
+
+    /**
+     * One queued promotion. Status fields are written by the worker and read by request threads.
+     */
+    private static final class Job {
+        private final String id;
+        private final PromotionRequestDTO request;
+        private volatile String status = PromotionJobDTO.QUEUED;
+        private volatile String message;
+
+        Job(String id, PromotionRequestDTO request) {
+            this.id = id;
+            this.request = request;
+        }
+
+        void finish(String status, String message) {
+            this.message = message;
+            this.status = status;
+        }
+
+        PromotionJobDTO toDto() {
+            // status is written last, so a finished status is always read with its message
+            String currentStatus = status;
+            return new PromotionJobDTO(id, request.getEmpNo(), currentStatus, message);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package digicorp.employeemanagementsb.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped in-process locks that serialize promotions of the same employee.
+ * <p>
+ * A promotion reads the employee's open records, checks that its {@code fromDate}
+ * is after all of them and closes them. Two promotions of one employee running at
+ * the same time could both pass the check against the same snapshot, so each
+ * promotion locks its employee before loading the state and keeps the lock until
+ * its transaction has completed, after the {@link CurrentStateIndex} has seen the
+ * commit. The next promotion of that employee therefore starts from the committed
+ * state.
+ * </p>
+ *
+ * <p>
+ * Employees are mapped onto a fixed number of stripes by employee number, so
+ * promotions of different employees only wait for each other when they share a
+ * stripe. Several employees are locked in ascending stripe order, which rules out
+ * deadlocks between batches.
+ * </p>
+ *
+ * <p>
+ * The locks only cover this process. Writers elsewhere are caught by the
+ * optimistic checks of {@link PromotionWriteBatch}.
+ * </p>
+ */
+@Component
+public class PromotionLocks {
+
+    private final ReentrantLock[] stripes;
+
+    /**
+     * Constructs the locks.
+     *
+     * @param stripes the number of lock stripes
+     */
+    public PromotionLocks(@Value("${employees.promotion.lock-stripes:1024}") int stripes) {
+        this.stripes = new ReentrantLock[Math.max(1, stripes)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Runs an action while holding the lock of one employee.
+     * <p>
+     * The action must include the whole transaction, so that the next promotion of
+     * the employee only starts once the commit has been applied everywhere.
+     * </p>
+     *
+     * @param empNo the employee number
+     * @param action the action to run
+     * @param <T> the type of the action's result
+     * @return the action's result
+     */
+    public <T> T withLock(int empNo, Supplier<T> action) {
+        return withLocks(new int[]{stripe(empNo)}, action);
+    }
+
+    /**
+     * Runs an action while holding the locks of several employees.
+     *
+     * @param empNos the employee numbers
+     * @param action the action to run, including its transaction
+     * @param <T> the type of the action's result
+     * @return the action's result
+     */
+    public <T> T withLocks(Collection<Integer> empNos, Supplier<T> action) {
+        return withLocks(empNos.stream().mapToInt(this::stripe).sorted().distinct().toArray(), action);
+    }
+
+    private <T> T withLocks(int[] indexes, Supplier<T> action) {
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            unlock(indexes, locked);
+        }
+    }
+
+    private void unlock(int[] indexes, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            stripes[indexes[i]].unlock();
+        }
+    }
+
+    private int stripe(int empNo) {
+        return Math.floorMod(empNo, stripes.length);
+    }
+}
@@ -0,0 +1,313 @@
+package digicorp.employeemanagementsb.services;
+
+import digicorp.employeemanagementsb.dto.EmployeeCurrentDTO;
+import digicorp.employeemanagementsb.dto.PromotionRequestDTO;
+import digicorp.employeemanagementsb.model.*;
+import digicorp.employeemanagementsb.repository.DepartmentHistoryRepo;
+import digicorp.employeemanagementsb.repository.EmployeeRepo;
+import digicorp.employeemanagementsb.repository.ManagerHistoryRepo;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static digicorp.employeemanagementsb.services.PromotionState.OPEN;
+
+/**
+ * Applies the promotion rules shared by single and batch promotions.
+ * <p>
+ * The processor is deliberately not transactional: it always runs inside the
+ * caller's transaction, and rule violations are reported as
+ * {@link ResponseStatusException}s raised <em>before</em> any record is touched,
+ * so a batch can skip a rejected promotion and keep its transaction healthy.
+ * </p>
+ *
+ * <p>
+ * The current state of an employee comes from the {@link CurrentStateIndex} when it
+ * is loaded and from the history tables otherwise. Because that
+ * {@link PromotionState} identifies every affected row by primary key, a promotion
+ * is recorded as keyed writes in a {@link PromotionWriteBatch} without loading any
+ * entity. Each applied promotion publishes an {@link EmployeePromotedEvent}.
+ * </p>
+ *
+ * <p>
+ * Each step is timed as {@code employees.promotion}, tagged with the method name,
+ * so the share of state loading, rule checks and writes in a promotion's latency
+ * can be read from the metrics.
+ * </p>
+ */
+@Component
+@Timed(value = "employees.promotion", histogram = true)
+public class PromotionProcessor {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CurrentStateIndex currentStateIndex;
+    private final EmployeeRepo employeeRepo;
+    private final DepartmentHistoryRepo departmentHistoryRepo;
+    private final ManagerHistoryRepo managerHistoryRepo;
+
+    /**
+     * Constructs a {@code PromotionProcessor}.
+     *
+     * @param jdbcTemplate the template used to execute collected writes
+     * @param eventPublisher the publisher for {@link EmployeePromotedEvent}s
+     * @param currentStateIndex the in-memory index of current employee state
+     * @param employeeRepo the repository used for reading current records when the index is unavailable
+     * @param departmentHistoryRepo the repository used for reading department history records
+     * @param managerHistoryRepo the repository used for reading manager history records
+     */
+    public PromotionProcessor(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                              CurrentStateIndex currentStateIndex, EmployeeRepo employeeRepo,
+                              DepartmentHistoryRepo departmentHistoryRepo, ManagerHistoryRepo managerHistoryRepo) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.currentStateIndex = currentStateIndex;
+        this.employeeRepo = employeeRepo;
+        this.departmentHistoryRepo = departmentHistoryRepo;
+        this.managerHistoryRepo = managerHistoryRepo;
+    }
+
+    /**
+     * Validates the shape of a promotion request without touching the database.
+     *
+     * @param dto the promotion request
+     * @throws ResponseStatusException if a field is missing or invalid
+     */
+    public void validateRequest(PromotionRequestDTO dto) {
+
+        if (dto == null) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "{\"error\":\"Request body is missing or invalid JSON\"}"
+            );
+        }
+
+        // empNo
+        if (dto.getEmpNo() <= 0) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "{\"error\":\"empNo must be a positive integer\"}"
+            );
+        }
+
+        // Title
+        if (dto.getNewTitle() == null || dto.getNewTitle().trim().isEmpty()) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "{\"error\":\"Title cannot be blank\"}"
+            );
+        }
+
+        // fromDate
+        if (dto.getFromDate() == null) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "{\"error\":\"fromDate is required (yyyy-MM-dd)\"}"
+            );
+        }
+
+        // Salary
+        if (dto.getNewSalary() <= 0) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "{\"error\":\"salary must be greater than 0\"}"
+            );
+        }
+
+        // Department
+        if (dto.getDeptNo() == null ||
+                !dto.getDeptNo().trim().matches("^[dD][0-9]{3}$")) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "{\"error\":\"deptNo must match pattern dXXX (e.g., d001, D005)\"}"
+            );
+        }
+    }
+
+    /**
+     * Loads the promotion state of a single employee.
+     *
+     * @param empNo the employee number
+     * @return the employee's {@link PromotionState}, or {@code null} if the employee does not exist
+     */
+    public PromotionState loadState(int empNo) {
+        return loadStates(List.of(empNo)).get(empNo);
+    }
+
+    /**
+     * Loads the promotion state of several employees.
+     * <p>
+     * Served from the {@link CurrentStateIndex} when it is loaded; otherwise with
+     * the single current-state query plus one query each for the department and
+     * manager history.
+     * </p>
+     *
+     * @param empNos the employee numbers
+     * @return the states of the employees that exist, keyed by employee number
+     */
+    public Map<Integer, PromotionState> loadStates(Collection<Integer> empNos) {
+        Map<Integer, PromotionState> indexed = currentStateIndex.lookup(empNos);
+        return indexed != null ? indexed : loadStatesFromDatabase(empNos);
+    }
+
+    private Map<Integer, PromotionState> loadStatesFromDatabase(Collection<Integer> empNos) {
+        Map<Integer, EmployeeCurrentDTO> current = employeeRepo.findCurrentByEmpNoIn(empNos, OPEN);
+        if (current.isEmpty()) {
+            return Map.of();
+        }
+
+        // every dept_emp / dept_manager row matters, not only the open one: see PromotionState
+        Map<Integer, List<DeptEmployee>> departments = departmentHistoryRepo.findHistory(current.keySet()).stream()
+                .collect(Collectors.groupingBy(d -> d.getId().getEmpNo()));
+        Map<Integer, List<DeptManager>> managers = managerHistoryRepo.findHistory(current.keySet()).stream()
+                .collect(Collectors.groupingBy(m -> m.getId().getEmpNo()));
+
+        Map<Integer, PromotionState> states = new HashMap<>();
+        for (EmployeeCurrentDTO row : current.values()) {
+            int empNo = row.getEmpNo();
+            states.put(empNo, PromotionState.of(
+                    row,
+                    departments.getOrDefault(empNo, List.of()),
+                    managers.getOrDefault(empNo, List.of())));
+        }
+        return states;
+    }
+
+    /**
+     * Checks the business rules for a promotion and, if they hold, records the writes
+     * that close the previous records and open the new ones.
+     * <p>
+     * All checks run before anything is recorded. The returned state reflects the
+     * promotion, so several promotions for the same employee can be applied in
+     * sequence within one transaction, provided the batch is executed in between
+     * (see {@link PromotionWriteBatch#touches(int)}).
+     * </p>
+     *
+     * @param dto    a promotion request that passed {@link #validateRequest}
+     * @param state  the current state of the employee
+     * @param dept   the target department, or {@code null} if it does not exist
+     * @param writes the batch collecting the writes
+     * @return the state of the employee after the promotion
+     * @throws ResponseStatusException if a business rule is violated
+     */
+    public PromotionState apply(PromotionRequestDTO dto, PromotionState state, Department dept,
+                                PromotionWriteBatch writes) {
+
+        LocalDate newFromDate = dto.getFromDate();
+        LocalDate closeDate = newFromDate.minusDays(1);
+        String deptNoNormalized = dto.getDeptNo().trim().toLowerCase();
+        int empNo = state.getEmpNo();
+
+        // ===============================================================
+        // BUSINESS DATE VALIDATION
+        // Includes:
+        // 1. Do NOT promote employees who already left the company
+        // 2. fromDate must not overlap existing salary/title/department dates
+        // ===============================================================
+
+        // --- 1. Check if employee is still active (has ANY record with toDate = 9999-01-01) ---
+        // Employee has left ONLY IF at least one of the 3 are inactive
+        if (!state.isActive()) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Cannot promote employee. Employee has already left the company."
+            );
+        }
+
+        // Find the LATEST of salary, title and department
+        LocalDate latestAnyDate = Stream.of(
+                        state.getSalaryFromDate(),
+                        state.getTitleFromDate(),
+                        state.getDeptFromDate())
+                .max(LocalDate::compareTo)
+                .orElse(LocalDate.MIN);
+
+        // Enforce date must be strictly after all latest dates
+        if (!newFromDate.isAfter(latestAnyDate)) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "fromDate must be AFTER latest existing date: " + latestAnyDate
+            );
+        }
+
+        if (dept == null) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Department not found: " + deptNoNormalized);
+        }
+
+        //===============================================================
+        // PROMOTION LOGIC (1.SALARY, 2.TITLE, 3.DEPARTMENT, 4. MANAGER)
+        // ===============================================================
+
+        // --- 4a. SALARY ---
+        // Close previous salary
+        writes.closeSalary(empNo, state.getSalaryFromDate(), closeDate);
+        writes.insertSalary(empNo, dto.getNewSalary(), newFromDate);
+
+        // --- 4b. TITLE ---
+        // Close previous title
+        writes.closeTitle(empNo, state.getTitle(), state.getTitleFromDate(), closeDate);
+        writes.insertTitle(empNo, dto.getNewTitle(), newFromDate);
+
+        // --- 4c. DEPARTMENT ---
+        // Close previous department assignment only if department has changed
+        if (!deptNoNormalized.equalsIgnoreCase(state.getDeptNo())) {
+            writes.closeDepartment(empNo, state.getDeptNo(), closeDate);
+        }
+
+        // dept_emp is keyed by (emp_no, dept_no): an existing row for the target
+        // department is reopened rather than inserted again
+        writes.openDepartment(empNo, deptNoNormalized, newFromDate, state.wasAssignedTo(deptNoNormalized));
+        Set<String> assigned = new HashSet<>(state.getAssignedDeptNos());
+        assigned.add(deptNoNormalized);
+
+        // --- 4d. MANAGER (optional) ---
+        // Close the latest manager record only if department changed
+        String managerDeptNo = state.getManagerDeptNo();
+        LocalDate managerFromDate = state.getManagerFromDate();
+        if (managerDeptNo != null && !deptNoNormalized.equalsIgnoreCase(managerDeptNo)) {
+            writes.closeManager(empNo, managerDeptNo, closeDate);
+            managerDeptNo = null;
+            managerFromDate = null;
+        }
+
+        Set<String> managed = new HashSet<>(state.getManagedDeptNos());
+        if (dto.isManager()) {
+            // Even if dept didn't change, we record a new manager period because it's a promotion event
+            writes.openManager(empNo, deptNoNormalized, newFromDate, state.hasManaged(deptNoNormalized));
+            managed.add(deptNoNormalized);
+            managerDeptNo = deptNoNormalized;
+            managerFromDate = newFromDate;
+        }
+
+        PromotionState promoted = new PromotionState(
+                empNo, dto.getNewSalary(), newFromDate, dto.getNewTitle(), newFromDate,
+                deptNoNormalized, newFromDate, managerDeptNo, managerFromDate, assigned, managed);
+        eventPublisher.publishEvent(new EmployeePromotedEvent(state, promoted));
+        return promoted;
+    }
+
+    /**
+     * Executes the writes collected in a batch within the current transaction.
+     *
+     * @param writes the batch to execute
+     */
+    public void write(PromotionWriteBatch writes) {
+        writes.execute(jdbcTemplate);
+    }
+}
@@ -0,0 +1,196 @@
+package digicorp.employeemanagementsb.services;
+
+import digicorp.employeemanagementsb.dto.EmployeeCurrentDTO;
+import digicorp.employeemanagementsb.model.DeptEmployee;
+import digicorp.employeemanagementsb.model.DeptManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the open history records of one employee.
+ * <p>
+ * A promotion reads the open salary, title, department and manager records and
+ * closes them. It also needs the departments the employee has <em>ever</em> been
+ * assigned to or managed: both tables are keyed by {@code (emp_no, dept_no)}, so
+ * returning to a former department reopens the old row instead of inserting one.
+ * </p>
+ *
+ * <p>
+ * Snapshots come from the {@link CurrentStateIndex} or, as a fallback, from the
+ * single current-state query of the employee repository. Fields of records the employee does not have are {@code null}.
+ * </p>
+ */
+public class PromotionState {
+
+    /** The {@code toDate} value marking an open (current) record. */
+    public static final LocalDate OPEN = LocalDate.of(9999, 1, 1);
+
+    private final int empNo;
+    private final int salary;
+    private final LocalDate salaryFromDate;
+    private final String title;
+    private final LocalDate titleFromDate;
+    private final String deptNo;
+    private final LocalDate deptFromDate;
+    private final String managerDeptNo;
+    private final LocalDate managerFromDate;
+    private final Set<String> assignedDeptNos;
+    private final Set<String> managedDeptNos;
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param empNo           the employee number
+     * @param salary          the open salary amount, 0 if none
+     * @param salaryFromDate  start of the open salary, or {@code null} if none
+     * @param title           the open title, or {@code null} if none
+     * @param titleFromDate   start of the open title, or {@code null} if none
+     * @param deptNo          the open department, or {@code null} if none
+     * @param deptFromDate    start of the open department assignment, or {@code null} if none
+     * @param managerDeptNo   the department currently managed, or {@code null} if none
+     * @param managerFromDate start of the open manager assignment, or {@code null} if none
+     * @param assignedDeptNos every department the employee has a {@code dept_emp} row for
+     * @param managedDeptNos  every department the employee has a {@code dept_manager} row for
+     */
+    public PromotionState(int empNo, int salary, LocalDate salaryFromDate,
+                          String title, LocalDate titleFromDate,
+                          String deptNo, LocalDate deptFromDate,
+                          String managerDeptNo, LocalDate managerFromDate,
+                          Set<String> assignedDeptNos, Set<String> managedDeptNos) {
+        this.empNo = empNo;
+        this.salary = salary;
+        this.salaryFromDate = salaryFromDate;
+        this.title = title;
+        this.titleFromDate = titleFromDate;
+        this.deptNo = deptNo;
+        this.deptFromDate = deptFromDate;
+        this.managerDeptNo = managerDeptNo;
+        this.managerFromDate = managerFromDate;
+        this.assignedDeptNos = Set.copyOf(assignedDeptNos);
+        this.managedDeptNos = Set.copyOf(managedDeptNos);
+    }
+
+    /**
+     * Builds a snapshot from an employee's current records and department history.
+     *
+     * @param current     the open records, as returned by {@code EmployeeRepo.findCurrentByEmpNoIn}
+     * @param departments all department assignments of the employee
+     * @param managers    all manager assignments of the employee
+     * @return the snapshot
+     */
+    public static PromotionState of(EmployeeCurrentDTO current,
+                                    Collection<DeptEmployee> departments, Collection<DeptManager> managers) {
+        return new PromotionState(
+                current.getEmpNo(),
+                current.getSalary() == null ? 0 : current.getSalary(),
+                current.getSalaryFromDate(),
+                current.getTitle(),
+                current.getTitleFromDate(),
+                current.getDeptNo(),
+                current.getDeptFromDate(),
+                current.getManagerDeptNo(),
+                current.getManagerFromDate(),
+                departments.stream().map(d -> d.getId().getDeptNo()).collect(Collectors.toSet()),
+                managers.stream().map(m -> m.getId().getDeptNo()).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Returns whether the employee still works for the company, i.e. has an open
+     * salary, title and department.
+     * @return true if the employee is active
+     */
+    public boolean isActive() {
+        return salaryFromDate != null && titleFromDate != null && deptNo != null;
+    }
+
+    /**
+     * Returns whether the employee has a {@code dept_emp} row for the department.
+     * @param dept the department number
+     * @return true if the employee was ever assigned to it
+     */
+    public boolean wasAssignedTo(String dept) { return assignedDeptNos.contains(dept); }
+
+    /**
+     * Returns whether the employee has a {@code dept_manager} row for the department.
+     * @param dept the department number
+     * @return true if the employee ever managed it
+     */
+    public boolean hasManaged(String dept) { return managedDeptNos.contains(dept); }
+
+    /**
+     * Returns the employee number.
+     * @return employee number as an int
+     */
+    public int getEmpNo() { return empNo; }
+    /**
+     * Returns the open salary amount.
+     * @return the salary, 0 if none
+     */
+    public int getSalary() { return salary; }
+    /**
+     * Returns the start of the open salary.
+     * @return the start date, or {@code null} if none
+     */
+    public LocalDate getSalaryFromDate() { return salaryFromDate; }
+    /**
+     * Returns the open title.
+     * @return the title, or {@code null} if none
+     */
+    public String getTitle() { return title; }
+    /**
+     * Returns the start of the open title.
+     * @return the start date, or {@code null} if none
+     */
+    public LocalDate getTitleFromDate() { return titleFromDate; }
+    /**
+     * Returns the open department.
+     * @return the department number, or {@code null} if none
+     */
+    public String getDeptNo() { return deptNo; }
+    /**
+     * Returns the start of the open department assignment.
+     * @return the start date, or {@code null} if none
+     */
+    public LocalDate getDeptFromDate() { return deptFromDate; }
+    /**
+     * Returns the department currently managed.
+     * @return the department number, or {@code null} if none
+     */
+    public String getManagerDeptNo() { return managerDeptNo; }
+    /**
+     * Returns the start of the open manager assignment.
+     * @return the start date, or {@code null} if none
+     */
+    public LocalDate getManagerFromDate() { return managerFromDate; }
+    /**
+     * Returns every department the employee has a {@code dept_emp} row for.
+     * @return an unmodifiable set of department numbers
+     */
+    public Set<String> getAssignedDeptNos() { return assignedDeptNos; }
+    /**
+     * Returns every department the employee has a {@code dept_manager} row for.
+     * @return an unmodifiable set of department numbers
+     */
+    public Set<String> getManagedDeptNos() { return managedDeptNos; }
+
+    /**
+     * returns a string representation of the snapshot.
+     * @return a string representation of the snapshot
+     */
+    @Override
+    public String toString() {
+        return "PromotionState{" +
+                "empNo=" + empNo +
+                ", salary=" + salary + " from " + salaryFromDate +
+                ", title='" + title + "' from " + titleFromDate +
+                ", deptNo='" + deptNo + "' from " + deptFromDate +
+                ", managerDeptNo='" + managerDeptNo + "' from " + managerFromDate +
+                ", assigned=" + new TreeSet<>(assignedDeptNos) +
+                ", managed=" + new TreeSet<>(managedDeptNos) +
+                '}';
+    }
+}
@@ -0,0 +1,230 @@
+package digicorp.employeemanagementsb.services;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the history-table writes of one or more promotions and executes them
+ * as JDBC batches.
+ * <p>
+ * Because the {@link PromotionState} snapshot already identifies every record a
+ * promotion closes or reopens by primary key, no entity has to be loaded: each
+ * change is a single keyed {@code UPDATE} or {@code INSERT}. Writes of the same
+ * kind are sent together, so a chunk of promotions costs a handful of round trips
+ * regardless of its size.
+ * </p>
+ *
+ * <p>
+ * Every {@code UPDATE} that closes a record also requires it to still be open and
+ * must change exactly one row. The open record's start date acts as its version:
+ * a promotion that was validated against a snapshot another writer has since
+ * superseded finds nothing to close, and the batch fails with {@code 409 Conflict}
+ * so that its transaction rolls back.
+ * </p>
+ *
+ * <p>
+ * Since statements are grouped by kind rather than kept in promotion order, a batch
+ * must be executed before a second promotion of the same employee is added to it;
+ * see {@link #touches(int)}.
+ * </p>
+ */
+public class PromotionWriteBatch {
+
+    private static final String CLOSE_SALARY =
+            "UPDATE salaries SET to_date = ? WHERE emp_no = ? AND from_date = ? AND to_date = ?";
+    private static final String INSERT_SALARY =
+            "INSERT INTO salaries (emp_no, salary, from_date, to_date) VALUES (?, ?, ?, ?)";
+    private static final String CLOSE_TITLE =
+            "UPDATE titles SET to_date = ? WHERE emp_no = ? AND title = ? AND from_date = ? AND to_date = ?";
+    private static final String INSERT_TITLE =
+            "INSERT INTO titles (emp_no, title, from_date, to_date) VALUES (?, ?, ?, ?)";
+    private static final String CLOSE_DEPARTMENT =
+            "UPDATE dept_emp SET to_date = ? WHERE emp_no = ? AND dept_no = ? AND to_date = ?";
+    private static final String REOPEN_DEPARTMENT =
+            "UPDATE dept_emp SET from_date = ?, to_date = ? WHERE emp_no = ? AND dept_no = ?";
+    private static final String INSERT_DEPARTMENT =
+            "INSERT INTO dept_emp (emp_no, dept_no, from_date, to_date) VALUES (?, ?, ?, ?)";
+    private static final String CLOSE_MANAGER =
+            "UPDATE dept_manager SET to_date = ? WHERE emp_no = ? AND dept_no = ? AND to_date = ?";
+    private static final String REOPEN_MANAGER =
+            "UPDATE dept_manager SET from_date = ?, to_date = ? WHERE emp_no = ? AND dept_no = ?";
+    private static final String INSERT_MANAGER =
+            "INSERT INTO dept_manager (emp_no, dept_no, from_date, to_date) VALUES (?, ?, ?, ?)";
+
+    private final List<Object[]> closeSalaries = new ArrayList<>();
+    private final List<Object[]> insertSalaries = new ArrayList<>();
+    private final List<Object[]> closeTitles = new ArrayList<>();
+    private final List<Object[]> insertTitles = new ArrayList<>();
+    private final List<Object[]> closeDepartments = new ArrayList<>();
+    private final List<Object[]> reopenDepartments = new ArrayList<>();
+    private final List<Object[]> insertDepartments = new ArrayList<>();
+    private final List<Object[]> closeManagers = new ArrayList<>();
+    private final List<Object[]> reopenManagers = new ArrayList<>();
+    private final List<Object[]> insertManagers = new ArrayList<>();
+    private final Set<Integer> empNos = new HashSet<>();
+
+    /**
+     * Ends an open salary.
+     * @param empNo the employee number
+     * @param fromDate the start date identifying the salary row
+     * @param toDate the new end date
+     */
+    public void closeSalary(int empNo, LocalDate fromDate, LocalDate toDate) {
+        empNos.add(empNo);
+        closeSalaries.add(new Object[]{toDate, empNo, fromDate, PromotionState.OPEN});
+    }
+
+    /**
+     * Opens a new salary.
+     * @param empNo the employee number
+     * @param salary the salary amount
+     * @param fromDate the start date
+     */
+    public void insertSalary(int empNo, int salary, LocalDate fromDate) {
+        empNos.add(empNo);
+        insertSalaries.add(new Object[]{empNo, salary, fromDate, PromotionState.OPEN});
+    }
+
+    /**
+     * Ends an open title.
+     * @param empNo the employee number
+     * @param title the title identifying the row
+     * @param fromDate the start date identifying the row
+     * @param toDate the new end date
+     */
+    public void closeTitle(int empNo, String title, LocalDate fromDate, LocalDate toDate) {
+        empNos.add(empNo);
+        closeTitles.add(new Object[]{toDate, empNo, title, fromDate, PromotionState.OPEN});
+    }
+
+    /**
+     * Opens a new title.
+     * @param empNo the employee number
+     * @param title the title
+     * @param fromDate the start date
+     */
+    public void insertTitle(int empNo, String title, LocalDate fromDate) {
+        empNos.add(empNo);
+        insertTitles.add(new Object[]{empNo, title, fromDate, PromotionState.OPEN});
+    }
+
+    /**
+     * Ends an open department assignment.
+     * @param empNo the employee number
+     * @param deptNo the department number
+     * @param toDate the new end date
+     */
+    public void closeDepartment(int empNo, String deptNo, LocalDate toDate) {
+        empNos.add(empNo);
+        closeDepartments.add(new Object[]{toDate, empNo, deptNo, PromotionState.OPEN});
+    }
+
+    /**
+     * Opens a department assignment, reusing the existing row if there is one.
+     * @param empNo the employee number
+     * @param deptNo the department number
+     * @param fromDate the start date
+     * @param rowExists whether a {@code dept_emp} row for this pair already exists
+     */
+    public void openDepartment(int empNo, String deptNo, LocalDate fromDate, boolean rowExists) {
+        empNos.add(empNo);
+        if (rowExists) {
+            reopenDepartments.add(new Object[]{fromDate, PromotionState.OPEN, empNo, deptNo});
+        } else {
+            insertDepartments.add(new Object[]{empNo, deptNo, fromDate, PromotionState.OPEN});
+        }
+    }
+
+    /**
+     * Ends an open manager assignment.
+     * @param empNo the employee number
+     * @param deptNo the department number
+     * @param toDate the new end date
+     */
+    public void closeManager(int empNo, String deptNo, LocalDate toDate) {
+        empNos.add(empNo);
+        closeManagers.add(new Object[]{toDate, empNo, deptNo, PromotionState.OPEN});
+    }
+
+    /**
+     * Opens a manager assignment, reusing the existing row if there is one.
+     * @param empNo the employee number
+     * @param deptNo the department number
+     * @param fromDate the start date
+     * @param rowExists whether a {@code dept_manager} row for this pair already exists
+     */
+    public void openManager(int empNo, String deptNo, LocalDate fromDate, boolean rowExists) {
+        empNos.add(empNo);
+        if (rowExists) {
+            reopenManagers.add(new Object[]{fromDate, PromotionState.OPEN, empNo, deptNo});
+        } else {
+            insertManagers.add(new Object[]{empNo, deptNo, fromDate, PromotionState.OPEN});
+        }
+    }
+
+    /**
+     * Returns whether the batch already holds writes for the employee.
+     * @param empNo the employee number
+     * @return true if a promotion of the employee is pending in this batch
+     */
+    public boolean touches(int empNo) {
+        return empNos.contains(empNo);
+    }
+
+    /**
+     * Returns whether no write has been collected.
+     * @return true if there is nothing to execute
+     */
+    public boolean isEmpty() {
+        return empNos.isEmpty();
+    }
+
+    /**
+     * Executes all collected writes, one JDBC batch per statement type, and clears them.
+     * <p>
+     * Must run inside the transaction the promotions belong to.
+     * </p>
+     *
+     * @param jdbcTemplate the template bound to the application's data source
+     * @throws ResponseStatusException with {@code 409} if a record to close is no longer open
+     */
+    public void execute(JdbcTemplate jdbcTemplate) {
+        run(jdbcTemplate, CLOSE_SALARY, closeSalaries, true);
+        run(jdbcTemplate, INSERT_SALARY, insertSalaries, false);
+        run(jdbcTemplate, CLOSE_TITLE, closeTitles, true);
+        run(jdbcTemplate, INSERT_TITLE, insertTitles, false);
+        run(jdbcTemplate, CLOSE_DEPARTMENT, closeDepartments, true);
+        run(jdbcTemplate, REOPEN_DEPARTMENT, reopenDepartments, false);
+        run(jdbcTemplate, INSERT_DEPARTMENT, insertDepartments, false);
+        run(jdbcTemplate, CLOSE_MANAGER, closeManagers, true);
+        run(jdbcTemplate, REOPEN_MANAGER, reopenManagers, false);
+        run(jdbcTemplate, INSERT_MANAGER, insertManagers, false);
+        empNos.clear();
+    }
+
+    /**
+     * Runs one JDBC batch; closing updates must each hit exactly one open row.
+     */
+    private static void run(JdbcTemplate jdbcTemplate, String sql, List<Object[]> args, boolean closing) {
+        if (args.isEmpty()) {
+            return;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(sql, args);
+        for (int i = 0; closing && i < counts.length; i++) {
+            // drivers that rewrite batches may only report SUCCESS_NO_INFO
+            if (counts[i] != 1 && counts[i] != Statement.SUCCESS_NO_INFO) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "{\"error\":\"Employee " + args.get(i)[1] + " was changed concurrently, retry the promotion\"}");
+            }
+        }
+        args.clear();
+    }
+}
@@ -0,0 +1,101 @@
+package digicorp.employeemanagementsb.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Retries failed loads of in-memory read models on a background thread.
+ * <p>
+ * Read models such as {@link DepartmentPayrollAggregates} are loaded once at
+ * startup. If that load fails, requests answer without them instead of running
+ * the load themselves, and the load is retried here with exponential backoff,
+ * from {@code employees.reload-retry.initial-delay-ms} up to
+ * {@code employees.reload-retry.max-delay-ms} between attempts, until it succeeds.
+ * </p>
+ */
+@Component
+public class ReloadRetry {
+
+    private static final Logger log = LoggerFactory.getLogger(ReloadRetry.class);
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "reload-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long initialDelayMs;
+    private final long maxDelayMs;
+    /** The read models with a retry scheduled. */
+    private final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs the retry scheduler.
+     *
+     * @param initialDelayMs the delay before the first retry, in milliseconds
+     * @param maxDelayMs the longest delay between two retries, in milliseconds
+     */
+    public ReloadRetry(@Value("${employees.reload-retry.initial-delay-ms:1000}") long initialDelayMs,
+                       @Value("${employees.reload-retry.max-delay-ms:60000}") long maxDelayMs) {
+        this.initialDelayMs = Math.max(1, initialDelayMs);
+        this.maxDelayMs = Math.max(this.initialDelayMs, maxDelayMs);
+    }
+
+    /**
+     * Schedules retries of a failed load until it succeeds.
+     * <p>
+     * Does nothing if retries of the same read model are already scheduled.
+     * </p>
+     *
+     * @param name the name of the read model, used for logging and to avoid duplicate retries
+     * @param load loads the read model if it is still missing; returns whether it is loaded afterwards
+     */
+    public void schedule(String name, BooleanSupplier load) {
+        if (scheduled.add(name)) {
+            submit(name, load, initialDelayMs);
+        }
+    }
+
+    private void submit(String name, BooleanSupplier load, long delayMs) {
+        try {
+            executor.schedule(() -> attempt(name, load, delayMs), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            // shutting down
+            scheduled.remove(name);
+        }
+    }
+
+    private void attempt(String name, BooleanSupplier load, long delayMs) {
+        boolean loaded;
+        try {
+            loaded = load.getAsBoolean();
+        } catch (RuntimeException e) {
+            loaded = false;
+        }
+        if (loaded) {
+            scheduled.remove(name);
+            log.info("Loaded {} on retry", name);
+            return;
+        }
+        long next = Math.min(delayMs * 2, maxDelayMs);
+        log.warn("{} still not loaded, retrying in {} ms", name, next);
+        submit(name, load, next);
+    }
+
+    /**
+     * Cancels all pending retries.
+     */
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+}
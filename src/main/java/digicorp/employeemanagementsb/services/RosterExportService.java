@@ -0,0 +1,104 @@
+package digicorp.employeemanagementsb.services;
+
+import digicorp.employeemanagementsb.dto.EmployeeRecordDTO;
+import digicorp.employeemanagementsb.repository.EmployeeRepo;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * Service that streams a complete department roster to an output stream.
+ * <p>
+ * Rows are read through {@link EmployeeRepo#streamByDepartment(String)} and
+ * written one at a time, so neither the result set nor the response body is
+ * ever held in memory as a whole.
+ * </p>
+ */
+@Service
+@Transactional(readOnly = true)
+public class RosterExportService {
+
+    private final EmployeeRepo employeeRepo;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructs a {@code RosterExportService}.
+     *
+     * @param employeeRepo the repository used for streaming department rosters
+     * @param objectMapper the mapper used to write NDJSON
+     */
+    public RosterExportService(EmployeeRepo employeeRepo, ObjectMapper objectMapper) {
+        this.employeeRepo = employeeRepo;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes the roster of a department as newline-delimited JSON, one employee per line.
+     *
+     * @param deptNo the department number
+     * @param out    the stream to write to; it is flushed but not closed
+     */
+    public void writeNdjson(String deptNo, OutputStream out) {
+        OutputStream buffered = new BufferedOutputStream(out);
+        try (Stream<EmployeeRecordDTO> rows = employeeRepo.streamByDepartment(deptNo)) {
+            for (EmployeeRecordDTO row : (Iterable<EmployeeRecordDTO>) rows::iterator) {
+                buffered.write(objectMapper.writeValueAsBytes(row));
+                buffered.write('\n');
+            }
+            buffered.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the roster of a department as CSV with a header row.
+     *
+     * @param deptNo the department number
+     * @param out    the stream to write to; it is flushed but not closed
+     */
+    public void writeCsv(String deptNo, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<EmployeeRecordDTO> rows = employeeRepo.streamByDepartment(deptNo)) {
+            writer.write("empNo,firstName,lastName,hireDate\n");
+            for (EmployeeRecordDTO row : (Iterable<EmployeeRecordDTO>) rows::iterator) {
+                writer.write(Integer.toString(row.getEmpNo()));
+                writer.write(',');
+                writer.write(csv(row.getFirstName()));
+                writer.write(',');
+                writer.write(csv(row.getLastName()));
+                writer.write(',');
+                writer.write(row.getHireDate() == null ? "" : row.getHireDate().toString());
+                writer.write('\n');
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Quotes a CSV field if it contains a separator, quote or line break.
+     */
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,57 @@
+package digicorp.employeemanagementsb.services;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Locale;
+
+/**
+ * Which members of a department roster are listed, selected through the
+ * {@code status} query parameter of {@code /employees/by-department}.
+ * <p>
+ * A roster row is current while its {@code to_date} is {@link PromotionState#OPEN}.
+ * </p>
+ */
+public enum RosterStatus {
+
+    /** Employees currently assigned to the department. */
+    CURRENT("current"),
+    /** Employees who have left the department. */
+    FORMER("former"),
+    /** Everyone who has ever been assigned to the department. */
+    ALL("all");
+
+    private final String paramName;
+
+    RosterStatus(String paramName) {
+        this.paramName = paramName;
+    }
+
+    /**
+     * Returns the name used for this status in the {@code status} query parameter.
+     *
+     * @return the query parameter value
+     */
+    public String getParamName() { return paramName; }
+
+    /**
+     * Parses the {@code status} query parameter.
+     *
+     * @param value {@code current}, {@code former} or {@code all}, in any case; blank means {@code all}
+     * @return the roster status
+     * @throws ResponseStatusException if the value is not a known status
+     */
+    public static RosterStatus parse(String value) {
+        if (value == null || value.isBlank()) {
+            return ALL;
+        }
+        String name = value.trim().toLowerCase(Locale.ROOT);
+        for (RosterStatus status : values()) {
+            if (status.paramName.equals(name)) {
+                return status;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "{\"error\":\"status must be one of: current, former, all\"}");
+    }
+}
@@ -0,0 +1,129 @@
+package digicorp.employeemanagementsb.util;
+
+/**
+ * Open-addressing hash map from positive {@code int} keys to {@code int} values.
+ * <p>
+ * Keys and values live in two flat {@code int[]} arrays, so an entry costs a few
+ * bytes instead of the boxed {@code Integer} key, value and node objects of a
+ * {@code HashMap<Integer, Integer>}. That matters when the map holds one entry per
+ * employee. Key {@code 0} is reserved as the empty marker; employee numbers are
+ * always positive. Entries cannot be removed.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe; callers must synchronize access.
+ * </p>
+ */
+public class IntIntHashMap {
+
+    private static final int EMPTY = 0;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    /**
+     * Creates a map sized for the expected number of entries.
+     *
+     * @param expectedSize the number of entries expected
+     */
+    public IntIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Returns the value mapped to a key.
+     *
+     * @param key          a positive key
+     * @param defaultValue the value returned if the key is absent
+     * @return the mapped value, or {@code defaultValue}
+     */
+    public int get(int key, int defaultValue) {
+        int i = indexOf(key);
+        return keys[i] == EMPTY ? defaultValue : values[i];
+    }
+
+    /**
+     * Checks whether a key is present.
+     *
+     * @param key a positive key
+     * @return true if the key is mapped
+     */
+    public boolean containsKey(int key) {
+        return keys[indexOf(key)] != EMPTY;
+    }
+
+    /**
+     * Maps a key to a value, replacing any previous value.
+     *
+     * @param key   a positive key
+     * @param value the value
+     * @throws IllegalArgumentException if the key is not positive
+     */
+    public void put(int key, int value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("key must be positive: " + key);
+        }
+        int i = indexOf(key);
+        if (keys[i] == EMPTY) {
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+        if (size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of mapped keys
+     */
+    public int size() { return size; }
+
+    private int indexOf(int key) {
+        int i = mix(key) & mask;
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int j = indexOf(oldKeys[i]);
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Spreads sequential keys such as employee numbers across the table.
+     */
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public String toString() {
+        return "IntIntHashMap{size=" + size + ", capacity=" + keys.length + '}';
+    }
+}
@@ -0,0 +1,9 @@
+/**
+ * Small, dependency-free data structures used by the service layer.
+ * <p>
+ * Classes in this package hold large in-memory indexes compactly, for example
+ * maps keyed by primitive employee numbers. They contain no Spring or JPA code
+ * and are not thread-safe unless stated otherwise.
+ * </p>
+ */
+package digicorp.employeemanagementsb.util;
@@ -0,0 +1,14 @@
+-- Covering index for GET /employees/by-department?status=current|former.
+--
+-- Apply once to the employees database (MariaDB); the statement is idempotent:
+--   mariadb employees < src/main/resources/db/migration/001-dept-emp-roster-index.sql
+--
+-- With status=current the roster query filters on dept_no = ? AND to_date = '9999-01-01'
+-- and orders by emp_no. Both filters are equalities on the leading columns, so the rows
+-- come from a single index range already in emp_no order, and a cursor slice
+-- (emp_no > ?) starts with a seek. emp_no completes the index, so dept_emp itself is
+-- not read. status=former is a range on to_date within the department.
+-- On large tables, run it outside peak hours: InnoDB builds the index online but the
+-- build still reads the whole table.
+
+CREATE INDEX IF NOT EXISTS dept_emp_dept_no_to_date ON dept_emp (dept_no, to_date, emp_no);
@@ -0,0 +1,175 @@
+package digicorp.employeemanagementsb;
+
+import digicorp.employeemanagementsb.dto.PromotionRequestDTO;
+import digicorp.employeemanagementsb.model.Employee;
+import digicorp.employeemanagementsb.model.SalaryHistory;
+import digicorp.employeemanagementsb.services.DepartmentCache;
+import digicorp.employeemanagementsb.services.EmployeeFetchPlan;
+import digicorp.employeemanagementsb.services.EmployeeHistoryService;
+import digicorp.employeemanagementsb.services.EmployeeService;
+import digicorp.employeemanagementsb.services.PromotionState;
+import digicorp.employeemanagementsb.services.RosterStatus;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the read/write routing of {@link DataSourceRoutingConfig} against two
+ * in-memory databases.
+ * <p>
+ * The primary is the seeded load-test database; the replica has the same schema
+ * but no rows, so a read that returns nothing must have been served by the replica.
+ * Rows copied into the replica before a promotion stand for a replica lagging
+ * behind it.
+ * </p>
+ */
+@SpringBootTest(properties = {
+        "loadtest.employees=200",
+        "loadtest.driver.enabled=false",
+        "employees.datasource.replica.url=jdbc:h2:mem:replica-${random.uuid};MODE=MariaDB;DATABASE_TO_LOWER=TRUE;"
+                + "DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS employees\\\\;SET SCHEMA employees"})
+@ActiveProfiles("loadtest")
+class DataSourceRoutingTests {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeHistoryService employeeHistoryService;
+
+    @Autowired
+    private DepartmentCache departmentCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private int empNo;
+
+    @BeforeEach
+    void createReplicaSchema() {
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        Integer tables = replica.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = 'employees'", Integer.class);
+        if (tables == null || tables == 0) {
+            new ResourceDatabasePopulator(new ClassPathResource("loadtest/schema.sql")).execute(replicaDataSource);
+        }
+        // the second-level cache is shared by all test contexts and would answer without either database
+        entityManagerFactory.getCache().evictAll();
+        empNo = jdbcTemplate.queryForObject("""
+                SELECT MIN(s.emp_no) FROM salaries s
+                JOIN titles t ON t.emp_no = s.emp_no AND t.to_date = ?
+                JOIN dept_emp d ON d.emp_no = s.emp_no AND d.to_date = ?
+                WHERE s.to_date = ?""",
+                Integer.class, PromotionState.OPEN, PromotionState.OPEN, PromotionState.OPEN);
+    }
+
+    @Test
+    void readOnlyServiceMethodsUseTheReplica() {
+        ResponseStatusException notFound = assertThrows(ResponseStatusException.class,
+                () -> employeeService.getCurrentState(empNo));
+        assertEquals(HttpStatus.NOT_FOUND, notFound.getStatusCode());
+
+        String deptNo = jdbcTemplate.queryForObject("SELECT MIN(dept_no) FROM dept_emp", String.class);
+        assertTrue(employeeService.findByDepartment(deptNo, 1, RosterStatus.ALL).isEmpty(), "department read from the replica");
+    }
+
+    @Test
+    void departmentListIsLoadedFromThePrimary() {
+        departmentCache.invalidate();
+        try {
+            assertFalse(departmentCache.get().getDepartments().isEmpty(), "departments read from the primary");
+        } finally {
+            departmentCache.invalidate();
+        }
+    }
+
+    @Test
+    void cachedReadsIgnoreALaggingReplica() {
+        int lagging = jdbcTemplate.queryForObject("SELECT MAX(emp_no) FROM salaries WHERE to_date = ?",
+                Integer.class, PromotionState.OPEN);
+        copyToReplica("employees", lagging);
+        copyToReplica("salaries", lagging);
+        LocalDate openedBefore = jdbcTemplate.queryForObject(
+                "SELECT from_date FROM salaries WHERE emp_no = ? AND to_date = ?",
+                LocalDate.class, lagging, PromotionState.OPEN);
+        EmployeeFetchPlan salaries = EmployeeFetchPlan.SALARIES;
+        // cached before the promotion, so the promotion has entries to lock
+        employeeService.getEmployee(lagging, EnumSet.of(salaries));
+        LocalDate fromDate = LocalDate.now();
+        employeeService.promoteEmployee(promotion(lagging, fromDate));
+
+        // the replica still has the previous salary open, and must not put it into the cache
+        SalaryHistory replicaRow = employeeHistoryService.getSalaries(lagging, openedBefore, null, null).getRecords()
+                .stream().filter(s -> s.getId().getFromDate().equals(openedBefore)).findFirst().orElseThrow();
+        assertEquals(PromotionState.OPEN, replicaRow.getToDate(), "salary read from the lagging replica");
+
+        for (int read = 0; read < 2; read++) {
+            Employee employee = employeeService.getEmployee(lagging, EnumSet.of(salaries));
+            List<SalaryHistory> history = employee.getSalaryHistory();
+            SalaryHistory previous = history.stream()
+                    .filter(s -> s.getId().getFromDate().equals(openedBefore)).findFirst().orElseThrow();
+            assertEquals(fromDate.minusDays(1), previous.getToDate(), "previous salary closed, read " + read);
+            assertTrue(history.stream().anyMatch(s -> s.getId().getFromDate().equals(fromDate)),
+                    "new salary present, read " + read);
+        }
+        assertEquals(95000, employeeService.getStateAsOf(lagging, fromDate).getSalary());
+    }
+
+    @Test
+    void promotionsUseThePrimary() {
+        employeeService.promoteEmployee(promotion(empNo, LocalDate.of(2020, 1, 1)));
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM titles WHERE emp_no = ? AND title = ? AND to_date = ?",
+                Integer.class, empNo, "Routing Engineer", PromotionState.OPEN));
+    }
+
+    private static PromotionRequestDTO promotion(int empNo, LocalDate fromDate) {
+        PromotionRequestDTO dto = new PromotionRequestDTO();
+        dto.setEmpNo(empNo);
+        dto.setNewTitle("Routing Engineer");
+        dto.setFromDate(fromDate);
+        dto.setNewSalary(95000);
+        dto.setDeptNo("d001");
+        dto.setManager(false);
+        return dto;
+    }
+
+    private void copyToReplica(String table, int empNo) {
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT * FROM " + table + " WHERE emp_no = ?", empNo)) {
+            String columns = String.join(", ", row.keySet());
+            String placeholders = String.join(", ", row.keySet().stream().map(c -> "?").toList());
+            replica.update("INSERT INTO " + table + " (" + columns + ") VALUES (" + placeholders + ")",
+                    row.values().toArray());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package digicorp.employeemanagementsb.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the endpoints against the seeded load-test database with SQL budgets in
+ * {@code fail} mode, so a request that exceeds its {@link SqlBudget} or repeats a
+ * statement fails the test.
+ */
+@SpringBootTest(properties = {
+        "loadtest.employees=200",
+        "loadtest.driver.enabled=false",
+        "employees.sql-statistics.budget-mode=fail"})
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class SqlBudgetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void departmentEndpointsStayWithinBudget() throws Exception {
+        expectWithinBudget(get("/department"));
+        expectWithinBudget(get("/department/payroll"));
+        expectWithinBudget(get("/department/headcount"));
+    }
+
+    @Test
+    void employeeEndpointsStayWithinBudget() throws Exception {
+        expectWithinBudget(get("/employees/10050"));
+        expectWithinBudget(get("/employees/10050?include=all"));
+        expectWithinBudget(get("/employees/10050/current"));
+        expectWithinBudget(get("/employees/10050?asOf=1995-01-01"));
+        expectWithinBudget(get("/employees/search?q=geo"));
+    }
+
+    @Test
+    void historyEndpointsStayWithinBudget() throws Exception {
+        expectWithinBudget(get("/employees/10050/salaries?from=1995-01-01"));
+        expectWithinBudget(get("/employees/10050/titles"));
+        expectWithinBudget(get("/employees/10005/departments"));
+        expectWithinBudget(get("/employees/10005/managers"));
+    }
+
+    @Test
+    void departmentListingsStayWithinBudget() throws Exception {
+        expectWithinBudget(get("/employees/by-department?deptNo=d005"));
+        expectWithinBudget(get("/employees/by-department?deptNo=d005&page=2"));
+        expectWithinBudget(get("/employees/by-department?deptNo=d005&status=current"));
+        expectWithinBudget(get("/employees/by-department?deptNo=d005&status=former&after="));
+        expectWithinBudget(get("/employees/by-department/export?deptNo=d005").accept("application/x-ndjson"));
+    }
+
+    @Test
+    void promotionStaysWithinBudget() throws Exception {
+        expectWithinBudget(post("/employees/promote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"empNo": 10060, "newTitle": "Senior Engineer", "fromDate": "2003-01-01",
+                         "newSalary": 90000, "deptNo": "d001", "manager": true}
+                        """));
+    }
+
+    @Test
+    void asyncPromotionQueuesWithoutStatements() throws Exception {
+        String location = mockMvc.perform(post("/employees/promote?async=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"empNo": 10061, "newTitle": "Senior Engineer", "fromDate": "2003-01-01",
+                                 "newSalary": 90000, "deptNo": "d002", "manager": false}
+                                """))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(SqlStatisticsFilter.STATEMENTS_HEADER, "0"))
+                .andReturn().getResponse().getHeader("Location");
+        expectWithinBudget(get(location));
+    }
+
+    private void expectWithinBudget(RequestBuilder request) throws Exception {
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlStatisticsFilter.STATEMENTS_HEADER));
+    }
+}
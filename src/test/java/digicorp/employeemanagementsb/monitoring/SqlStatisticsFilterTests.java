@@ -0,0 +1,135 @@
+package digicorp.employeemanagementsb.monitoring;
+
+import org.h2.Driver;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests {@link SqlStatisticsFilter} and {@link SqlStatisticsDataSource} against an
+ * in-memory H2 database.
+ */
+class SqlStatisticsFilterTests {
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void createTable() {
+        jdbcTemplate = new JdbcTemplate(new SqlStatisticsDataSource(
+                new SimpleDriverDataSource(new Driver(), "jdbc:h2:mem:sqlstatistics;DB_CLOSE_DELAY=-1")));
+        jdbcTemplate.execute("CREATE TABLE items (id INT PRIMARY KEY)");
+        jdbcTemplate.batchUpdate("INSERT INTO items (id) VALUES (?)",
+                java.util.List.of(new Object[]{1}, new Object[]{2}, new Object[]{3}));
+    }
+
+    @Test
+    void reportsStatementsRowsAndTimeAsHeaders() throws Exception {
+        MockHttpServletResponse response = run(SqlStatisticsFilter.BudgetMode.FAIL, "unlimited", (res) -> {
+            jdbcTemplate.queryForList("SELECT id FROM items", Integer.class);
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items", Integer.class);
+            write(res, "{}");
+        });
+
+        assertThat(response.getHeader(SqlStatisticsFilter.STATEMENTS_HEADER)).isEqualTo("2");
+        assertThat(response.getHeader(SqlStatisticsFilter.ROWS_HEADER)).isEqualTo("4");
+        assertThat(response.getHeader(SqlStatisticsFilter.TIME_HEADER)).matches("\\d+\\.\\d{3}");
+    }
+
+    @Test
+    void countsABatchAsOneStatement() throws Exception {
+        MockHttpServletResponse response = run(SqlStatisticsFilter.BudgetMode.FAIL, "unlimited", (res) ->
+                jdbcTemplate.batchUpdate("UPDATE items SET id = id WHERE id = ?",
+                        java.util.List.of(new Object[]{1}, new Object[]{2})));
+
+        assertThat(response.getHeader(SqlStatisticsFilter.STATEMENTS_HEADER)).isEqualTo("1");
+    }
+
+    @Test
+    void failsWhenTheBudgetIsExceeded() {
+        assertThatThrownBy(() -> run(SqlStatisticsFilter.BudgetMode.FAIL, "oneStatement", (res) -> {
+            jdbcTemplate.queryForList("SELECT id FROM items", Integer.class);
+            jdbcTemplate.queryForList("SELECT id FROM items WHERE id > 1", Integer.class);
+        }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("executed 2 SQL statements, budget is 1");
+    }
+
+    @Test
+    void failsWhenAStatementIsRepeatedPerRow() {
+        assertThatThrownBy(() -> run(SqlStatisticsFilter.BudgetMode.FAIL, "unlimited", (res) -> {
+            for (int id : jdbcTemplate.queryForList("SELECT id FROM items", Integer.class)) {
+                jdbcTemplate.queryForObject("SELECT id FROM items WHERE id = ?", Integer.class, id);
+            }
+        }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("3 times (possible N+1)");
+    }
+
+    @Test
+    void onlyLogsInLogMode() throws Exception {
+        MockHttpServletResponse response = run(SqlStatisticsFilter.BudgetMode.LOG, "oneStatement", (res) -> {
+            jdbcTemplate.queryForList("SELECT id FROM items", Integer.class);
+            jdbcTemplate.queryForList("SELECT id FROM items", Integer.class);
+        });
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(SqlStatisticsFilter.STATEMENTS_HEADER)).isEqualTo("2");
+    }
+
+    @Test
+    void countsNothingOutsideOfARequest() {
+        jdbcTemplate.queryForList("SELECT id FROM items", Integer.class);
+
+        assertThat(SqlStatistics.current()).isNull();
+    }
+
+    private static MockHttpServletResponse run(SqlStatisticsFilter.BudgetMode mode, String handlerMethod,
+                                               Consumer<HttpServletResponse> body) throws Exception {
+        SqlStatisticsFilter filter = new SqlStatisticsFilter(mode, 2);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                new HandlerMethod(new Handlers(), Handlers.class.getMethod(handlerMethod)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                body.accept(res);
+            }
+        }));
+        return response;
+    }
+
+    private static void write(HttpServletResponse response, String content) {
+        try {
+            response.getOutputStream().print(content);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Stand-ins for controller methods. */
+    static class Handlers {
+        public void unlimited() {
+        }
+
+        @SqlBudget(statements = 1)
+        public void oneStatement() {
+        }
+    }
+}
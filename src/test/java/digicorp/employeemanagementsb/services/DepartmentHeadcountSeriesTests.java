@@ -0,0 +1,133 @@
+package digicorp.employeemanagementsb.services;
+
+import digicorp.employeemanagementsb.dto.DepartmentHeadcountDTO;
+import digicorp.employeemanagementsb.dto.PromotionRequestDTO;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Applies promotions to an already computed {@link DepartmentHeadcountSeries} and
+ * compares every month of every department with a direct count over {@code dept_emp}:
+ * a promotion within the department, a move to a new department, and a move back
+ * to a department the employee had left, which reopens its old row.
+ */
+@SpringBootTest(properties = {
+        "loadtest.employees=200",
+        "loadtest.driver.enabled=false"})
+@ActiveProfiles("loadtest")
+class DepartmentHeadcountSeriesTests {
+
+    @Autowired
+    private DepartmentHeadcountSeries departmentHeadcountSeries;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void promotionsKeepTheSeriesEqualToDeptEmp() {
+        assertSeriesMatchesDeptEmp();
+
+        // active employees with a single department row who never managed one
+        List<Integer> empNos = jdbcTemplate.queryForList("""
+                SELECT de.emp_no FROM dept_emp de
+                WHERE de.to_date = ?
+                    AND NOT EXISTS (SELECT 1 FROM dept_emp o WHERE o.emp_no = de.emp_no AND o.dept_no <> de.dept_no)
+                    AND NOT EXISTS (SELECT 1 FROM dept_manager m WHERE m.emp_no = de.emp_no)
+                ORDER BY de.emp_no DESC
+                FETCH FIRST 2 ROWS ONLY""",
+                Integer.class, PromotionState.OPEN);
+        int mover = empNos.get(0);
+        int other = empNos.get(1);
+        String home = deptOf(mover);
+        String away = home.equals("d001") ? "d002" : "d001";
+
+        // mid-month dates, so the first counted month differs from the month of the date
+        LocalDate date = latestOpenDate(mover).plusDays(40).withDayOfMonth(15);
+        promote(mover, home, date);
+        assertSeriesMatchesDeptEmp();
+
+        date = date.plusDays(70);
+        promote(mover, away, date);
+        promote(other, away.equals(deptOf(other)) ? home : away, latestOpenDate(other).plusDays(50));
+        assertSeriesMatchesDeptEmp();
+
+        // reopens the row of the department the employee left
+        promote(mover, home, date.plusDays(100));
+        assertSeriesMatchesDeptEmp();
+    }
+
+    private void assertSeriesMatchesDeptEmp() {
+        Map<String, int[]> expected = countDeptEmp();
+        for (DepartmentHeadcountDTO series : departmentHeadcountSeries.getSeries(null)) {
+            int[] counts = expected.getOrDefault(series.getDeptNo(), new int[series.getHeadcounts().length]);
+            assertArrayEquals(counts, series.getHeadcounts(), "headcounts of " + series.getDeptNo());
+        }
+    }
+
+    /**
+     * Counts, for every month of the series, the {@code dept_emp} rows covering its first day.
+     *
+     * @return the headcounts keyed by department number
+     */
+    private Map<String, int[]> countDeptEmp() {
+        YearMonth start = YearMonth.of(DepartmentHeadcountSeries.START_YEAR, 1);
+        YearMonth now = YearMonth.now();
+        int months = (now.getYear() - start.getYear()) * 12 + now.getMonthValue();
+        Map<String, int[]> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT dept_no, from_date, to_date FROM dept_emp", rs -> {
+            int[] deptCounts = counts.computeIfAbsent(rs.getString(1), d -> new int[months]);
+            LocalDate from = rs.getObject(2, LocalDate.class);
+            LocalDate to = rs.getObject(3, LocalDate.class);
+            for (int i = 0; i < months; i++) {
+                LocalDate firstDay = start.plusMonths(i).atDay(1);
+                if (!firstDay.isBefore(from) && !firstDay.isAfter(to)) {
+                    deptCounts[i]++;
+                }
+            }
+        });
+        return counts;
+    }
+
+    private String deptOf(int empNo) {
+        return jdbcTemplate.queryForObject("SELECT dept_no FROM dept_emp WHERE emp_no = ? AND to_date = ?",
+                String.class, empNo, PromotionState.OPEN);
+    }
+
+    private LocalDate latestOpenDate(int empNo) {
+        LocalDate latest = jdbcTemplate.queryForObject("""
+                SELECT MAX(from_date) FROM (
+                    SELECT from_date FROM salaries WHERE emp_no = ? AND to_date = ?
+                    UNION ALL SELECT from_date FROM titles WHERE emp_no = ? AND to_date = ?
+                    UNION ALL SELECT from_date FROM dept_emp WHERE emp_no = ? AND to_date = ?) t""",
+                LocalDate.class, empNo, PromotionState.OPEN, empNo, PromotionState.OPEN, empNo, PromotionState.OPEN);
+        assertTrue(latest.plusYears(1).isBefore(LocalDate.now()), "promotions fall within the series");
+        return latest;
+    }
+
+    private void promote(int empNo, String deptNo, LocalDate fromDate) {
+        PromotionRequestDTO dto = new PromotionRequestDTO();
+        dto.setEmpNo(empNo);
+        dto.setNewTitle("Senior Engineer");
+        dto.setFromDate(fromDate);
+        dto.setNewSalary(90000);
+        dto.setDeptNo(deptNo);
+        dto.setManager(false);
+        employeeService.promoteEmployee(dto);
+    }
+}
@@ -0,0 +1,137 @@
+package digicorp.employeemanagementsb.services;
+
+import digicorp.employeemanagementsb.controller.Controller;
+import digicorp.employeemanagementsb.dto.PromotionRequestDTO;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares the department listings and the roster counts of
+ * {@link DepartmentRosterCounts} with {@code dept_emp}: per {@link RosterStatus},
+ * and before and after a promotion moves an employee into a department they have
+ * never worked in.
+ */
+@SpringBootTest(properties = {
+        "loadtest.employees=200",
+        "loadtest.driver.enabled=false"})
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class DepartmentRosterCountsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void listingsCarryTheRosterCounts() throws Exception {
+        mockMvc.perform(get("/employees/by-department?deptNo=D005&page=2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Controller.TOTAL_COUNT_HEADER, Integer.toString(total("d005"))))
+                .andExpect(header().string(Controller.HEADCOUNT_HEADER, Integer.toString(current("d005"))));
+        mockMvc.perform(get("/employees/by-department?deptNo=d005&after="))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Controller.TOTAL_COUNT_HEADER, Integer.toString(total("d005"))));
+    }
+
+    @Test
+    void promotionsAdjustTheCounts() throws Exception {
+        // an active employee with a single department row who never managed one
+        int empNo = jdbcTemplate.queryForObject("""
+                SELECT MIN(de.emp_no) FROM dept_emp de
+                WHERE de.to_date = ?
+                    AND NOT EXISTS (SELECT 1 FROM dept_emp o WHERE o.emp_no = de.emp_no AND o.dept_no <> de.dept_no)
+                    AND NOT EXISTS (SELECT 1 FROM dept_manager m WHERE m.emp_no = de.emp_no)""",
+                Integer.class, PromotionState.OPEN);
+        String from = jdbcTemplate.queryForObject("SELECT dept_no FROM dept_emp WHERE emp_no = ?", String.class, empNo);
+        String to = from.equals("d001") ? "d002" : "d001";
+
+        PromotionRequestDTO dto = new PromotionRequestDTO();
+        dto.setEmpNo(empNo);
+        dto.setNewTitle("Transferred Engineer");
+        dto.setFromDate(LocalDate.of(2003, 1, 1));
+        dto.setNewSalary(80000);
+        dto.setDeptNo(to);
+        dto.setManager(false);
+        employeeService.promoteEmployee(dto);
+
+        for (String deptNo : new String[] {from, to}) {
+            mockMvc.perform(get("/employees/by-department?deptNo=" + deptNo))
+                    .andExpect(header().string(Controller.TOTAL_COUNT_HEADER, Integer.toString(total(deptNo))))
+                    .andExpect(header().string(Controller.HEADCOUNT_HEADER, Integer.toString(current(deptNo))));
+        }
+    }
+
+    @Test
+    void statusSelectsCurrentOrFormerMembers() throws Exception {
+        List<Integer> current = jdbcTemplate.queryForList(
+                "SELECT emp_no FROM dept_emp WHERE dept_no = 'd004' AND to_date = ? ORDER BY emp_no",
+                Integer.class, PromotionState.OPEN);
+        List<Integer> former = jdbcTemplate.queryForList(
+                "SELECT emp_no FROM dept_emp WHERE dept_no = 'd004' AND to_date < ? ORDER BY emp_no",
+                Integer.class, PromotionState.OPEN);
+
+        assertEquals(current, listAll("current"));
+        assertEquals(former, listAll("former"));
+        mockMvc.perform(get("/employees/by-department?deptNo=d004&status=former"))
+                .andExpect(header().string(Controller.TOTAL_COUNT_HEADER, Integer.toString(former.size())));
+        mockMvc.perform(get("/employees/by-department?deptNo=d004&status=retired"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Follows the cursors of a department listing until the last slice.
+     *
+     * @param status the status filter
+     * @return the employee numbers of all slices in order
+     */
+    private List<Integer> listAll(String status) throws Exception {
+        List<Integer> empNos = new ArrayList<>();
+        String cursor = "";
+        do {
+            MvcResult result = mockMvc.perform(get("/employees/by-department?deptNo=d004&status=" + status
+                            + "&after=" + cursor))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            JsonNode page = objectMapper.readTree(result.getResponse().getContentAsByteArray());
+            page.get("employees").forEach(e -> empNos.add(e.get("empNo").asInt()));
+            JsonNode next = page.path("nextCursor");
+            cursor = next.isNull() || next.isMissingNode() ? null : next.asString();
+        } while (cursor != null);
+        return empNos;
+    }
+
+    private int total(String deptNo) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM dept_emp WHERE dept_no = ?", Integer.class, deptNo);
+    }
+
+    private int current(String deptNo) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM dept_emp WHERE dept_no = ? AND to_date = ?",
+                Integer.class, deptNo, PromotionState.OPEN);
+    }
+}
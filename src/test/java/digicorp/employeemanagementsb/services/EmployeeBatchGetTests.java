@@ -0,0 +1,99 @@
+package digicorp.employeemanagementsb.services;
+
+import digicorp.employeemanagementsb.loadtest.SyntheticDataset;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs {@code POST /employees/batch-get} against the seeded load-test database.
+ * <p>
+ * With a chunk size of 100, all 1,000 employees are fetched with their four
+ * histories; the statement count must grow with the 10 chunks, not with the
+ * employees, and the answer must keep the request order.
+ * </p>
+ */
+@SpringBootTest(properties = {
+        "loadtest.employees=1000",
+        "loadtest.driver.enabled=false",
+        "employees.batch-get.chunk-size=100"})
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class EmployeeBatchGetTests {
+
+    private static final int EMPLOYEES = 1000;
+    private static final int CHUNKS = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void employeesAreReturnedInRequestOrderWithNullsForUnknownNumbers() throws Exception {
+        List<Integer> empNos = List.of(10050, 99999, 10001, 10050);
+        JsonNode employees = batchGet(empNos, "titles");
+
+        assertEquals(4, employees.size());
+        assertEquals(10050, employees.get(0).get("empNo").asInt());
+        assertTrue(employees.get(1).isNull(), "unknown employee");
+        assertEquals(10001, employees.get(2).get("empNo").asInt());
+        assertEquals(employees.get(0), employees.get(3));
+        assertFalse(employees.get(0).get("titleHistory").isEmpty(), "requested collection");
+        assertFalse(employees.get(0).has("salaryHistory"), "collection not requested");
+    }
+
+    @Test
+    void statementsGrowWithChunksNotEmployees() throws Exception {
+        // descending, so the answer cannot follow the database order by accident
+        List<Integer> empNos = new ArrayList<>();
+        for (int i = EMPLOYEES - 1; i >= 0; i--) {
+            empNos.add(SyntheticDataset.FIRST_EMP_NO + i);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long before = statistics.getPrepareStatementCount();
+        JsonNode employees = batchGet(empNos, "all");
+        long statements = statistics.getPrepareStatementCount() - before;
+
+        assertEquals(EMPLOYEES, employees.size());
+        for (int i = 0; i < EMPLOYEES; i++) {
+            assertEquals(empNos.get(i), employees.get(i).get("empNo").asInt());
+            assertTrue(employees.get(i).has("departments"), "departments of " + empNos.get(i));
+        }
+        // one query per collection and chunk, plus at most one for the departments
+        assertTrue(statements <= CHUNKS * 4 + 1, statements + " statements for " + CHUNKS + " chunks");
+    }
+
+    private JsonNode batchGet(List<Integer> empNos, String include) throws Exception {
+        byte[] body = mockMvc.perform(post("/employees/batch-get?include=" + include)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(empNos)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        return objectMapper.readTree(body);
+    }
+}
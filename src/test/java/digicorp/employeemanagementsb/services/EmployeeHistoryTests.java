@@ -0,0 +1,134 @@
+package digicorp.employeemanagementsb.services;
+
+import digicorp.employeemanagementsb.loadtest.SyntheticDataSeeder;
+import digicorp.employeemanagementsb.loadtest.SyntheticDataset;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pages through the history sub-resources of seeded employees and compares the
+ * result with the generated dataset.
+ * <p>
+ * A page size of 5 makes every salary history span several slices.
+ * </p>
+ */
+@SpringBootTest(properties = {
+        "loadtest.employees=200",
+        "loadtest.driver.enabled=false",
+        "employees.history.page-size=5"})
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class EmployeeHistoryTests {
+
+    private static final int EMP_NO = 10050;
+    private static final int EMPLOYEES = 200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SyntheticDataSeeder seeder;
+
+    @Test
+    void slicesCoverTheWholeHistoryInOrder() throws Exception {
+        SyntheticDataset.SyntheticEmployee employee = longestCareer();
+        List<SyntheticDataset.Record> expected = employee.getSalaries();
+        assertTrue(expected.size() > 10, "history spans at least three slices");
+
+        List<JsonNode> salaries = fetchAll("/employees/" + employee.getEmpNo() + "/salaries?");
+        assertEquals(expected.size(), salaries.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getFromDate().toString(), salaries.get(i).get("fromDate").asString());
+            assertEquals(expected.get(i).getAmount(), salaries.get(i).get("salary").asInt());
+        }
+    }
+
+    @Test
+    void periodFilterReturnsRecordsInEffectDuringThePeriod() throws Exception {
+        List<SyntheticDataset.Record> all = seeder.getDataset().generate(EMP_NO).getSalaries();
+        LocalDate from = all.get(2).getFromDate().plusDays(1);
+        LocalDate to = all.get(4).getFromDate();
+
+        List<JsonNode> salaries = fetchAll("/employees/" + EMP_NO + "/salaries?from=" + from + "&to=" + to + "&");
+        assertEquals(3, salaries.size());
+        assertEquals(all.get(2).getFromDate().toString(), salaries.get(0).get("fromDate").asString());
+        assertEquals(all.get(4).getFromDate().toString(), salaries.get(2).get("fromDate").asString());
+    }
+
+    @Test
+    void otherHistoriesAreServed() throws Exception {
+        SyntheticDataset.SyntheticEmployee employee = seeder.getDataset().generate(SyntheticDataset.FIRST_EMP_NO);
+        assertEquals(employee.getTitles().size(),
+                fetchAll("/employees/" + SyntheticDataset.FIRST_EMP_NO + "/titles?").size());
+        List<JsonNode> departments = fetchAll("/employees/" + SyntheticDataset.FIRST_EMP_NO + "/departments?");
+        assertEquals(employee.getDepartments().get(0).getLabel(), departments.get(0).get("deptNo").asString());
+        List<JsonNode> managers = fetchAll("/employees/" + SyntheticDataset.FIRST_EMP_NO + "/managers?");
+        assertEquals(employee.getManagers().size(), managers.size());
+        assertTrue(managers.get(0).has("deptName"), "department of the management period");
+    }
+
+    @Test
+    void invalidRequestsAreRejected() throws Exception {
+        mockMvc.perform(get("/employees/99999/titles")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/employees/" + EMP_NO + "/salaries?after=bogus")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/employees/" + EMP_NO + "/salaries?from=1999-13-01")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/employees/" + EMP_NO + "/salaries?from=2000-01-01&to=1999-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Returns the seeded employee with the most salary records.
+     *
+     * @return the generated employee
+     */
+    private SyntheticDataset.SyntheticEmployee longestCareer() {
+        SyntheticDataset.SyntheticEmployee longest = null;
+        for (int empNo = SyntheticDataset.FIRST_EMP_NO; empNo < SyntheticDataset.FIRST_EMP_NO + EMPLOYEES; empNo++) {
+            SyntheticDataset.SyntheticEmployee employee = seeder.getDataset().generate(empNo);
+            if (longest == null || employee.getSalaries().size() > longest.getSalaries().size()) {
+                longest = employee;
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * Follows the cursors of a history sub-resource until the last slice.
+     *
+     * @param url the sub-resource URL, ending in {@code ?} or {@code &}
+     * @return the records of all slices in order
+     */
+    private List<JsonNode> fetchAll(String url) throws Exception {
+        List<JsonNode> records = new ArrayList<>();
+        String cursor = "";
+        do {
+            byte[] body = mockMvc.perform(get(url + "after=" + cursor))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray();
+            JsonNode page = objectMapper.readTree(body);
+            page.get("records").forEach(records::add);
+            JsonNode next = page.path("nextCursor");
+            cursor = next.isNull() || next.isMissingNode() ? null : next.asString();
+        } while (cursor != null);
+        return records;
+    }
+}
@@ -0,0 +1,89 @@
+package digicorp.employeemanagementsb.services;
+
+import digicorp.employeemanagementsb.dto.EmployeePageDTO;
+import digicorp.employeemanagementsb.dto.EmployeeRecordDTO;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pages through name searches of {@link EmployeeNameIndex} in small slices and
+ * compares the result with the ranking computed from the {@code employees} table:
+ * whole-name matches first, then prefix matches, each by employee number.
+ */
+@SpringBootTest(properties = {
+        "loadtest.employees=200",
+        "loadtest.driver.enabled=false"})
+@ActiveProfiles("loadtest")
+class EmployeeNameIndexTests {
+
+    private static final int SLICE = 7;
+
+    @Autowired
+    private EmployeeNameIndex employeeNameIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void slicesFollowTheRankingAcrossCursors() {
+        // the most common first name has whole-name matches and usually longer names sharing its prefix
+        String name = jdbcTemplate.queryForObject("""
+                SELECT first_name FROM employees GROUP BY first_name ORDER BY COUNT(*) DESC, first_name
+                FETCH FIRST 1 ROWS ONLY""", String.class);
+        String prefix = name.substring(0, 2).toLowerCase(Locale.ROOT);
+
+        for (String query : new String[] {name.toLowerCase(Locale.ROOT), prefix}) {
+            List<Integer> expected = expectedRanking(query);
+            assertTrue(expected.size() > SLICE, "results span several slices");
+            assertEquals(expected, searchAll(query));
+            // the second run is served from the cached ranking
+            assertEquals(expected, searchAll(query));
+        }
+    }
+
+    /**
+     * Ranks the employees matching a one-word query straight from the database.
+     *
+     * @param word the lower-case query word
+     * @return the employee numbers, whole-name matches first, then by employee number
+     */
+    private List<Integer> expectedRanking(String word) {
+        List<Integer> exact = new ArrayList<>();
+        List<Integer> prefix = new ArrayList<>();
+        jdbcTemplate.query("SELECT emp_no, first_name, last_name FROM employees ORDER BY emp_no", rs -> {
+            String first = rs.getString(2).toLowerCase(Locale.ROOT);
+            String last = rs.getString(3).toLowerCase(Locale.ROOT);
+            if (first.equals(word) || last.equals(word)) {
+                exact.add(rs.getInt(1));
+            } else if (first.startsWith(word) || last.startsWith(word)) {
+                prefix.add(rs.getInt(1));
+            }
+        });
+        exact.addAll(prefix);
+        return exact;
+    }
+
+    private List<Integer> searchAll(String query) {
+        List<Integer> empNos = new ArrayList<>();
+        String cursor = "";
+        do {
+            EmployeePageDTO page = employeeNameIndex.search(query, cursor, SLICE);
+            for (EmployeeRecordDTO employee : page.getEmployees()) {
+                empNos.add(employee.getEmpNo());
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return empNos;
+    }
+}
@@ -0,0 +1,283 @@
+package digicorp.employeemanagementsb.services;
+
+import digicorp.employeemanagementsb.dto.PromotionRequestDTO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress test for concurrent promotions against the seeded load-test database.
+ * <p>
+ * Many threads promote the same employees at once; afterwards every employee must
+ * still have exactly one open salary, title and department record, and the open
+ * salary must be the latest accepted one. A second test promotes distinct
+ * employees with one thread and with one thread per core, checks that the
+ * parallel promotions held their locks at the same time and logs both
+ * throughputs. A third closes a record behind the current-state snapshot and
+ * expects the optimistic check to reject the promotion and roll it back.
+ * </p>
+ */
+@SpringBootTest(properties = {
+        "loadtest.employees=2000",
+        "loadtest.driver.enabled=false",
+        "employees.sql-statistics.enabled=false"})
+@ActiveProfiles("loadtest")
+class PromotionConcurrencyTests {
+
+    private static final Logger log = LoggerFactory.getLogger(PromotionConcurrencyTests.class);
+
+    private static final int CONTENDERS = 8;
+    private static final String[] DEPARTMENTS = {"d001", "d002", "d003", "d004"};
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LockHolders lockHolders;
+
+    private List<Integer> activeEmpNos;
+
+    @BeforeEach
+    void findActiveEmployees() {
+        activeEmpNos = jdbcTemplate.queryForList("""
+                SELECT DISTINCT s.emp_no FROM salaries s
+                JOIN titles t ON t.emp_no = s.emp_no AND t.to_date = ?
+                JOIN dept_emp d ON d.emp_no = s.emp_no AND d.to_date = ?
+                WHERE s.to_date = ? ORDER BY s.emp_no""",
+                Integer.class, PromotionState.OPEN, PromotionState.OPEN, PromotionState.OPEN);
+    }
+
+    @Test
+    void identicalPromotionsOfOneEmployeeSucceedOnce() throws Exception {
+        List<Integer> empNos = activeEmpNos.subList(0, 20);
+        for (int empNo : empNos) {
+            AtomicInteger promoted = new AtomicInteger();
+            run(CONTENDERS, i -> {
+                if (promote(empNo, LocalDate.of(2010, 1, 1), DEPARTMENTS[i % DEPARTMENTS.length])) {
+                    promoted.incrementAndGet();
+                }
+            });
+            assertEquals(1, promoted.get(), "promotions applied for " + empNo);
+            assertOneOpenRecordEach(empNo, LocalDate.of(2010, 1, 1));
+        }
+    }
+
+    @Test
+    void racingPromotionsOfOneEmployeeKeepHistoryConsistent() throws Exception {
+        List<Integer> empNos = activeEmpNos.subList(20, 60);
+        for (int empNo : empNos) {
+            List<LocalDate> accepted = new ArrayList<>();
+            run(CONTENDERS, i -> {
+                LocalDate fromDate = LocalDate.of(2011, 1, 1).plusDays(i);
+                if (promote(empNo, fromDate, DEPARTMENTS[i % DEPARTMENTS.length])) {
+                    synchronized (accepted) {
+                        accepted.add(fromDate);
+                    }
+                }
+            });
+            assertTrue(!accepted.isEmpty(), "no promotion applied for " + empNo);
+            assertOneOpenRecordEach(empNo, accepted.stream().max(LocalDate::compareTo).orElseThrow());
+        }
+    }
+
+    @Test
+    void promotionsOfDifferentEmployeesRunInParallel() throws Exception {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        int perRun = 400;
+        List<Integer> warmup = activeEmpNos.subList(100, 100 + perRun);
+        List<Integer> serial = activeEmpNos.subList(100 + perRun, 100 + 2 * perRun);
+        List<Integer> parallel = activeEmpNos.subList(100 + 2 * perRun, 100 + 3 * perRun);
+
+        promoteAll(warmup, threads);
+        double serialRate = promoteAll(serial, 1);
+        lockHolders.start();
+        double parallelRate;
+        try {
+            parallelRate = promoteAll(parallel, threads);
+        } finally {
+            lockHolders.stop();
+        }
+        assertTrue(lockHolders.peak() > 1, "promotions of different employees held their locks at the same time");
+        log.info("Promotions of distinct employees: {} /s with 1 thread, {} /s with {} threads ({}x)",
+                Math.round(serialRate), Math.round(parallelRate), threads,
+                String.format("%.2f", parallelRate / serialRate));
+    }
+
+    @Test
+    void recordClosedBehindTheSnapshotRejectsRollsBackAndSucceedsOnRetry() {
+        int empNo = activeEmpNos.get(1500);
+        List<LocalDate> salaries = openFromDates("salaries", empNo);
+        // another writer changes the title; the current-state index does not see it
+        jdbcTemplate.update("UPDATE titles SET to_date = ? WHERE emp_no = ? AND to_date = ?",
+                LocalDate.of(2013, 6, 30), empNo, PromotionState.OPEN);
+        jdbcTemplate.update("INSERT INTO titles (emp_no, title, from_date, to_date) VALUES (?, ?, ?, ?)",
+                empNo, "Engineer", LocalDate.of(2013, 7, 1), PromotionState.OPEN);
+
+        PromotionRequestDTO dto = new PromotionRequestDTO();
+        dto.setEmpNo(empNo);
+        dto.setNewTitle("Staff Engineer");
+        dto.setFromDate(LocalDate.of(2013, 8, 1));
+        dto.setNewSalary(95000);
+        dto.setDeptNo(DEPARTMENTS[0]);
+        dto.setManager(false);
+        ResponseStatusException conflict = assertThrows(ResponseStatusException.class,
+                () -> employeeService.promoteEmployee(dto));
+
+        assertEquals(HttpStatus.CONFLICT, conflict.getStatusCode());
+        // the salary written before the failed title update is rolled back
+        assertEquals(salaries, openFromDates("salaries", empNo), "open salaries of " + empNo);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM salaries WHERE emp_no = ? AND from_date = ?",
+                Integer.class, empNo, dto.getFromDate()));
+
+        // the conflict refreshed the employee's index entry, so the retry sees the closed title
+        employeeService.promoteEmployee(dto);
+        assertOneOpenRecordEach(empNo, dto.getFromDate());
+    }
+
+    /** Promotes each employee once, spread over the threads, and returns promotions per second. */
+    private double promoteAll(List<Integer> empNos, int threads) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        long start = System.nanoTime();
+        run(threads, i -> {
+            for (int n = next.getAndIncrement(); n < empNos.size(); n = next.getAndIncrement()) {
+                int empNo = empNos.get(n);
+                assertTrue(promote(empNo, LocalDate.of(2012, 1, 1), DEPARTMENTS[empNo % DEPARTMENTS.length]),
+                        "promotion rejected for " + empNo);
+            }
+        });
+        return empNos.size() * 1e9 / (System.nanoTime() - start);
+    }
+
+    /** Returns whether the promotion was applied; a rule violation counts as rejected. */
+    private boolean promote(int empNo, LocalDate fromDate, String deptNo) {
+        PromotionRequestDTO dto = new PromotionRequestDTO();
+        dto.setEmpNo(empNo);
+        dto.setNewTitle("Staff Engineer");
+        dto.setFromDate(fromDate);
+        dto.setNewSalary(90000 + fromDate.getDayOfYear());
+        dto.setDeptNo(deptNo);
+        dto.setManager(false);
+        try {
+            employeeService.promoteEmployee(dto);
+            return true;
+        } catch (ResponseStatusException e) {
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void assertOneOpenRecordEach(int empNo, LocalDate fromDate) {
+        assertEquals(List.of(fromDate), openFromDates("salaries", empNo), "open salaries of " + empNo);
+        assertEquals(List.of(fromDate), openFromDates("titles", empNo), "open titles of " + empNo);
+        assertEquals(List.of(fromDate), openFromDates("dept_emp", empNo), "open departments of " + empNo);
+    }
+
+    private List<LocalDate> openFromDates(String table, int empNo) {
+        return jdbcTemplate.queryForList("SELECT from_date FROM " + table + " WHERE emp_no = ? AND to_date = ?",
+                LocalDate.class, empNo, PromotionState.OPEN);
+    }
+
+    /** Runs the task on that many threads, released together, and rethrows the first failure. */
+    private static void run(int threads, Task task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int thread = i;
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    start.await();
+                    task.run(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        void run(int thread) throws Exception;
+    }
+
+    /**
+     * Counts the promotions inside their employee lock while measuring.
+     * <p>
+     * {@link EmployeePromotedEvent} is published inside the transaction, so while
+     * the listener runs the promoting thread holds its lock. Until a second holder
+     * has been seen, the listener waits briefly for one, so that a single lock
+     * shared by all employees would show up as a peak of 1.
+     * </p>
+     */
+    @TestConfiguration
+    static class LockHolders {
+
+        private static final long WAIT_NANOS = 100_000_000;
+
+        private final AtomicInteger inside = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+        private volatile boolean measuring;
+
+        void start() {
+            peak.set(0);
+            measuring = true;
+        }
+
+        void stop() {
+            measuring = false;
+        }
+
+        int peak() {
+            return peak.get();
+        }
+
+        @EventListener
+        public void onEmployeePromoted(EmployeePromotedEvent event) throws InterruptedException {
+            if (!measuring) {
+                return;
+            }
+            peak.accumulateAndGet(inside.incrementAndGet(), Math::max);
+            try {
+                long deadline = System.nanoTime() + WAIT_NANOS;
+                while (peak.get() < 2 && System.nanoTime() < deadline) {
+                    Thread.sleep(1);
+                }
+            } finally {
+                inside.decrementAndGet();
+            }
+        }
+    }
+}